@@ -0,0 +1,26 @@
+package org.oldvabik.orderservice.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveSegment {
+    private String file;
+    // null for segments written before indexes existed
+    private String index;
+    private Long minId;
+    private Long maxId;
+    private LocalDateTime minCreationDate;
+    private LocalDateTime maxCreationDate;
+    private Integer count;
+
+    public boolean containsId(Long id) {
+        return minId <= id && id <= maxId;
+    }
+}
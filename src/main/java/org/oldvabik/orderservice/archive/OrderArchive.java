@@ -0,0 +1,340 @@
+package org.oldvabik.orderservice.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.config.OrderArchiveProperties;
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for archived orders: gzip-compressed NDJSON segments on local disk.
+ *
+ * <p>Each segment holds one archival batch sorted by id. {@code manifest.ndjson}
+ * records the id and creation-date range of every segment, so a lookup only opens
+ * the segments whose id range covers the requested id. A segment file is written
+ * completely before it is listed in the manifest; the directory must be shared
+ * between instances for every instance to see all archived orders. Segments
+ * listed by other instances are picked up when a lookup misses, at most once per
+ * {@code manifest-refresh-interval}, so a miss does not read the manifest every time.
+ *
+ * <p>A segment is written as a series of gzip members of {@value #BLOCK_SIZE} orders
+ * each, next to an index file with the segment's sorted ids and the byte offset of
+ * every member. A lookup checks the index first and decompresses only the member
+ * holding the id; an id the index does not list costs no decompression at all.
+ * Indexes are loaded on first use and kept up to {@code index-cache-max-ids} ids.
+ * Segments written before indexes existed have no index and are scanned as before.
+ */
+@Slf4j
+@Component
+public class OrderArchive {
+    private static final String MANIFEST = "manifest.ndjson";
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+    static final int BLOCK_SIZE = 64;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    // separate from the write lock, so lookups do not wait for a segment being written
+    private final Object manifestLock = new Object();
+    private long manifestOffset = 0;
+    private final long refreshIntervalNanos;
+    private final AtomicLong nextRefreshNanos;
+    private final Cache<String, SegmentIndex> indexes;
+
+    public OrderArchive(ObjectMapper objectMapper, OrderArchiveProperties properties) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(properties.getDirectory());
+        this.refreshIntervalNanos = properties.getManifestRefreshInterval().toNanos();
+        this.nextRefreshNanos = new AtomicLong(System.nanoTime());
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(properties.getIndexCacheMaxIds())
+                .weigher((String file, SegmentIndex index) -> index.ids().length)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadManifest() {
+        int added = refresh();
+        log.info("[OrderArchive] loadManifest: {} segments in {}", added, directory);
+    }
+
+    /**
+     * Reads the manifest lines appended since the last read, including those
+     * written by other instances. The manifest is append-only, so only the new
+     * bytes are read; a line still being appended is left for the next call.
+     *
+     * @return the number of segments added
+     */
+    public int refresh() {
+        synchronized (manifestLock) {
+            return readManifestTail();
+        }
+    }
+
+    /**
+     * Refreshes unless another lookup already did so within the refresh interval;
+     * concurrent misses do not wait for each other, only one of them reads.
+     */
+    private int refreshIfDue() {
+        long now = System.nanoTime();
+        long due = nextRefreshNanos.get();
+        if (now - due < 0 || !nextRefreshNanos.compareAndSet(due, now + refreshIntervalNanos)) {
+            return 0;
+        }
+        return refresh();
+    }
+
+    private int readManifestTail() {
+        Path manifest = directory.resolve(MANIFEST);
+        try {
+            if (!Files.exists(manifest) || Files.size(manifest) <= manifestOffset) {
+                return 0;
+            }
+            byte[] tail;
+            try (InputStream in = Files.newInputStream(manifest)) {
+                in.skipNBytes(manifestOffset);
+                tail = in.readAllBytes();
+            }
+            int complete = lastNewline(tail) + 1;
+            if (complete == 0) {
+                return 0;
+            }
+            List<ArchiveSegment> loaded = new ArrayList<>();
+            for (String line : new String(tail, 0, complete, StandardCharsets.UTF_8).split("\\R")) {
+                if (!line.isBlank()) {
+                    loaded.add(objectMapper.readValue(line, ArchiveSegment.class));
+                }
+            }
+            segments.addAll(loaded);
+            manifestOffset += complete;
+            return loaded.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive manifest " + manifest, e);
+        }
+    }
+
+    public synchronized ArchiveSegment write(List<OrderDto> orders) throws IOException {
+        List<OrderDto> sorted = new ArrayList<>(orders);
+        sorted.sort(Comparator.comparing(OrderDto::getId));
+
+        String name = "orders-" + sorted.get(0).getId() + "-" + sorted.get(sorted.size() - 1).getId()
+                + "-" + System.currentTimeMillis();
+        ArchiveSegment segment = ArchiveSegment.builder()
+                .file(name + SEGMENT_SUFFIX)
+                .index(name + INDEX_SUFFIX)
+                .minId(sorted.get(0).getId())
+                .maxId(sorted.get(sorted.size() - 1).getId())
+                .minCreationDate(sorted.stream().map(OrderDto::getCreationDate).min(Comparator.naturalOrder()).get())
+                .maxCreationDate(sorted.stream().map(OrderDto::getCreationDate).max(Comparator.naturalOrder()).get())
+                .count(sorted.size())
+                .build();
+
+        Files.createDirectories(directory);
+        long[] blockOffsets = new long[(sorted.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        Path tmp = directory.resolve(segment.getFile() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            long offset = 0;
+            for (int block = 0; block < blockOffsets.length; block++) {
+                byte[] compressed = compress(sorted.subList(block * BLOCK_SIZE,
+                        Math.min((block + 1) * BLOCK_SIZE, sorted.size())));
+                blockOffsets[block] = offset;
+                out.write(compressed);
+                offset += compressed.length;
+            }
+        }
+        Path indexTmp = directory.resolve(segment.getIndex() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexTmp)))) {
+            out.writeInt(BLOCK_SIZE);
+            out.writeInt(sorted.size());
+            for (OrderDto order : sorted) {
+                out.writeLong(order.getId());
+            }
+            out.writeInt(blockOffsets.length);
+            for (long offset : blockOffsets) {
+                out.writeLong(offset);
+            }
+        }
+        Files.move(indexTmp, directory.resolve(segment.getIndex()), StandardCopyOption.ATOMIC_MOVE);
+        Files.move(tmp, directory.resolve(segment.getFile()), StandardCopyOption.ATOMIC_MOVE);
+
+        Files.writeString(directory.resolve(MANIFEST),
+                objectMapper.writeValueAsString(segment) + System.lineSeparator(),
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        refresh();
+
+        log.info("[OrderArchive] write: segment={}, orders={}", segment.getFile(), segment.getCount());
+        return segment;
+    }
+
+    /**
+     * Looks the order up in the known segments and, on a miss, once more after
+     * picking up segments other instances have listed since, if a refresh is due.
+     */
+    public Optional<OrderDto> findById(Long id) {
+        return Optional.ofNullable(findByIds(List.of(id)).get(id));
+    }
+
+    /**
+     * Batch form of {@link #findById}: each index and each compressed block is read
+     * at most once for all requested ids, and a miss refreshes the manifest at most once.
+     *
+     * @return the archived orders by id; ids not archived are absent
+     */
+    public Map<Long, OrderDto> findByIds(Collection<Long> ids) {
+        Map<Long, OrderDto> found = new HashMap<>();
+        int known = segments.size();
+        findByIds(ids, 0, known, found);
+        if (found.size() < ids.size() && refreshIfDue() > 0) {
+            findByIds(ids, known, segments.size(), found);
+        }
+        return found;
+    }
+
+    public List<ArchiveSegment> getSegments() {
+        return List.copyOf(segments);
+    }
+
+    private void findByIds(Collection<Long> ids, int from, int to, Map<Long, OrderDto> found) {
+        for (ArchiveSegment segment : segments.subList(from, to)) {
+            List<Long> wanted = ids.stream()
+                    .filter(id -> !found.containsKey(id) && segment.containsId(id))
+                    .sorted()
+                    .toList();
+            if (wanted.isEmpty()) {
+                continue;
+            }
+            for (OrderDto order : read(segment, wanted)) {
+                found.put(order.getId(), order);
+            }
+        }
+    }
+
+    private List<OrderDto> read(ArchiveSegment segment, List<Long> wanted) {
+        Path file = directory.resolve(segment.getFile());
+        if (segment.getIndex() == null) {
+            return scan(file, 0, wanted);
+        }
+        SegmentIndex index = indexes.get(segment.getIndex(), this::readIndex);
+        Map<Integer, List<Long>> byBlock = new TreeMap<>();
+        for (Long id : wanted) {
+            int position = Arrays.binarySearch(index.ids(), id);
+            if (position >= 0) {
+                byBlock.computeIfAbsent(position / index.blockSize(), block -> new ArrayList<>()).add(id);
+            }
+        }
+        List<OrderDto> found = new ArrayList<>();
+        byBlock.forEach((block, ids) -> found.addAll(scan(file, index.blockOffsets()[block], ids)));
+        return found;
+    }
+
+    private static int lastNewline(byte[] bytes) {
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads orders from {@code offset} on until every wanted id is found or the ids
+     * read pass the last wanted one. {@code wanted} must be sorted.
+     */
+    private List<OrderDto> scan(Path file, long offset, List<Long> wanted) {
+        Set<Long> remaining = new HashSet<>(wanted);
+        Long last = wanted.get(wanted.size() - 1);
+        List<OrderDto> found = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            in.skipNBytes(offset);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(in), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                OrderDto order = objectMapper.readValue(line, OrderDto.class);
+                if (remaining.remove(order.getId())) {
+                    found.add(order);
+                }
+                if (remaining.isEmpty() || order.getId() > last) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + file, e);
+        }
+        return found;
+    }
+
+    private byte[] compress(List<OrderDto> orders) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(bytes), StandardCharsets.UTF_8))) {
+            for (OrderDto order : orders) {
+                order.setUser(null);
+                writer.write(objectMapper.writeValueAsString(order));
+                writer.newLine();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private SegmentIndex readIndex(String name) {
+        Path file = directory.resolve(name);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int blockSize = in.readInt();
+            long[] ids = new long[in.readInt()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = in.readLong();
+            }
+            long[] blockOffsets = new long[in.readInt()];
+            for (int i = 0; i < blockOffsets.length; i++) {
+                blockOffsets[i] = in.readLong();
+            }
+            return new SegmentIndex(blockSize, ids, blockOffsets);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive index " + file, e);
+        }
+    }
+
+    private record SegmentIndex(int blockSize, long[] ids, long[] blockOffsets) {
+    }
+}
@@ -0,0 +1,148 @@
+package org.oldvabik.orderservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.config.ItemCacheProperties;
+import org.oldvabik.orderservice.dto.ItemDto;
+import org.oldvabik.orderservice.entity.Item;
+import org.oldvabik.orderservice.event.ItemChangeType;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.oldvabik.orderservice.mapper.ItemMapper;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Near cache of the item catalog, indexed by id and by name.
+ *
+ * <p>Entries are dropped on {@link ItemChangedEvent}s coming from this and other
+ * instances, and in any case expire after {@code app.item-cache.max-staleness},
+ * which bounds staleness when an invalidation message is lost. Callers always
+ * receive copies, so cached values cannot be modified from outside.
+ */
+@Slf4j
+@Component
+public class ItemCatalogCache implements ItemChangeListener {
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final ItemCacheProperties properties;
+    private final Cache<Long, ItemDto> byId;
+    private final Cache<String, ItemDto> byName;
+
+    public ItemCatalogCache(ItemRepository itemRepository,
+                            ItemMapper itemMapper,
+                            ItemCacheProperties properties) {
+        this.itemRepository = itemRepository;
+        this.itemMapper = itemMapper;
+        this.properties = properties;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getMaxStaleness())
+                .build();
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getMaxStaleness())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int size = (int) Math.min(properties.getMaxSize(), Integer.MAX_VALUE);
+        itemRepository.findAll(PageRequest.of(0, size, Sort.by("id")))
+                .forEach(item -> put(itemMapper.toDto(item)));
+        log.info("[ItemCatalogCache] warmUp: loaded {} items", byId.estimatedSize());
+    }
+
+    public Optional<ItemDto> findById(Long id) {
+        ItemDto cached = byId.getIfPresent(id);
+        if (cached == null) {
+            cached = itemRepository.findById(id).map(itemMapper::toDto).orElse(null);
+            if (cached != null) {
+                put(cached);
+            }
+        }
+        return Optional.ofNullable(cached).map(ItemCatalogCache::copy);
+    }
+
+    /**
+     * Returns the cached items among {@code ids} and loads the rest with a
+     * single query. Ids that match no item are absent from the result.
+     */
+    public Map<Long, ItemDto> findByIds(Collection<Long> ids) {
+        Map<Long, ItemDto> result = new HashMap<>(ids.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            ItemDto cached = byId.getIfPresent(id);
+            if (cached != null) {
+                result.put(id, copy(cached));
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Item item : itemRepository.findAllById(misses)) {
+                ItemDto loaded = itemMapper.toDto(item);
+                put(loaded);
+                result.put(loaded.getId(), copy(loaded));
+            }
+        }
+        return result;
+    }
+
+    public Optional<ItemDto> findByName(String name) {
+        ItemDto cached = byName.getIfPresent(name);
+        if (cached == null) {
+            cached = itemRepository.findByName(name).map(itemMapper::toDto).orElse(null);
+            if (cached != null) {
+                put(cached);
+            }
+        }
+        return Optional.ofNullable(cached).map(ItemCatalogCache::copy);
+    }
+
+    @Override
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getType() == ItemChangeType.IMPORTED) {
+            invalidateAll();
+            log.debug("[ItemCatalogCache] onItemChanged: invalidated all after import");
+            return;
+        }
+        if (event.getItemId() != null) {
+            ItemDto removed = byId.asMap().remove(event.getItemId());
+            if (removed != null) {
+                byName.invalidate(removed.getName());
+            }
+        }
+        if (event.getName() != null) {
+            byName.invalidate(event.getName());
+        }
+        if (event.getPreviousName() != null) {
+            byName.invalidate(event.getPreviousName());
+        }
+        log.debug("[ItemCatalogCache] onItemChanged: itemId={}, type={}", event.getItemId(), event.getType());
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+    }
+
+    private void put(ItemDto item) {
+        byId.put(item.getId(), item);
+        byName.put(item.getName(), item);
+    }
+
+    private static ItemDto copy(ItemDto item) {
+        return new ItemDto(item.getId(), item.getName(), item.getPrice());
+    }
+}
@@ -0,0 +1,27 @@
+package org.oldvabik.orderservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+@Slf4j
+@Component
+public class ItemChangeDispatcher {
+    private final List<ItemChangeListener> listeners;
+
+    public ItemChangeDispatcher(List<ItemChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    public void dispatch(ItemChangedEvent event) {
+        for (ItemChangeListener listener : listeners) {
+            try {
+                listener.onItemChanged(event);
+            } catch (Exception e) {
+                log.error("[ItemChangeDispatcher] {} failed for itemId={}: {}",
+                        listener.getClass().getSimpleName(), event.getItemId(), e.getMessage(), e);
+            }
+        }
+    }
+}
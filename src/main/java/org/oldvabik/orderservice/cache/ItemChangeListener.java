@@ -0,0 +1,11 @@
+package org.oldvabik.orderservice.cache;
+
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+
+/**
+ * In-memory view of the item catalog that must follow catalog changes made
+ * on this or any other instance.
+ */
+public interface ItemChangeListener {
+    void onItemChanged(ItemChangedEvent event);
+}
@@ -0,0 +1,186 @@
+package org.oldvabik.orderservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.config.ItemCacheProperties;
+import org.oldvabik.orderservice.event.ItemChangeType;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of all item names, so a name that is certainly not in the
+ * catalog is rejected without a database lookup.
+ *
+ * <p>{@link #mightContain(String)} never returns {@code false} for an existing
+ * name; it returns {@code true} for a missing one with about
+ * {@code app.item-cache.name-filter-false-positive-rate} probability. Names of
+ * created and renamed items are added as catalog changes arrive; removed names
+ * stay set until the next periodic rebuild, which also resizes the filter to
+ * the catalog. Until the first load every name is reported as possibly present.
+ *
+ * <p>A name reported missing can still exist when it was created on another
+ * instance and its event has not arrived yet, so callers confirm a miss against
+ * the catalog and record a confirmed one with {@link #recordMissing(String)}.
+ * Confirmed misses are answered by {@link #isKnownMissing(String)} without
+ * another lookup for {@code app.item-cache.name-miss-ttl}, or until the name is
+ * created locally or its event arrives; that TTL bounds how long an item from
+ * another instance can be rejected when its event is lost or late.
+ */
+@Slf4j
+@Component
+public class ItemNameFilter implements ItemChangeListener {
+    private static final int MIN_CAPACITY = 1024;
+
+    private final ItemRepository itemRepository;
+    private final ItemCacheProperties properties;
+    // guards swapping the filters against add(), so a name is never added only to a discarded filter
+    private final Object swapLock = new Object();
+    private volatile Filter filter;
+    // filter being loaded by rebuild(); names changed meanwhile are added to it too
+    private Filter loading;
+    private final Cache<String, Boolean> confirmedMisses;
+
+    public ItemNameFilter(ItemRepository itemRepository, ItemCacheProperties properties) {
+        this.itemRepository = itemRepository;
+        this.properties = properties;
+        this.confirmedMisses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getNameMissTtl())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.item-cache.name-index-rebuild-interval:PT10M}",
+               fixedDelayString = "${app.item-cache.name-index-rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        long count = itemRepository.count();
+        // room to grow until the next rebuild without losing the target rate
+        Filter rebuilt = new Filter(Math.max(count * 2, MIN_CAPACITY), properties.getNameFilterFalsePositiveRate());
+        synchronized (swapLock) {
+            loading = rebuilt;
+        }
+        List<String> names = itemRepository.findAllNames();
+        for (String name : names) {
+            rebuilt.add(name);
+        }
+        synchronized (swapLock) {
+            filter = rebuilt;
+            loading = null;
+        }
+        confirmedMisses.invalidateAll();
+        log.info("[ItemNameFilter] rebuild: added {} names to {} bits with {} hashes",
+                names.size(), rebuilt.bits, rebuilt.hashCount);
+    }
+
+    public boolean mightContain(String name) {
+        Filter current = filter;
+        return current == null || name == null || current.mightContain(name);
+    }
+
+    public boolean isKnownMissing(String name) {
+        return name != null && confirmedMisses.getIfPresent(name) != null;
+    }
+
+    /**
+     * Records a name the filter reported missing and the catalog confirmed.
+     */
+    public void recordMissing(String name) {
+        if (name != null) {
+            confirmedMisses.put(name, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getType() == ItemChangeType.IMPORTED) {
+            rebuild();
+            return;
+        }
+        if (event.getName() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED, UPDATED -> add(event.getName());
+            case DELETED -> {
+                // bits cannot be cleared, the name is dropped on the next rebuild
+            }
+        }
+    }
+
+    /**
+     * Adds a name known to exist, such as one found in the catalog after the
+     * filter reported it missing.
+     */
+    public void add(String name) {
+        confirmedMisses.invalidate(name);
+        synchronized (swapLock) {
+            if (filter != null) {
+                filter.add(name);
+            }
+            if (loading != null) {
+                loading.add(name);
+            }
+        }
+    }
+
+    private static final class Filter {
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashCount;
+
+        private Filter(long capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.words = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+        }
+
+        private void add(String name) {
+            long hash = hash(name);
+            long h1 = hash;
+            long h2 = hash >>> 32 | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                words.getAndUpdate(word, w -> w | mask);
+            }
+        }
+
+        private boolean mightContain(String name) {
+            long hash = hash(name);
+            long h1 = hash;
+            long h2 = hash >>> 32 | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a over the UTF-16 chars, finished with the murmur3 mix
+        private static long hash(String name) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < name.length(); i++) {
+                h ^= name.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
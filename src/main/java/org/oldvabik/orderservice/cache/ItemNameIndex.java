@@ -0,0 +1,105 @@
+package org.oldvabik.orderservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.event.ItemChangeType;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory index of all item names for prefix autocomplete.
+ *
+ * <p>Keys are {@code lower(name) + '\0' + name}, so names differing only in case
+ * do not collide and a prefix lookup is a single range scan of the skip list.
+ * The index follows catalog changes and is rebuilt from the database
+ * periodically to repair any missed invalidation. Changes arriving while a
+ * rebuild loads are replayed onto the new index before it replaces the old one.
+ */
+@Slf4j
+@Component
+public class ItemNameIndex implements ItemChangeListener {
+    private static final char SEPARATOR = '\0';
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+
+    private final ItemRepository itemRepository;
+    // guards swapping the index against onItemChanged, so no change is applied only to the old index
+    private final Object swapLock = new Object();
+    private volatile ConcurrentSkipListMap<String, String> names = new ConcurrentSkipListMap<>();
+    // changes seen while rebuild() loads, replayed onto the new index
+    private List<ItemChangedEvent> changedWhileLoading;
+
+    public ItemNameIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.item-cache.name-index-rebuild-interval:PT10M}",
+               fixedDelayString = "${app.item-cache.name-index-rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        synchronized (swapLock) {
+            changedWhileLoading = new ArrayList<>();
+        }
+        ConcurrentSkipListMap<String, String> rebuilt = new ConcurrentSkipListMap<>();
+        for (String name : itemRepository.findAllNames()) {
+            rebuilt.put(key(name), name);
+        }
+        synchronized (swapLock) {
+            for (ItemChangedEvent event : changedWhileLoading) {
+                apply(rebuilt, event);
+            }
+            changedWhileLoading = null;
+            names = rebuilt;
+        }
+        log.info("[ItemNameIndex] rebuild: indexed {} names", rebuilt.size());
+    }
+
+    public List<String> findByPrefix(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>(limit);
+        for (String name : names.subMap(from, true, from + MAX_CHAR, false).values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(name);
+        }
+        return result;
+    }
+
+    @Override
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getType() == ItemChangeType.IMPORTED) {
+            rebuild();
+            return;
+        }
+        synchronized (swapLock) {
+            apply(names, event);
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(event);
+            }
+        }
+    }
+
+    private static void apply(ConcurrentSkipListMap<String, String> index, ItemChangedEvent event) {
+        if (event.getPreviousName() != null) {
+            index.remove(key(event.getPreviousName()));
+        }
+        if (event.getName() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED, UPDATED -> index.put(key(event.getName()), event.getName());
+            case DELETED -> index.remove(key(event.getName()));
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT) + SEPARATOR + name;
+    }
+}
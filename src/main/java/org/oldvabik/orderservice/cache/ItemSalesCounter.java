@@ -0,0 +1,252 @@
+package org.oldvabik.orderservice.cache;
+
+import org.oldvabik.orderservice.dto.SalesWindow;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Quantities sold per item over the last day, in one-minute buckets.
+ *
+ * <p>Next to the buckets, a running total per item is kept for every
+ * {@link SalesWindow}: a sale is added to its bucket and to every total, and a
+ * bucket leaving a window is subtracted from that window's total once, when
+ * the minute turns. A top-N query therefore only walks the items sold within
+ * the window, whatever the number of orders. Sales are recorded concurrently
+ * under the read lock; turning the minute and replacing buckets take the write
+ * lock.
+ *
+ * <p>Sales not yet written to {@code item_sales_buckets} are kept apart until
+ * the snapshot job drains them. The job then replaces the recent buckets with
+ * the stored ones, which include the sales of all instances, plus whatever was
+ * recorded here in the meantime.
+ */
+@Component
+public class ItemSalesCounter {
+    private static final int SLOTS = SalesWindow.DAY.getMinutes();
+
+    private final long[] slotMinutes = new long[SLOTS];
+    private final List<ConcurrentHashMap<Long, LongAdder>> slots = new ArrayList<>(SLOTS);
+    private final Map<SalesWindow, ConcurrentHashMap<Long, LongAdder>> totals = new EnumMap<>(SalesWindow.class);
+    private final Map<Long, ConcurrentHashMap<Long, LongAdder>> pending = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long lastMinute = Long.MIN_VALUE;
+
+    public ItemSalesCounter() {
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(new ConcurrentHashMap<>());
+        }
+        for (SalesWindow window : SalesWindow.values()) {
+            totals.put(window, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Minutes since the epoch, UTC.
+     */
+    public long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    public void record(Map<Long, Long> quantitiesByItem) {
+        long minute = advance();
+        lock.readLock().lock();
+        try {
+            ConcurrentHashMap<Long, LongAdder> bucket = slots.get(slot(minute));
+            ConcurrentHashMap<Long, LongAdder> unsaved = pending.computeIfAbsent(minute, m -> new ConcurrentHashMap<>());
+            quantitiesByItem.forEach((itemId, quantity) -> {
+                add(bucket, itemId, quantity);
+                add(unsaved, itemId, quantity);
+                for (ConcurrentHashMap<Long, LongAdder> total : totals.values()) {
+                    add(total, itemId, quantity);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the sales once the current transaction commits, or right away
+     * when there is none.
+     */
+    public void recordAfterCommit(Map<Long, Long> quantitiesByItem) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(quantitiesByItem);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(quantitiesByItem);
+            }
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} items with the highest quantity in the
+     * window, highest first.
+     */
+    public List<ItemQuantityRow> top(SalesWindow window, int limit) {
+        advance();
+        Comparator<ItemQuantityRow> ranking = Comparator.comparing(ItemQuantityRow::getQuantity)
+                .thenComparing(ItemQuantityRow::getItemId, Comparator.reverseOrder());
+        PriorityQueue<ItemQuantityRow> heap = new PriorityQueue<>(limit + 1, ranking);
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, LongAdder> entry : totals.get(window).entrySet()) {
+                long quantity = entry.getValue().sum();
+                if (quantity <= 0) {
+                    continue;
+                }
+                ItemQuantityRow row = new ItemQuantityRow(entry.getKey(), quantity);
+                if (heap.size() < limit) {
+                    heap.add(row);
+                } else if (ranking.compare(row, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(row);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ItemQuantityRow> result = new ArrayList<>(heap);
+        result.sort(ranking.reversed());
+        return result;
+    }
+
+    /**
+     * Removes and returns the sales recorded since the last call, by minute
+     * and item.
+     */
+    public Map<Long, Map<Long, Long>> drainUnsaved() {
+        lock.writeLock().lock();
+        try {
+            Map<Long, Map<Long, Long>> drained = new HashMap<>();
+            pending.forEach((minute, bucket) -> drained.put(minute, sums(bucket)));
+            pending.clear();
+            return drained;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puts back sales returned by {@link #drainUnsaved()} that could not be
+     * stored.
+     */
+    public void restoreUnsaved(Map<Long, Map<Long, Long>> unsaved) {
+        lock.readLock().lock();
+        try {
+            unsaved.forEach((minute, bucket) -> {
+                ConcurrentHashMap<Long, LongAdder> target = pending.computeIfAbsent(minute, m -> new ConcurrentHashMap<>());
+                bucket.forEach((itemId, quantity) -> add(target, itemId, quantity));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the buckets of {@code [fromMinute, toMinute]} with the stored
+     * sales plus the sales not stored yet. Minutes outside the last day are
+     * ignored.
+     */
+    public void replace(long fromMinute, long toMinute, Map<Long, Map<Long, Long>> stored) {
+        long now = advance();
+        lock.writeLock().lock();
+        try {
+            for (long minute = Math.max(fromMinute, now - SLOTS + 1); minute <= Math.min(toMinute, now); minute++) {
+                ConcurrentHashMap<Long, LongAdder> bucket = new ConcurrentHashMap<>();
+                stored.getOrDefault(minute, Map.of()).forEach((itemId, quantity) -> add(bucket, itemId, quantity));
+                ConcurrentHashMap<Long, LongAdder> unsaved = pending.get(minute);
+                if (unsaved != null) {
+                    unsaved.forEach((itemId, quantity) -> add(bucket, itemId, quantity.sum()));
+                }
+
+                int slot = slot(minute);
+                ConcurrentHashMap<Long, LongAdder> previous = slots.get(slot);
+                for (SalesWindow window : SalesWindow.values()) {
+                    if (minute > now - window.getMinutes()) {
+                        subtract(totals.get(window), previous);
+                        bucket.forEach((itemId, quantity) -> add(totals.get(window), itemId, quantity.sum()));
+                    }
+                }
+                slots.set(slot, bucket);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the buckets to the current minute, subtracting the buckets that
+     * left a window from its total.
+     */
+    private long advance() {
+        long now = currentMinute();
+        long last = lastMinute;
+        if (now <= last) {
+            return last;
+        }
+
+        lock.writeLock().lock();
+        try {
+            last = lastMinute;
+            if (now <= last) {
+                return last;
+            }
+            if (last != Long.MIN_VALUE) {
+                for (SalesWindow window : SalesWindow.values()) {
+                    long to = Math.min(last, now - window.getMinutes());
+                    for (long minute = last - window.getMinutes() + 1; minute <= to; minute++) {
+                        if (slotMinutes[slot(minute)] == minute) {
+                            subtract(totals.get(window), slots.get(slot(minute)));
+                        }
+                    }
+                }
+            }
+            long from = last == Long.MIN_VALUE ? now - SLOTS + 1 : Math.max(last + 1, now - SLOTS + 1);
+            for (long minute = from; minute <= now; minute++) {
+                slotMinutes[slot(minute)] = minute;
+                slots.set(slot(minute), new ConcurrentHashMap<>());
+            }
+            lastMinute = now;
+            return now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) SLOTS);
+    }
+
+    private static void add(ConcurrentHashMap<Long, LongAdder> counts, Long itemId, long quantity) {
+        counts.computeIfAbsent(itemId, id -> new LongAdder()).add(quantity);
+    }
+
+    private static void subtract(ConcurrentHashMap<Long, LongAdder> total, Map<Long, LongAdder> bucket) {
+        bucket.forEach((itemId, quantity) -> total.computeIfPresent(itemId, (id, sum) -> {
+            sum.add(-quantity.sum());
+            return sum.sum() == 0 ? null : sum;
+        }));
+    }
+
+    private static Map<Long, Long> sums(Map<Long, LongAdder> bucket) {
+        Map<Long, Long> result = new HashMap<>(bucket.size() * 2);
+        bucket.forEach((itemId, quantity) -> result.put(itemId, quantity.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+    private Duration ttl = Duration.ofHours(24);
+    private long cacheSize = 10_000;
+    private int cleanupBatchSize = 1000;
+}
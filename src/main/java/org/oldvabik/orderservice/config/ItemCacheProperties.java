@@ -0,0 +1,16 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.item-cache")
+public class ItemCacheProperties {
+    private long maxSize = 10_000;
+    private Duration maxStaleness = Duration.ofMinutes(5);
+    private double nameFilterFalsePositiveRate = 0.01;
+    private Duration nameMissTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,13 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.item-ranking")
+public class ItemRankingProperties {
+    private Duration snapshotInterval = Duration.ofSeconds(30);
+}
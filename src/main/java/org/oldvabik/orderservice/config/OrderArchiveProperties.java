@@ -0,0 +1,21 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.order-archive")
+public class OrderArchiveProperties {
+    private boolean enabled = false;
+    private String directory = "data/order-archive";
+    private Duration minAge = Duration.ofDays(90);
+    private int batchSize = 1000;
+    private List<OrderStatus> statuses = List.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    private Duration manifestRefreshInterval = Duration.ofSeconds(1);
+    private long indexCacheMaxIds = 2_000_000;
+}
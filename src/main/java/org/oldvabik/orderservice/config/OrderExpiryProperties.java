@@ -0,0 +1,15 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.order-expiry")
+public class OrderExpiryProperties {
+    private boolean enabled = true;
+    private Duration pendingTtl = Duration.ofHours(24);
+    private int batchSize = 500;
+}
@@ -0,0 +1,18 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.order-intake")
+public class OrderIntakeProperties {
+    private boolean enabled = false;
+    private int queueCapacity = 10_000;
+    private int batchSize = 200;
+    private int workers = 2;
+    private Duration statusTtl = Duration.ofHours(1);
+    private long statusCacheSize = 100_000;
+}
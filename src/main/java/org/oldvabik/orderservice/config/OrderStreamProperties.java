@@ -0,0 +1,18 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.order-stream")
+public class OrderStreamProperties {
+    private int bufferSize = 10_000;
+    private int maxSubscribers = 10_000;
+    private Duration timeout = Duration.ofMinutes(30);
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private int subscriberQueueSize = 256;
+    private int senderThreads = 4;
+}
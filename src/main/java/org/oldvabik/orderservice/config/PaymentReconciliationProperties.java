@@ -0,0 +1,16 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.payment-reconciliation")
+public class PaymentReconciliationProperties {
+    private boolean enabled = false;
+    private int chunkSize = 100_000;
+    private int parallelism = 4;
+    private Duration reportTtl = Duration.ofDays(30);
+}
@@ -0,0 +1,71 @@
+package org.oldvabik.orderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.oldvabik.orderservice.datasource.ReadYourWritesTracker;
+import org.oldvabik.orderservice.datasource.ReplicaLagMonitor;
+import org.oldvabik.orderservice.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured datasource with primary/replica routing when
+ * {@code app.datasource.replica.enabled} is set. The primary pool keeps using
+ * the {@code spring.datasource} settings.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties,
+                                              ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               HikariDataSource replicaDataSource,
+                                               ReplicaDataSourceProperties properties) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, properties.getMaxLag());
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaDataSourceProperties properties) {
+        return new ReadYourWritesTracker(properties.getStickyWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaLagMonitor, readYourWritesTracker);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
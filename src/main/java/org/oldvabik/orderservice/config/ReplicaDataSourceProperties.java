@@ -0,0 +1,20 @@
+package org.oldvabik.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+    private Duration stickyWindow = Duration.ofSeconds(10);
+}
@@ -0,0 +1,82 @@
+package org.oldvabik.orderservice.controller;
+
+import org.oldvabik.orderservice.dto.ItemDto;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entity tags for API responses and {@code If-None-Match} matching.
+ *
+ * <p>Items and item pages get strong tags hashed from the fields they are
+ * serialized from. Orders get weak tags built from the change sequences of the
+ * order and of the items on its lines: the body also carries a user snapshot,
+ * which changes without either of them.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    public static String ofVersion(String version) {
+        return "W/\"" + version + "\"";
+    }
+
+    public static String of(ItemDto item) {
+        StringBuilder content = new StringBuilder();
+        append(content, item);
+        return hash(content);
+    }
+
+    public static String of(Page<ItemDto> page) {
+        StringBuilder content = new StringBuilder()
+                .append(page.getNumber()).append('\n')
+                .append(page.getSize()).append('\n')
+                .append(page.getTotalElements()).append('\n');
+        for (ItemDto item : page.getContent()) {
+            append(content, item);
+        }
+        return hash(content);
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value covers {@code eTag}. Tags
+     * are compared weakly, ignoring the {@code W/} prefix on either side, as
+     * required for {@code If-None-Match}.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String opaque = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static HttpHeaders headers(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        return headers;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static void append(StringBuilder content, ItemDto item) {
+        content.append(item.getId()).append('\n')
+                .append(item.getName()).append('\n')
+                .append(item.getPrice() != null ? item.getPrice().toPlainString() : "").append('\n');
+    }
+
+    private static String hash(StringBuilder content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -1,23 +1,39 @@
 package org.oldvabik.orderservice.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.oldvabik.orderservice.dto.BatchGetRequestDto;
+import org.oldvabik.orderservice.dto.BatchGetResultDto;
 import org.oldvabik.orderservice.dto.ItemCreateDto;
 import org.oldvabik.orderservice.dto.ItemDto;
+import org.oldvabik.orderservice.dto.ItemImportFormat;
+import org.oldvabik.orderservice.dto.ItemImportResultDto;
+import org.oldvabik.orderservice.dto.ItemStockDto;
+import org.oldvabik.orderservice.dto.ItemStockUpdateDto;
 import org.oldvabik.orderservice.dto.ItemUpdateDto;
+import org.oldvabik.orderservice.dto.SalesWindow;
+import org.oldvabik.orderservice.dto.TopItemDto;
 import org.oldvabik.orderservice.service.ItemService;
+import org.oldvabik.orderservice.service.ItemStockService;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemStockService itemStockService;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemStockService itemStockService) {
         this.itemService = itemService;
+        this.itemStockService = itemStockService;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -27,20 +43,69 @@ public class ItemController {
         return new ResponseEntity<>(createdItem, HttpStatus.CREATED);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ItemImportResultDto> importItemsCsv(InputStream body) {
+        ItemImportResultDto result = itemService.importItems(body, ItemImportFormat.CSV);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ItemImportResultDto> importItemsNdjson(InputStream body) {
+        ItemImportResultDto result = itemService.importItems(body, ItemImportFormat.NDJSON);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @GetMapping
     public ResponseEntity<Page<ItemDto>> getItems(@RequestParam(defaultValue = "0") Integer page,
                                                   @RequestParam(defaultValue = "5") Integer size,
-                                                  @RequestParam(required = false) String name) {
+                                                  @RequestParam(required = false) String name,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                  String ifNoneMatch) {
         Page<ItemDto> items = itemService.getItems(page, size, name);
+        String eTag = ETags.of(items);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(ETags.headers(eTag), HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(items, ETags.headers(eTag), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> autocomplete(@RequestParam String prefix,
+                                                     @RequestParam(defaultValue = "10") @Min(1) @Max(50) Integer limit) {
+        List<String> names = itemService.autocomplete(prefix, limit);
+        return new ResponseEntity<>(names, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/top")
+    public ResponseEntity<List<TopItemDto>> getTopItems(@RequestParam(defaultValue = "HOUR") SalesWindow window,
+                                                        @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer limit) {
+        List<TopItemDto> items = itemService.getTopItems(window, limit);
         return new ResponseEntity<>(items, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResultDto<ItemDto>> batchGetItems(@Valid @RequestBody BatchGetRequestDto dto) {
+        BatchGetResultDto<ItemDto> result = itemService.batchGetItems(dto.getIds());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @GetMapping("/{id}")
-    public ResponseEntity<ItemDto> getItemById(@PathVariable Long id) {
+    public ResponseEntity<ItemDto> getItemById(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
         ItemDto item = itemService.getItemById(id);
-        return new ResponseEntity<>(item, HttpStatus.OK);
+        String eTag = ETags.of(item);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(ETags.headers(eTag), HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(item, ETags.headers(eTag), HttpStatus.OK);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -51,6 +116,21 @@ public class ItemController {
         return new ResponseEntity<>(updatedItem, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<ItemStockDto> getStock(@PathVariable Long id) {
+        ItemStockDto stock = itemStockService.getStock(id);
+        return new ResponseEntity<>(stock, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/stock")
+    public ResponseEntity<ItemStockDto> setStock(@PathVariable Long id,
+                                                 @Valid @RequestBody ItemStockUpdateDto dto) {
+        ItemStockDto stock = itemStockService.setStock(id, dto.getQuantity());
+        return new ResponseEntity<>(stock, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
@@ -1,53 +1,215 @@
 package org.oldvabik.orderservice.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.oldvabik.orderservice.dto.BatchGetRequestDto;
+import org.oldvabik.orderservice.dto.BatchGetResultDto;
+import org.oldvabik.orderservice.dto.OrderBulkResponseDto;
+import org.oldvabik.orderservice.dto.OrderChangesDto;
 import org.oldvabik.orderservice.dto.OrderCreateDto;
 import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.dto.OrderIntakeDto;
+import org.oldvabik.orderservice.dto.OrderSliceDto;
+import org.oldvabik.orderservice.dto.OrderStatusDailyCountsDto;
 import org.oldvabik.orderservice.dto.OrderUpdateDto;
+import org.oldvabik.orderservice.dto.UserOrderSummaryDto;
 import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.service.OrderBulkService;
+import org.oldvabik.orderservice.service.OrderIntakeService;
 import org.oldvabik.orderservice.service.OrderService;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.oldvabik.orderservice.stream.OrderStatusStream;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderStatsService orderStatsService;
+    private final OrderBulkService orderBulkService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderStatusStream orderStatusStream;
+    private final UserOrderSummaryService userOrderSummaryService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           OrderStatsService orderStatsService,
+                           OrderBulkService orderBulkService,
+                           OrderIntakeService orderIntakeService,
+                           OrderStatusStream orderStatusStream,
+                           UserOrderSummaryService userOrderSummaryService) {
         this.orderService = orderService;
+        this.orderStatsService = orderStatsService;
+        this.orderBulkService = orderBulkService;
+        this.orderIntakeService = orderIntakeService;
+        this.orderStatusStream = orderStatusStream;
+        this.userOrderSummaryService = userOrderSummaryService;
     }
 
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @PostMapping
     public ResponseEntity<OrderDto> createOrder(Authentication auth,
+                                                @RequestHeader(value = "Idempotency-Key", required = false)
+                                                @Size(min = 1, max = 255) String idempotencyKey,
                                                 @Valid @RequestBody OrderCreateDto dto) {
-        OrderDto createdOrder = orderService.createOrder(auth, dto);
+        OrderDto createdOrder = orderService.createOrder(auth, dto, idempotencyKey);
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
 
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @PostMapping("/async")
+    public ResponseEntity<OrderIntakeDto> submitOrder(Authentication auth,
+                                                      @Valid @RequestBody OrderCreateDto dto) {
+        OrderIntakeDto accepted = orderIntakeService.submit(auth, dto);
+        return new ResponseEntity<>(accepted, HttpStatus.ACCEPTED);
+    }
+
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<OrderIntakeDto> getSubmission(Authentication auth,
+                                                        @PathVariable String trackingId) {
+        OrderIntakeDto status = orderIntakeService.getStatus(auth, trackingId);
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusChanges(Authentication auth,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderStatusStream.subscribe(auth, lastEventId);
+    }
+
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @PostMapping("/bulk")
+    public ResponseEntity<OrderBulkResponseDto> createOrders(Authentication auth,
+                                                             @RequestBody @Size(min = 1, max = 1000) List<OrderCreateDto> dtos) {
+        OrderBulkResponseDto result = orderBulkService.createOrders(auth, dtos);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
     public ResponseEntity<Page<OrderDto>> getOrders(Authentication auth,
                                                     @RequestParam(defaultValue = "0") Integer page,
                                                     @RequestParam(defaultValue = "5") Integer size,
                                                     @RequestParam(required = false) List<Long> ids,
-                                                    @RequestParam(required = false) List<OrderStatus> statuses) {
-        Page<OrderDto> orders = orderService.getOrders(auth, page, size, ids, statuses);
+                                                    @RequestParam(required = false) List<OrderStatus> statuses,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo) {
+        Page<OrderDto> orders = orderService.getOrders(auth, page, size, ids, statuses, createdFrom, createdTo);
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/me")
+    public ResponseEntity<OrderSliceDto> getMyOrders(Authentication auth,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size) {
+        OrderSliceDto orders = orderService.getMyOrders(auth, cursor, size);
+        return new ResponseEntity<>(orders, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/me/summary")
+    public ResponseEntity<UserOrderSummaryDto> getMySummary(Authentication auth) {
+        UserOrderSummaryDto summary = userOrderSummaryService.getMySummary(auth);
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<OrderSliceDto> getOrdersByUserId(Authentication auth,
+                                                           @PathVariable Long userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size) {
+        OrderSliceDto orders = orderService.getOrdersByUserId(auth, userId, cursor, size);
+        return new ResponseEntity<>(orders, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/users/{userId}/summary")
+    public ResponseEntity<UserOrderSummaryDto> getUserSummary(@PathVariable Long userId) {
+        UserOrderSummaryDto summary = userOrderSummaryService.getSummary(userId);
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/users/summary/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildUserSummaries() {
+        int rebuilt = userOrderSummaryService.rebuild();
+        return new ResponseEntity<>(Map.of("rebuilt", rebuilt), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats/statuses")
+    public ResponseEntity<Map<OrderStatus, Long>> getStatusCounts() {
+        Map<OrderStatus, Long> counts = orderStatsService.getStatusCounts();
+        return new ResponseEntity<>(counts, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats/statuses/daily")
+    public ResponseEntity<List<OrderStatusDailyCountsDto>> getDailyStatusCounts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<OrderStatusDailyCountsDto> counts = orderStatsService.getDailyStatusCounts(from, to);
+        return new ResponseEntity<>(counts, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/view/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildOrderView() {
+        int rebuilt = orderService.rebuildOrderView();
+        return new ResponseEntity<>(Map.of("rebuilt", rebuilt), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/changes")
+    public ResponseEntity<OrderChangesDto> getOrderChanges(Authentication auth,
+                                                           @RequestParam(required = false) String watermark,
+                                                           @RequestParam(defaultValue = "100") @Min(1) @Max(500) Integer size) {
+        OrderChangesDto changes = orderService.getOrderChanges(auth, watermark, size);
+        return new ResponseEntity<>(changes, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResultDto<OrderDto>> batchGetOrders(Authentication auth,
+                                                                      @Valid @RequestBody BatchGetRequestDto dto) {
+        BatchGetResultDto<OrderDto> result = orderService.batchGetOrders(auth, dto.getIds());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrderById(Authentication auth,
-                                                 @PathVariable Long id) {
+                                                 @PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch) {
+        // a client holding the current version is answered before the order and its user are loaded
+        String version = orderService.getOrderVersion(auth, id);
+        String eTag = version != null ? ETags.ofVersion(version) : null;
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(ETags.headers(eTag), HttpStatus.NOT_MODIFIED);
+        }
         OrderDto order = orderService.getOrderById(auth, id);
-        return new ResponseEntity<>(order, HttpStatus.OK);
+        return new ResponseEntity<>(order, ETags.headers(eTag), HttpStatus.OK);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -59,6 +221,17 @@ public class OrderController {
         return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping
+    public ResponseEntity<Map<String, Integer>> deleteOrders(@RequestParam(required = false) List<OrderStatus> statuses,
+                                                             @RequestParam(required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+                                                             @RequestParam(required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo) {
+        int deleted = orderBulkService.deleteOrders(statuses, createdFrom, createdTo);
+        return new ResponseEntity<>(Map.of("deleted", deleted), HttpStatus.OK);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
@@ -0,0 +1,87 @@
+package org.oldvabik.orderservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import java.time.Duration;
+
+/**
+ * Remembers which principals committed a write recently, so that their reads
+ * stay on the primary until the replica has had time to catch up.
+ *
+ * <p>The stickiness travels with the client: a committed write made during an
+ * HTTP request sets the {@value #COOKIE_NAME} cookie to the commit time, and a
+ * request carrying a cookie younger than the sticky window reads from the
+ * primary on whichever instance it lands. The time is compared against the
+ * local clock, so clock skew between instances shortens or lengthens the
+ * window by that much. Writes outside a request, and clients that drop the
+ * cookie, are still covered on the instance that made the write.
+ */
+public class ReadYourWritesTracker {
+    public static final String COOKIE_NAME = "last-write-at";
+
+    private final Duration stickyWindow;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrite(String principal) {
+        recentWriters.put(principal, Boolean.TRUE);
+
+        ServletRequestAttributes attributes = currentRequestAttributes();
+        HttpServletResponse response = attributes != null ? attributes.getResponse() : null;
+        if (response != null && !response.isCommitted()) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, String.valueOf(System.currentTimeMillis()))
+                    .path("/")
+                    .maxAge(stickyWindow)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+
+    public boolean isSticky(String principal) {
+        return recentWriters.getIfPresent(principal) != null || requestCarriesRecentWrite();
+    }
+
+    private boolean requestCarriesRecentWrite() {
+        ServletRequestAttributes attributes = currentRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long writtenAt = Long.parseLong(cookie.getValue());
+                    return System.currentTimeMillis() - writtenAt < stickyWindow.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ServletRequestAttributes currentRequestAttributes() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet : null;
+    }
+}
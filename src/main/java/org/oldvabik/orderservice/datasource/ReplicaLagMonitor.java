@@ -0,0 +1,104 @@
+package org.oldvabik.orderservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Periodically measures replication lag on the replica and marks it unusable
+ * while the lag exceeds {@code app.datasource.replica.max-lag} or the replica
+ * cannot be reached.
+ *
+ * <p>Lag is measured against the primary rather than the replica's own view:
+ * each check samples the primary's current WAL position, and the lag is the age
+ * of the oldest sample the replica has not replayed yet. An idle primary adds
+ * no new positions, so a caught-up replica reports zero lag, while a replica
+ * that stopped receiving WAL falls further behind with every check. A replica
+ * in recovery without a streaming WAL receiver is unusable regardless.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn()::text";
+    private static final String REPLICA_QUERY = """
+            SELECT pg_is_in_recovery() AS in_recovery,
+                   pg_last_wal_replay_lsn()::text AS replay_lsn,
+                   EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') AS streaming
+            """;
+    // enough for hours of checks; once full, the oldest unreplayed position keeps the lag growing
+    private static final int MAX_SAMPLES = 4096;
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private volatile boolean usable = false;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, Duration maxLag) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:PT5S}")
+    public synchronized void check() {
+        boolean wasUsable = usable;
+        try {
+            // the primary is read first, so whatever it had written is due on the replica by now
+            long primaryLsn = parseLsn(primaryJdbcTemplate.queryForObject(PRIMARY_LSN_QUERY, String.class));
+            Map<String, Object> replica = replicaJdbcTemplate.queryForMap(REPLICA_QUERY);
+            long now = System.nanoTime();
+
+            if (!Boolean.TRUE.equals(replica.get("in_recovery"))) {
+                samples.clear();
+                usable = true;
+            } else if (!Boolean.TRUE.equals(replica.get("streaming"))) {
+                usable = false;
+                log.warn("[ReplicaLagMonitor] check: replica has no streaming WAL receiver");
+            } else {
+                long lagMillis = lagMillis(now, primaryLsn, parseLsn((String) replica.get("replay_lsn")));
+                usable = lagMillis <= maxLag.toMillis();
+                if (!usable) {
+                    log.warn("[ReplicaLagMonitor] check: replica lag {} ms exceeds {}", lagMillis, maxLag);
+                }
+            }
+        } catch (RuntimeException e) {
+            usable = false;
+            log.warn("[ReplicaLagMonitor] check: replica unavailable: {}", e.getMessage());
+        }
+        if (usable && !wasUsable) {
+            log.info("[ReplicaLagMonitor] check: replica is usable for reads");
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    private long lagMillis(long now, long primaryLsn, long replayLsn) {
+        Sample last = samples.peekLast();
+        if ((last == null || primaryLsn > last.lsn()) && samples.size() < MAX_SAMPLES) {
+            samples.addLast(new Sample(now, primaryLsn));
+        }
+        while (!samples.isEmpty() && samples.peekFirst().lsn() <= replayLsn) {
+            samples.pollFirst();
+        }
+        Sample oldestPending = samples.peekFirst();
+        return oldestPending == null ? 0 : (now - oldestPending.nanos()) / 1_000_000;
+    }
+
+    private static long parseLsn(String lsn) {
+        if (lsn == null) {
+            return 0;
+        }
+        int slash = lsn.indexOf('/');
+        return Long.parseLong(lsn.substring(0, slash), 16) << 32 | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    private record Sample(long nanos, long lsn) {
+    }
+}
@@ -0,0 +1,70 @@
+package org.oldvabik.orderservice.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything
+ * else to the primary.
+ *
+ * <p>Must be wrapped in a {@code LazyConnectionDataSourceProxy}: the transaction
+ * manager opens the connection before the read-only flag of the transaction is
+ * published, so routing has to wait until the first statement. Reads fall back
+ * to the primary while the replica lags behind, and for principals that
+ * committed a write within the sticky window.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route();
+    }
+
+    public Route route() {
+        String principal = currentPrincipal();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (principal != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesTracker.recordWrite(principal);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+
+        if (principal != null && readYourWritesTracker.isSticky(principal)) {
+            return Route.PRIMARY;
+        }
+        return lagMonitor.isUsable() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    private static String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+}
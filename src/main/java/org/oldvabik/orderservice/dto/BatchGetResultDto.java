@@ -0,0 +1,20 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Found entries in the order their ids were requested, followed by the
+ * requested ids that matched nothing. Repeated ids are returned once.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetResultDto<T> {
+    private List<T> found;
+    private List<Long> missing;
+}
@@ -0,0 +1,6 @@
+package org.oldvabik.orderservice.dto;
+
+public enum BulkResultStatus {
+    CREATED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package org.oldvabik.orderservice.dto;
+
+public enum IntakeStatus {
+    QUEUED,
+    CREATED,
+    FAILED
+}
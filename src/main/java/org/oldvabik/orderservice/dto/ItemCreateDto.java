@@ -1,6 +1,7 @@
 package org.oldvabik.orderservice.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -21,5 +22,6 @@ public class ItemCreateDto {
 
     @NotNull
     @DecimalMin(value = "0.01")
+    @Digits(integer = 8, fraction = 2)
     private BigDecimal price;
 }
\ No newline at end of file
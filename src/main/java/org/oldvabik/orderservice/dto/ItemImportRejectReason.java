@@ -0,0 +1,8 @@
+package org.oldvabik.orderservice.dto;
+
+public enum ItemImportRejectReason {
+    MALFORMED_ROW,
+    INVALID_NAME,
+    INVALID_PRICE,
+    DUPLICATE_NAME
+}
@@ -0,0 +1,20 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportResultDto {
+    private Long received;
+    private Long inserted;
+    private Long updated;
+    private Long unchanged;
+    private Long rejected;
+    private List<ItemImportConflictDto> conflicts;
+}
@@ -0,0 +1,16 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStockDto {
+    private Long itemId;
+    private Boolean tracked;
+    private Long available;
+}
@@ -0,0 +1,18 @@
+package org.oldvabik.orderservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStockUpdateDto {
+    @NotNull
+    @PositiveOrZero
+    private Long quantity;
+}
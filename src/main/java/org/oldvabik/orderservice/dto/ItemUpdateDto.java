@@ -1,6 +1,7 @@
 package org.oldvabik.orderservice.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,5 +18,6 @@ public class ItemUpdateDto {
     private String name;
 
     @DecimalMin(value = "0.01")
+    @Digits(integer = 8, fraction = 2)
     private BigDecimal price;
 }
\ No newline at end of file
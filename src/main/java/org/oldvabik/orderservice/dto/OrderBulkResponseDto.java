@@ -0,0 +1,17 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkResponseDto {
+    private Integer created;
+    private Integer failed;
+    private List<OrderBulkResultDto> results;
+}
@@ -0,0 +1,17 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkResultDto {
+    private Integer index;
+    private BulkResultStatus status;
+    private Long orderId;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeDto {
+    private String trackingId;
+    private IntakeStatus status;
+    private Long orderId;
+    private String error;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+}
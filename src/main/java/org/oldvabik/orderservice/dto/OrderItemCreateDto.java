@@ -2,6 +2,7 @@ package org.oldvabik.orderservice.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,5 +17,6 @@ public class OrderItemCreateDto {
     private String name;
 
     @NotNull
+    @Positive
     private Integer quantity;
 }
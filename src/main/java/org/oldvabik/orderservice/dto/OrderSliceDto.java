@@ -0,0 +1,17 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSliceDto {
+    private List<OrderDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusDailyCountsDto {
+    private LocalDate day;
+    private Map<OrderStatus, Long> counts;
+}
@@ -0,0 +1,16 @@
+package org.oldvabik.orderservice.dto;
+
+public enum SalesWindow {
+    HOUR(60),
+    DAY(24 * 60);
+
+    private final int minutes;
+
+    SalesWindow(int minutes) {
+        this.minutes = minutes;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+}
@@ -0,0 +1,19 @@
+package org.oldvabik.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderSummaryDto {
+    private Long userId;
+    private Long orderCount;
+    private BigDecimal lifetimeSpend;
+    private LocalDateTime lastOrderDate;
+}
@@ -0,0 +1,54 @@
+package org.oldvabik.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.oldvabik.orderservice.dto.OrderDto;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an order creation request identified by an {@code Idempotency-Key},
+ * scoped to the principal that sent it. {@code response} holds the order
+ * returned to the first request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(IdempotencyRecord.Key.class)
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    private String principal;
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private OrderDto response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String principal;
+        private String idempotencyKey;
+    }
+}
@@ -0,0 +1,41 @@
+package org.oldvabik.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+
+/**
+ * One bucket of an item's available stock. The available quantity is the sum
+ * over all buckets; reservations take from a random bucket so concurrent
+ * buyers of the same item rarely wait on the same row. Items without buckets
+ * are not stock-tracked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(ItemStockBucket.Key.class)
+@Table(name = "item_stock_buckets")
+public class ItemStockBucket {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Id
+    private Short bucket;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long itemId;
+        private Short bucket;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +16,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "orders", indexes = {
-        @Index(name = "idx_orders_user_id", columnList = "user_id"),
+        @Index(name = "idx_orders_user_id_creation_date", columnList = "user_id, creation_date DESC, id"),
         @Index(name = "idx_orders_status", columnList = "status")
 })
 public class Order {
@@ -33,6 +34,9 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime creationDate = LocalDateTime.now();
 
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -30,5 +31,15 @@ public class OrderItem {
 
     @Column(nullable = false)
     private Integer quantity;
+
+    @Column(name = "order_creation_date", nullable = false)
+    private LocalDateTime orderCreationDate;
+
+    @PrePersist
+    void fillOrderCreationDate() {
+        if (orderCreationDate == null && order != null) {
+            orderCreationDate = order.getCreationDate();
+        }
+    }
 }
 
@@ -0,0 +1,40 @@
+package org.oldvabik.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+
+/**
+ * One stripe of the all-time order count for a status. The real count is the
+ * sum over all stripes; writers pick a random stripe so concurrent status
+ * changes rarely wait on the same row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(OrderStatusCounter.Key.class)
+@Table(name = "order_status_counters")
+public class OrderStatusCounter {
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Id
+    private Short stripe;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private OrderStatus status;
+        private Short stripe;
+    }
+}
@@ -0,0 +1,44 @@
+package org.oldvabik.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One stripe of the count of orders created on {@code day} that are currently
+ * in {@code status}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(OrderStatusDailyCounter.Key.class)
+@Table(name = "order_status_daily_counters")
+public class OrderStatusDailyCounter {
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    private Short stripe;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private OrderStatus status;
+        private LocalDate day;
+        private Short stripe;
+    }
+}
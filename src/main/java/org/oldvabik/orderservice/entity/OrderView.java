@@ -0,0 +1,53 @@
+package org.oldvabik.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.oldvabik.orderservice.dto.OrderItemDto;
+import org.oldvabik.orderservice.dto.UserDto;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Denormalized read model of an order: the header, its line items as JSONB and
+ * the last known snapshot of the owning user, so a read is a single row fetch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_view")
+public class OrderView {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime creationDate;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<OrderItemDto> items;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "user_snapshot", columnDefinition = "jsonb")
+    private UserDto userSnapshot;
+
+    @Column(name = "user_snapshot_at")
+    private LocalDateTime userSnapshotAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
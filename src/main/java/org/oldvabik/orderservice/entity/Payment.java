@@ -0,0 +1,45 @@
+package org.oldvabik.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A payment event as received from the payment service, with the order total
+ * it was checked against on arrival. {@code expectedAmount} is empty when the
+ * order did not exist.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "payments")
+public class Payment {
+    @Id
+    @Column(name = "payment_id")
+    private String paymentId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "expected_amount")
+    private BigDecimal expectedAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMatch verdict;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+}
@@ -0,0 +1,9 @@
+package org.oldvabik.orderservice.entity;
+
+public enum PaymentMatch {
+    MATCHED,
+    UNDERPAID,
+    OVERPAID,
+    ORDER_NOT_FOUND,
+    INVALID_AMOUNT
+}
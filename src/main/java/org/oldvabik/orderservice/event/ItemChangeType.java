@@ -0,0 +1,9 @@
+package org.oldvabik.orderservice.event;
+
+public enum ItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // many items changed at once, itemId and names are not set
+    IMPORTED
+}
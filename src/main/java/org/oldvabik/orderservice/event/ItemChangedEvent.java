@@ -0,0 +1,19 @@
+package org.oldvabik.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemChangedEvent {
+    private Long itemId;
+    private String name;
+    private String previousName;
+    private ItemChangeType type;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,20 @@
+package org.oldvabik.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+    private Long orderId;
+    private Long userId;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private LocalDateTime changedAt;
+}
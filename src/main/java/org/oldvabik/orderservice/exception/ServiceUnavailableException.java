@@ -0,0 +1,7 @@
+package org.oldvabik.orderservice.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
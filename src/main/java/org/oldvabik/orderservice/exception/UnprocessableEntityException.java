@@ -0,0 +1,7 @@
+package org.oldvabik.orderservice.exception;
+
+public class UnprocessableEntityException extends RuntimeException {
+    public UnprocessableEntityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,30 @@
+package org.oldvabik.orderservice.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.service.impl.IdempotencyStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes idempotency keys older than {@code app.idempotency.ttl} in batches,
+ * each in its own short transaction.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyCleanupJob {
+    private final IdempotencyStore idempotencyStore;
+
+    public IdempotencyKeyCleanupJob(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        try {
+            int deleted = idempotencyStore.deleteExpired();
+            log.info("[IdempotencyKeyCleanupJob] deleteExpired: deleted {} keys", deleted);
+        } catch (RuntimeException e) {
+            log.error("[IdempotencyKeyCleanupJob] deleteExpired: failed", e);
+        }
+    }
+}
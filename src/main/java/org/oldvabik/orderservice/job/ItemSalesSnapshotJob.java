@@ -0,0 +1,75 @@
+package org.oldvabik.orderservice.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
+import org.oldvabik.orderservice.config.ItemRankingProperties;
+import org.oldvabik.orderservice.dto.SalesWindow;
+import org.oldvabik.orderservice.repository.ItemSalesBucketRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Keeps {@link ItemSalesCounter} and {@code item_sales_buckets} in step.
+ *
+ * <p>On startup the last day is loaded from the table. Every
+ * {@code app.item-ranking.snapshot-interval} the sales recorded here are added
+ * to the table, and the buckets of the last few intervals are read back, so
+ * sales of other instances show up here within about one interval. Rows older
+ * than the longest window are removed.
+ */
+@Slf4j
+@Component
+public class ItemSalesSnapshotJob {
+    private final ItemSalesCounter itemSalesCounter;
+    private final ItemSalesBucketRepository bucketRepository;
+    private final ItemRankingProperties properties;
+
+    public ItemSalesSnapshotJob(ItemSalesCounter itemSalesCounter,
+                                ItemSalesBucketRepository bucketRepository,
+                                ItemRankingProperties properties) {
+        this.itemSalesCounter = itemSalesCounter;
+        this.bucketRepository = bucketRepository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload(SalesWindow.DAY.getMinutes());
+        } catch (RuntimeException e) {
+            log.error("[ItemSalesSnapshotJob] load: failed to load item sales", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.item-ranking.snapshot-interval:PT30S}")
+    public void snapshot() {
+        Map<Long, Map<Long, Long>> unsaved = itemSalesCounter.drainUnsaved();
+        try {
+            if (!unsaved.isEmpty()) {
+                bucketRepository.addAll(unsaved);
+            }
+        } catch (RuntimeException e) {
+            itemSalesCounter.restoreUnsaved(unsaved);
+            log.error("[ItemSalesSnapshotJob] snapshot: failed to store sales of {} minutes", unsaved.size(), e);
+            return;
+        }
+
+        try {
+            // other instances store their sales up to one interval late
+            reload((int) (2 * properties.getSnapshotInterval().toMinutes()) + 2);
+            bucketRepository.deleteBefore(itemSalesCounter.currentMinute() - SalesWindow.DAY.getMinutes());
+        } catch (RuntimeException e) {
+            log.error("[ItemSalesSnapshotJob] snapshot: failed to reload item sales", e);
+        }
+    }
+
+    private void reload(int minutes) {
+        long to = itemSalesCounter.currentMinute();
+        long from = to - minutes + 1;
+        itemSalesCounter.replace(from, to, bucketRepository.findBetween(from, to));
+        log.debug("[ItemSalesSnapshotJob] reload: minutes {}..{}", from, to);
+    }
+}
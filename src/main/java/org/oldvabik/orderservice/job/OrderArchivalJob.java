@@ -0,0 +1,104 @@
+package org.oldvabik.orderservice.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.archive.OrderArchive;
+import org.oldvabik.orderservice.config.OrderArchiveProperties;
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.oldvabik.orderservice.service.impl.OrderRowAssembler;
+import org.oldvabik.orderservice.service.impl.OrderViewStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves finished orders older than {@code app.order-archive.min-age} from the
+ * primary tables into {@link OrderArchive} segments.
+ *
+ * <p>Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, written to a
+ * segment and deleted in one transaction, so concurrent runs never archive the
+ * same order twice. The transaction also holds an advisory lock, so only one
+ * instance writes segments and appends to the shared manifest at a time; an
+ * instance that finds the lock taken ends its run. A crash after the segment is written leaves the orders in
+ * the database, which is harmless because reads check the database first.
+ * Status counters and user order summaries are left unchanged; archived
+ * orders still count, and their per-user totals are kept for summary rebuilds.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.order-archive", name = "enabled", havingValue = "true")
+public class OrderArchivalJob {
+    private final OrderRepository orderRepository;
+    private final OrderRowAssembler orderRowAssembler;
+    private final OrderArchive orderArchive;
+    private final OrderArchiveProperties properties;
+    private final OrderViewStore orderViewStore;
+    private final TransactionTemplate transactionTemplate;
+    private final UserOrderSummaryService userOrderSummaryService;
+
+    public OrderArchivalJob(OrderRepository orderRepository,
+                            OrderRowAssembler orderRowAssembler,
+                            OrderArchive orderArchive,
+                            OrderArchiveProperties properties,
+                            OrderViewStore orderViewStore,
+                            TransactionTemplate transactionTemplate,
+                            UserOrderSummaryService userOrderSummaryService) {
+        this.orderRepository = orderRepository;
+        this.orderRowAssembler = orderRowAssembler;
+        this.orderArchive = orderArchive;
+        this.properties = properties;
+        this.orderViewStore = orderViewStore;
+        this.transactionTemplate = transactionTemplate;
+        this.userOrderSummaryService = userOrderSummaryService;
+    }
+
+    @Scheduled(cron = "${app.order-archive.cron:0 30 2 * * *}")
+    public void archive() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getMinAge());
+        List<String> statuses = properties.getStatuses().stream().map(OrderStatus::name).toList();
+        int total = 0;
+        try {
+            int archived;
+            do {
+                archived = transactionTemplate.execute(status -> archiveBatch(statuses, before));
+                if (archived < 0) {
+                    log.info("[OrderArchivalJob] archive: another instance is archiving, stopping");
+                    break;
+                }
+                total += archived;
+            } while (archived == properties.getBatchSize());
+        } catch (RuntimeException e) {
+            log.error("[OrderArchivalJob] archive: failed after {} orders", total, e);
+            return;
+        }
+        log.info("[OrderArchivalJob] archive: archived {} orders created before {}", total, before);
+    }
+
+    private int archiveBatch(List<String> statuses, LocalDateTime before) {
+        if (!orderRepository.tryLockArchival()) {
+            return -1;
+        }
+        List<Long> ids = orderRepository.lockArchivableIds(statuses, before, properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderDto> orders = orderRowAssembler.toDtos(orderRepository.findHeadersByIds(ids));
+        try {
+            orderArchive.write(orders);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        userOrderSummaryService.recordArchived(ids);
+        orderRepository.deleteAllByIdIn(ids);
+        orderViewStore.delete(ids);
+        return ids.size();
+    }
+}
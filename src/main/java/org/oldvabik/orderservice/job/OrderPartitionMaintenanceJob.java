@@ -0,0 +1,42 @@
+package org.oldvabik.orderservice.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+
+/**
+ * Keeps monthly {@code orders}/{@code order_items} partitions created ahead of time.
+ *
+ * <p>Rows outside all monthly partitions land in the default partitions, which
+ * should stay empty: a month that already has rows there can no longer be split
+ * off. The database function is idempotent and serialized with an advisory lock,
+ * so running it from several instances is safe.
+ */
+@Slf4j
+@Component
+public class OrderPartitionMaintenanceJob {
+    private final OrderRepository orderRepository;
+
+    @Value("${app.order-partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    public OrderPartitionMaintenanceJob(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.order-partitions.cron:0 0 3 * * *}")
+    @Transactional
+    public void createUpcomingPartitions() {
+        LocalDate from = LocalDate.now().withDayOfMonth(1);
+        int created = orderRepository.createPartitions(from, monthsAhead + 1);
+        log.info("[OrderPartitionMaintenanceJob] createUpcomingPartitions: from={}, created {} partitions",
+                from, created);
+    }
+}
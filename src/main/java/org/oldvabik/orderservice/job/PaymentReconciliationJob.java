@@ -0,0 +1,90 @@
+package org.oldvabik.orderservice.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.config.PaymentReconciliationProperties;
+import org.oldvabik.orderservice.repository.PaymentReconciliationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compares every order with its successful payments and writes the
+ * mismatches to {@code payment_mismatches}, keyed by the run's start time.
+ *
+ * <p>The order id range is split with fork/join into chunks of
+ * {@code app.payment-reconciliation.chunk-size} ids; each chunk is one
+ * {@code INSERT ... SELECT} run by the database, and
+ * {@code app.payment-reconciliation.parallelism} chunks run at once on their
+ * own pool, so the job is bound by database throughput and never holds more
+ * than that many connections. Reports older than
+ * {@code app.payment-reconciliation.report-ttl} are removed after each run.
+ * Only one instance should have the job enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.payment-reconciliation", name = "enabled", havingValue = "true")
+public class PaymentReconciliationJob {
+    private final PaymentReconciliationRepository reconciliationRepository;
+    private final PaymentReconciliationProperties properties;
+
+    public PaymentReconciliationJob(PaymentReconciliationRepository reconciliationRepository,
+                                    PaymentReconciliationProperties properties) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${app.payment-reconciliation.cron:0 0 3 * * *}")
+    public void reconcile() {
+        Long minId = reconciliationRepository.findMinOrderId();
+        Long maxId = reconciliationRepository.findMaxOrderId();
+        if (minId == null) {
+            return;
+        }
+
+        LocalDateTime runAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+        int mismatches;
+        try {
+            mismatches = pool.invoke(new RangeTask(minId, maxId, runAt));
+        } catch (RuntimeException e) {
+            log.error("[PaymentReconciliationJob] reconcile: run {} failed", runAt, e);
+            return;
+        } finally {
+            pool.shutdown();
+        }
+
+        int removed = reconciliationRepository.deleteRunsBefore(runAt.minus(properties.getReportTtl()));
+        log.info("[PaymentReconciliationJob] reconcile: run {} checked ids {}..{} in {} ms, {} mismatches, "
+                        + "removed {} old report rows",
+                runAt, minId, maxId, (System.nanoTime() - start) / 1_000_000, mismatches, removed);
+    }
+
+    private class RangeTask extends RecursiveTask<Integer> {
+        private final long fromId;
+        private final long toId;
+        private final LocalDateTime runAt;
+
+        RangeTask(long fromId, long toId, LocalDateTime runAt) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.runAt = runAt;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (toId - fromId < properties.getChunkSize()) {
+                return reconciliationRepository.insertMismatches(fromId, toId, runAt);
+            }
+            long mid = fromId + (toId - fromId) / 2;
+            RangeTask left = new RangeTask(fromId, mid, runAt);
+            left.fork();
+            int right = new RangeTask(mid + 1, toId, runAt).compute();
+            return left.join() + right;
+        }
+    }
+}
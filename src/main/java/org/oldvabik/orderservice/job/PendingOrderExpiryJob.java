@@ -0,0 +1,146 @@
+package org.oldvabik.orderservice.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.config.OrderExpiryProperties;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.event.OrderStatusChangedEvent;
+import org.oldvabik.orderservice.kafka.OrderEventProducer;
+import org.oldvabik.orderservice.repository.OrderItemRepository;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.service.ItemStockService;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.oldvabik.orderservice.service.impl.OrderViewStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cancels orders that stayed {@code PENDING} longer than
+ * {@code app.order-expiry.pending-ttl} because no payment event arrived.
+ *
+ * <p>Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} through the
+ * partial index on pending orders and cancelled in one transaction together
+ * with the status counters and the read model, so every replica can run the
+ * job at once without cancelling an order twice. A payment update locks its
+ * order too, so a payment arriving during a batch waits for it and then moves
+ * the order from {@code CANCELLED}. The stock held by the batch is released in
+ * the same transaction. Status change events are sent after commit.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.order-expiry", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PendingOrderExpiryJob {
+    private final OrderRepository orderRepository;
+    private final OrderStatsService orderStatsService;
+    private final OrderViewStore orderViewStore;
+    private final OrderEventProducer orderEventProducer;
+    private final OrderExpiryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderItemRepository orderItemRepository;
+    private final ItemStockService itemStockService;
+
+    public PendingOrderExpiryJob(OrderRepository orderRepository,
+                                 OrderStatsService orderStatsService,
+                                 OrderViewStore orderViewStore,
+                                 OrderEventProducer orderEventProducer,
+                                 OrderExpiryProperties properties,
+                                 TransactionTemplate transactionTemplate,
+                                 OrderItemRepository orderItemRepository,
+                                 ItemStockService itemStockService) {
+        this.orderRepository = orderRepository;
+        this.orderStatsService = orderStatsService;
+        this.orderViewStore = orderViewStore;
+        this.orderEventProducer = orderEventProducer;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.orderItemRepository = orderItemRepository;
+        this.itemStockService = itemStockService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-expiry.interval:PT1M}")
+    public void expire() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getPendingTtl());
+        int total = 0;
+        try {
+            int expired;
+            do {
+                expired = transactionTemplate.execute(status -> expireBatch(before));
+                total += expired;
+            } while (expired == properties.getBatchSize());
+        } catch (RuntimeException e) {
+            log.error("[PendingOrderExpiryJob] expire: failed after {} orders", total, e);
+            return;
+        }
+        if (total > 0) {
+            log.info("[PendingOrderExpiryJob] expire: cancelled {} orders created before {}", total, before);
+        }
+    }
+
+    private int expireBatch(LocalDateTime before) {
+        List<Long> ids = orderRepository.lockExpiredPendingIds(before, properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderHeaderRow> orders = orderRepository.findHeadersByIds(ids);
+        orderRepository.updateStatusByIdIn(ids, OrderStatus.PENDING, OrderStatus.CANCELLED);
+
+        Map<LocalDate, Long> cancelledPerDay = new HashMap<>();
+        List<OrderStatusChangedEvent> events = new ArrayList<>(orders.size());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = before;
+        for (OrderHeaderRow order : orders) {
+            if (order.getCreationDate().isBefore(oldest)) {
+                oldest = order.getCreationDate();
+            }
+            cancelledPerDay.merge(order.getCreationDate().toLocalDate(), 1L, Long::sum);
+            events.add(OrderStatusChangedEvent.builder()
+                    .orderId(order.getId())
+                    .userId(order.getUserId())
+                    .previousStatus(OrderStatus.PENDING)
+                    .status(OrderStatus.CANCELLED)
+                    .changedAt(now)
+                    .build());
+        }
+        cancelledPerDay.forEach((day, count) ->
+                orderStatsService.recordTransition(day, OrderStatus.PENDING, OrderStatus.CANCELLED, count));
+        orderViewStore.updateStatus(ids, OrderStatus.CANCELLED);
+        releaseStock(ids, oldest, before);
+        publishAfterCommit(events);
+        return ids.size();
+    }
+
+    private void releaseStock(List<Long> ids, LocalDateTime from, LocalDateTime to) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (ItemQuantityRow row : orderItemRepository.sumQuantitiesByOrderIdIn(ids, from, to)) {
+            quantities.put(row.getItemId(), row.getQuantity());
+        }
+        itemStockService.release(quantities);
+    }
+
+    private void publishAfterCommit(List<OrderStatusChangedEvent> events) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    orderEventProducer.sendOrderStatusChangedEvents(events);
+                } catch (Exception e) {
+                    log.error("[PendingOrderExpiryJob] failed to publish {} status events: {}",
+                            events.size(), e.getMessage(), e);
+                }
+            }
+        });
+    }
+}
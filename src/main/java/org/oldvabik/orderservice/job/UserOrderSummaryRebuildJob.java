@@ -0,0 +1,37 @@
+package org.oldvabik.orderservice.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes {@code user_order_summary} from the order tables on
+ * {@code app.user-order-summary.rebuild-cron}, repairing any drift of the
+ * incremental updates. A write that commits while its user's chunk is being
+ * recomputed can be overwritten, so the job is meant for quiet hours and only
+ * one instance should have it enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.user-order-summary", name = "rebuild-enabled", havingValue = "true")
+public class UserOrderSummaryRebuildJob {
+    private final UserOrderSummaryService userOrderSummaryService;
+
+    public UserOrderSummaryRebuildJob(UserOrderSummaryService userOrderSummaryService) {
+        this.userOrderSummaryService = userOrderSummaryService;
+    }
+
+    @Scheduled(cron = "${app.user-order-summary.rebuild-cron:0 30 4 * * SUN}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            int rebuilt = userOrderSummaryService.rebuild();
+            log.info("[UserOrderSummaryRebuildJob] rebuild: rebuilt {} summaries in {} ms",
+                    rebuilt, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("[UserOrderSummaryRebuildJob] rebuild: failed", e);
+        }
+    }
+}
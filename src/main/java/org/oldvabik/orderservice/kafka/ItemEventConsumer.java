@@ -0,0 +1,29 @@
+package org.oldvabik.orderservice.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.cache.ItemChangeDispatcher;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Every instance consumes item changes with its own consumer group, so an
+ * update on one replica refreshes the in-memory catalog views of all of them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemEventConsumer {
+    private final ItemChangeDispatcher itemChangeDispatcher;
+
+    @KafkaListener(topics = "${app.kafka.item-changed-topic:item-changed-topic}",
+                   groupId = "${app.kafka.item-cache-group-id}",
+                   containerFactory = "itemChangedListenerContainerFactory")
+    public void consumeItemChangedEvent(ItemChangedEvent event) {
+        log.debug("[ItemEventConsumer] Received ITEM_CHANGED event: itemId={}, type={}",
+            event.getItemId(), event.getType());
+
+        itemChangeDispatcher.dispatch(event);
+    }
+}
@@ -0,0 +1,29 @@
+package org.oldvabik.orderservice.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class ItemEventProducer {
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${app.kafka.item-changed-topic:item-changed-topic}")
+    private String itemTopic;
+
+    public ItemEventProducer(KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void sendItemChangedEvent(ItemChangedEvent event) {
+        log.info("[ItemEventProducer] Sending ITEM_CHANGED event: itemId={}, type={}",
+            event.getItemId(), event.getType());
+
+        kafkaTemplate.send(itemTopic, String.valueOf(event.getItemId()), event);
+
+        log.debug("[ItemEventProducer] ITEM_CHANGED event sent successfully");
+    }
+}
@@ -2,9 +2,11 @@ package org.oldvabik.orderservice.kafka;
 
 import lombok.extern.slf4j.Slf4j;
 import org.oldvabik.orderservice.event.CreateOrderEvent;
+import org.oldvabik.orderservice.event.OrderStatusChangedEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -14,6 +16,9 @@ public class OrderEventProducer {
     @Value("${app.kafka.create-order-topic:order-created-topic}")
     private String orderTopic;
 
+    @Value("${app.kafka.order-status-topic:order-status-topic}")
+    private String orderStatusTopic;
+
     public OrderEventProducer(KafkaTemplate<String, Object> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
@@ -26,5 +31,35 @@ public class OrderEventProducer {
 
         log.debug("[OrderEventProducer] CREATE_ORDER event sent successfully");
     }
-}
 
+    public void sendOrderCreatedEvents(List<CreateOrderEvent> events) {
+        log.info("[OrderEventProducer] Sending {} CREATE_ORDER events", events.size());
+
+        for (CreateOrderEvent event : events) {
+            kafkaTemplate.send(orderTopic, event.getOrderId(), event);
+        }
+        kafkaTemplate.flush();
+
+        log.debug("[OrderEventProducer] {} CREATE_ORDER events flushed", events.size());
+    }
+
+    public void sendOrderStatusChangedEvent(OrderStatusChangedEvent event) {
+        log.info("[OrderEventProducer] Sending ORDER_STATUS_CHANGED event: orderId={}, {} -> {}",
+            event.getOrderId(), event.getPreviousStatus(), event.getStatus());
+
+        kafkaTemplate.send(orderStatusTopic, String.valueOf(event.getOrderId()), event);
+
+        log.debug("[OrderEventProducer] ORDER_STATUS_CHANGED event sent successfully");
+    }
+
+    public void sendOrderStatusChangedEvents(List<OrderStatusChangedEvent> events) {
+        log.info("[OrderEventProducer] Sending {} ORDER_STATUS_CHANGED events", events.size());
+
+        for (OrderStatusChangedEvent event : events) {
+            kafkaTemplate.send(orderStatusTopic, String.valueOf(event.getOrderId()), event);
+        }
+        kafkaTemplate.flush();
+
+        log.debug("[OrderEventProducer] {} ORDER_STATUS_CHANGED events flushed", events.size());
+    }
+}
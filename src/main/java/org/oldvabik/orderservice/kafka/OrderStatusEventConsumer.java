@@ -0,0 +1,35 @@
+package org.oldvabik.orderservice.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.event.OrderStatusChangedEvent;
+import org.oldvabik.orderservice.stream.OrderStatusStream;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Every instance consumes status changes with its own consumer group, so
+ * stream subscribers see transitions made on any replica. The record position
+ * doubles as the SSE event id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatusEventConsumer {
+    private final OrderStatusStream orderStatusStream;
+
+    @KafkaListener(topics = "${app.kafka.order-status-topic:order-status-topic}",
+                   groupId = "${app.kafka.order-stream-group-id}",
+                   containerFactory = "orderStatusChangedListenerContainerFactory")
+    public void consumeOrderStatusChangedEvent(@Payload OrderStatusChangedEvent event,
+                                               @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                               @Header(KafkaHeaders.OFFSET) long offset) {
+        log.debug("[OrderStatusEventConsumer] Received ORDER_STATUS_CHANGED event: orderId={}, status={}",
+            event.getOrderId(), event.getStatus());
+
+        orderStatusStream.publish(partition + "-" + offset, event);
+    }
+}
@@ -2,8 +2,9 @@ package org.oldvabik.orderservice.kafka;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.entity.PaymentMatch;
 import org.oldvabik.orderservice.event.CreatePaymentEvent;
-import org.oldvabik.orderservice.service.OrderService;
+import org.oldvabik.orderservice.service.PaymentReconciliationService;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -11,7 +12,7 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 public class PaymentEventConsumer {
-    private final OrderService orderService;
+    private final PaymentReconciliationService paymentReconciliationService;
 
     @KafkaListener(topics = "${app.kafka.create-payment-topic:payment-created-topic}", 
                    groupId = "${app.kafka.order-group-id:order-service-group}")
@@ -20,8 +21,8 @@ public class PaymentEventConsumer {
             event.getPaymentId(), event.getOrderId(), event.getStatus());
 
         try {
-            orderService.updateOrderStatusByPayment(event.getOrderId(), event.getStatus());
-            log.info("[PaymentEventConsumer] Order status updated for orderId={}", event.getOrderId());
+            PaymentMatch match = paymentReconciliationService.applyPayment(event);
+            log.info("[PaymentEventConsumer] Payment applied for orderId={}: {}", event.getOrderId(), match);
         } catch (Exception e) {
             log.error("[PaymentEventConsumer] Error processing CREATE_PAYMENT event: {}", e.getMessage(), e);
         }
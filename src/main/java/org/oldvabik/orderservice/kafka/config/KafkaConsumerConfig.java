@@ -3,6 +3,8 @@ package org.oldvabik.orderservice.kafka.config;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.oldvabik.orderservice.event.CreatePaymentEvent;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.oldvabik.orderservice.event.OrderStatusChangedEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,5 +52,68 @@ public class KafkaConsumerConfig {
         factory.setConsumerFactory(consumerFactory());
         return factory;
     }
-}
 
+    @Bean
+    public ConsumerFactory<String, ItemChangedEvent> itemChangedConsumerFactory() {
+        JsonDeserializer<ItemChangedEvent> deserializer =
+                new JsonDeserializer<>(ItemChangedEvent.class, false);
+
+        deserializer.addTrustedPackages("*");
+        deserializer.setRemoveTypeHeaders(true);
+        deserializer.setUseTypeMapperForKey(false);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                deserializer
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ItemChangedEvent>
+    itemChangedListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ItemChangedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(itemChangedConsumerFactory());
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, OrderStatusChangedEvent> orderStatusChangedConsumerFactory() {
+        JsonDeserializer<OrderStatusChangedEvent> deserializer =
+                new JsonDeserializer<>(OrderStatusChangedEvent.class, false);
+
+        deserializer.addTrustedPackages("*");
+        deserializer.setRemoveTypeHeaders(true);
+        deserializer.setUseTypeMapperForKey(false);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                deserializer
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderStatusChangedEvent>
+    orderStatusChangedListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderStatusChangedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(orderStatusChangedConsumerFactory());
+        return factory;
+    }
+}
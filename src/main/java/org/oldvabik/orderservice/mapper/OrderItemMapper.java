@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.oldvabik.orderservice.dto.OrderItemDto;
 import org.oldvabik.orderservice.entity.OrderItem;
+import org.oldvabik.orderservice.repository.projection.OrderItemRow;
 
 @Mapper(componentModel = "spring", uses = ItemMapper.class)
 public interface OrderItemMapper {
@@ -11,4 +12,6 @@ public interface OrderItemMapper {
     @Mapping(target = "name", source = "item.name")
     @Mapping(target = "price", source = "item.price")
     OrderItemDto toDto(OrderItem entity);
+
+    OrderItemDto toDto(OrderItemRow row);
 }
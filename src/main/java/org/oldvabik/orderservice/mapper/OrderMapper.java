@@ -5,15 +5,19 @@ import org.oldvabik.orderservice.dto.OrderCreateDto;
 import org.oldvabik.orderservice.dto.OrderDto;
 import org.oldvabik.orderservice.dto.OrderUpdateDto;
 import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
 
 @Mapper(componentModel = "spring", uses = OrderItemMapper.class)
 public interface OrderMapper {
     @Mapping(target = "user", ignore = true)
     OrderDto toDto(Order entity);
 
+    @Mapping(target = "items", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    OrderDto toDto(OrderHeaderRow row);
+
     Order toEntity(OrderCreateDto dto);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromDto(OrderUpdateDto dto, @MappingTarget Order entity);
 }
-
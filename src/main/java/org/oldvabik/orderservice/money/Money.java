@@ -0,0 +1,52 @@
+package org.oldvabik.orderservice.money;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount in minor currency units (cents), matching the {@code numeric(10,2)}
+ * price column.
+ *
+ * <p>Used where many amounts are summed, such as order totals: the arithmetic
+ * is plain {@code long} math that fails on overflow instead of allocating a
+ * new {@link BigDecimal} per step. Conversions from and to {@link BigDecimal}
+ * happen at the API, event and database boundaries and are exact; an amount
+ * with more than two fraction digits is rejected rather than rounded.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has a non-zero digit beyond
+     *                             the second fraction digit or does not fit
+     */
+    public static Money ofMajor(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE).unscaledValue().longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long factor) {
+        return ofMinor(Math.multiplyExact(minorUnits, factor));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,37 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+    /**
+     * Inserts the key unless it exists. A concurrent transaction holding the same
+     * key makes this wait until that transaction ends, so at most one request
+     * per key proceeds.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_keys (principal, idempotency_key, request_hash, created_at)
+        VALUES (:principal, :idempotencyKey, :requestHash, :createdAt)
+        ON CONFLICT (principal, idempotency_key) DO NOTHING
+        """, nativeQuery = true)
+    int claim(String principal, String idempotencyKey, String requestHash, LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM idempotency_keys
+        WHERE (principal, idempotency_key) IN (
+            SELECT principal, idempotency_key
+            FROM idempotency_keys
+            WHERE created_at < :before
+            LIMIT :limit)
+        """, nativeQuery = true)
+    int deleteCreatedBefore(LocalDateTime before, int limit);
+}
@@ -0,0 +1,249 @@
+package org.oldvabik.orderservice.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.oldvabik.orderservice.dto.ItemImportConflictDto;
+import org.oldvabik.orderservice.dto.ItemImportRejectReason;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import org.oldvabik.orderservice.repository.projection.ItemMergeCounts;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.util.PSQLException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Bulk item import through a per-transaction staging table.
+ *
+ * <p>Rows are streamed into {@code item_import} with {@code COPY}, validated
+ * and checked for duplicate names there, and the accepted ones are merged into
+ * {@code items} with one {@code INSERT ... ON CONFLICT} keyed by name. All
+ * methods must run in the same transaction, which drops the staging tables on
+ * commit or rollback.
+ */
+@Repository
+public class ItemImportRepository {
+    private static final int FLUSH_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ItemImportRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void createStaging() {
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE item_import (
+                    row_no bigint GENERATED ALWAYS AS IDENTITY,
+                    name text,
+                    price text,
+                    reason text
+                ) ON COMMIT DROP
+                """);
+        jdbcTemplate.execute("CREATE TEMP TABLE item_import_changes (item_id bigint, inserted boolean) ON COMMIT DROP");
+    }
+
+    /**
+     * Copies a CSV payload with a {@code name,price} header line as is.
+     */
+    public long copyCsv(InputStream body) {
+        return copy(copyIn -> {
+            byte[] buffer = new byte[FLUSH_BYTES];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                copyIn.writeToCopy(buffer, 0, read);
+            }
+        }, "COPY item_import (name, price) FROM STDIN WITH (FORMAT csv, HEADER true)");
+    }
+
+    /**
+     * Copies one JSON object per line, {@code {"name": ..., "price": ...}}.
+     * Blank lines are skipped; lines that are not such an object are staged
+     * as {@code MALFORMED_ROW}.
+     */
+    public long copyNdjson(InputStream body) {
+        return copy(copyIn -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            StringBuilder chunk = new StringBuilder(FLUSH_BYTES + 1024);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    appendCsvRow(chunk, line);
+                }
+                if (chunk.length() >= FLUSH_BYTES) {
+                    write(copyIn, chunk);
+                }
+            }
+            write(copyIn, chunk);
+        }, "COPY item_import (name, price, reason) FROM STDIN WITH (FORMAT csv)");
+    }
+
+    /**
+     * Marks rows that cannot be imported, with the same limits as single item
+     * creation, and rows whose name appears more than once in the payload.
+     *
+     * @return the number of rejected rows
+     */
+    public long markRejected() {
+        jdbcTemplate.execute("ANALYZE item_import");
+        jdbcTemplate.update("""
+                UPDATE item_import
+                SET reason = CASE
+                        WHEN name IS NULL OR btrim(name) = '' OR length(name) NOT BETWEEN 3 AND 32 THEN 'INVALID_NAME'
+                        WHEN price IS NULL OR price !~ '^[0-9]{1,8}(\\.[0-9]{1,2})?$' THEN 'INVALID_PRICE'
+                        WHEN price::numeric < 0.01 THEN 'INVALID_PRICE'
+                    END
+                WHERE reason IS NULL
+                """);
+        jdbcTemplate.update("""
+                UPDATE item_import s
+                SET reason = 'DUPLICATE_NAME'
+                FROM (SELECT name FROM item_import WHERE reason IS NULL GROUP BY name HAVING count(*) > 1) d
+                WHERE s.name = d.name AND s.reason IS NULL
+                """);
+        Long rejected = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM item_import WHERE reason IS NOT NULL", Long.class);
+        return rejected != null ? rejected : 0;
+    }
+
+    public List<ItemImportConflictDto> findRejected(int limit) {
+        return jdbcTemplate.query("""
+                SELECT row_no, name, reason
+                FROM item_import
+                WHERE reason IS NOT NULL
+                ORDER BY row_no
+                LIMIT ?
+                """, (rs, rowNum) -> ItemImportConflictDto.builder()
+                        .row(rs.getLong(1))
+                        .name(rs.getString(2))
+                        .reason(ItemImportRejectReason.valueOf(rs.getString(3)))
+                        .build(), limit);
+    }
+
+    /**
+     * Inserts new names and updates prices that differ. Rows are taken in name
+     * order, so concurrent imports lock existing items in the same order.
+     */
+    public ItemMergeCounts merge() {
+        jdbcTemplate.update("""
+                WITH upserted AS (
+                    INSERT INTO items (name, price)
+                    SELECT name, price::numeric
+                    FROM item_import
+                    WHERE reason IS NULL
+                    ORDER BY name
+                    ON CONFLICT (name) DO UPDATE
+                    SET price = EXCLUDED.price
+                    WHERE items.price <> EXCLUDED.price
+                    RETURNING id, xmax = 0 AS inserted)
+                INSERT INTO item_import_changes (item_id, inserted)
+                SELECT id, inserted FROM upserted
+                """);
+        return jdbcTemplate.queryForObject("""
+                SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted)
+                FROM item_import_changes
+                """, (rs, rowNum) -> new ItemMergeCounts(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /**
+     * Writes the new prices of updated items into {@code order_view}, as
+     * single item updates do, in one pass over the view.
+     */
+    public int repriceOrderViews() {
+        return jdbcTemplate.update("""
+                WITH repriced AS (SELECT i.id, i.price
+                                  FROM item_import_changes c
+                                  JOIN items i ON i.id = c.item_id
+                                  WHERE NOT c.inserted)
+                UPDATE order_view v
+                SET items = (SELECT jsonb_agg(CASE WHEN r.id IS NULL THEN t.e
+                                                   ELSE t.e || jsonb_build_object('price', r.price) END
+                                              ORDER BY t.ord)
+                             FROM jsonb_array_elements(v.items) WITH ORDINALITY AS t(e, ord)
+                             LEFT JOIN repriced r ON r.id = (t.e ->> 'itemId')::bigint),
+                    updated_at = now()
+                WHERE EXISTS (SELECT 1
+                              FROM jsonb_array_elements(v.items) AS t(e)
+                              JOIN repriced r ON r.id = (t.e ->> 'itemId')::bigint)
+                """);
+    }
+
+    private long copy(CopyWriter writer, String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                writer.write(copyIn);
+                return copyIn.endCopy();
+            } catch (PSQLException e) {
+                throw new BadRequestException("Malformed import payload: " + e.getMessage());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+    }
+
+    private void appendCsvRow(StringBuilder chunk, String line) {
+        String name = null;
+        String price = null;
+        String reason = null;
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.isObject()) {
+                JsonNode nameNode = node.get("name");
+                JsonNode priceNode = node.get("price");
+                name = nameNode != null && nameNode.isTextual() ? nameNode.asText() : null;
+                if (priceNode != null && priceNode.isNumber()) {
+                    price = priceNode.decimalValue().toPlainString();
+                } else if (priceNode != null && priceNode.isTextual()) {
+                    price = priceNode.asText();
+                }
+            } else {
+                reason = ItemImportRejectReason.MALFORMED_ROW.name();
+            }
+        } catch (JsonProcessingException e) {
+            reason = ItemImportRejectReason.MALFORMED_ROW.name();
+        }
+        appendCsvField(chunk, name);
+        chunk.append(',');
+        appendCsvField(chunk, price);
+        chunk.append(',');
+        appendCsvField(chunk, reason);
+        chunk.append('\n');
+    }
+
+    // an unquoted empty field is NULL in COPY's csv format, a quoted one is an empty string
+    private static void appendCsvField(StringBuilder chunk, String value) {
+        if (value != null) {
+            chunk.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (!chunk.isEmpty()) {
+            byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            chunk.setLength(0);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CopyWriter {
+        void write(CopyIn copyIn) throws SQLException, IOException;
+    }
+}
@@ -4,12 +4,34 @@ import org.oldvabik.orderservice.entity.Item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findByName(String name);
 
-    Page<Item> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    /**
+     * Case-insensitive substring search served by the {@code idx_items_name_trgm}
+     * GIN index. {@code pattern} must already be lower-cased, LIKE-escaped with
+     * {@code \} and wrapped in {@code %}.
+     */
+    @Query(value = """
+        SELECT *
+        FROM items
+        WHERE lower(name) LIKE :pattern ESCAPE '\\'
+        ORDER BY name
+        """,
+        countQuery = """
+        SELECT count(*)
+        FROM items
+        WHERE lower(name) LIKE :pattern ESCAPE '\\'
+        """,
+        nativeQuery = true)
+    Page<Item> searchByNamePattern(String pattern, Pageable pageable);
+
+    @Query("SELECT i.name FROM Item i")
+    List<String> findAllNames();
 }
@@ -0,0 +1,57 @@
+package org.oldvabik.orderservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-minute item sales shared by all instances. Instances add their own
+ * sales to the stored quantities, so each row holds the total of all of them.
+ */
+@Repository
+public class ItemSalesBucketRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemSalesBucketRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void addAll(Map<Long, Map<Long, Long>> quantitiesByMinute) {
+        List<long[]> rows = new ArrayList<>();
+        quantitiesByMinute.forEach((minute, bucket) ->
+                bucket.forEach((itemId, quantity) -> rows.add(new long[]{minute, itemId, quantity})));
+        // a fixed order keeps concurrent instances from deadlocking on the same rows
+        rows.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO item_sales_buckets (bucket_minute, item_id, quantity)
+                VALUES (?, ?, ?)
+                ON CONFLICT (bucket_minute, item_id)
+                DO UPDATE SET quantity = item_sales_buckets.quantity + EXCLUDED.quantity
+                """, rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, row[1]);
+                    ps.setLong(3, row[2]);
+                });
+    }
+
+    public Map<Long, Map<Long, Long>> findBetween(long fromMinute, long toMinute) {
+        Map<Long, Map<Long, Long>> result = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT bucket_minute, item_id, quantity
+                FROM item_sales_buckets
+                WHERE bucket_minute BETWEEN ? AND ?
+                """, rs -> {
+                    result.computeIfAbsent(rs.getLong(1), minute -> new HashMap<>()).put(rs.getLong(2), rs.getLong(3));
+                }, fromMinute, toMinute);
+        return result;
+    }
+
+    public int deleteBefore(long minute) {
+        return jdbcTemplate.update("DELETE FROM item_sales_buckets WHERE bucket_minute < ?", minute);
+    }
+}
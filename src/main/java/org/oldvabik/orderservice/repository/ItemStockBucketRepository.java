@@ -0,0 +1,52 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.entity.ItemStockBucket;
+import org.oldvabik.orderservice.repository.projection.StockBucketRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ItemStockBucketRepository extends JpaRepository<ItemStockBucket, ItemStockBucket.Key> {
+    List<ItemStockBucket> findByItemIdOrderByBucket(Long itemId);
+
+    @Query(value = """
+        SELECT bucket, quantity
+        FROM item_stock_buckets
+        WHERE item_id = :itemId
+        ORDER BY bucket
+        FOR UPDATE
+        """, nativeQuery = true)
+    List<StockBucketRow> lockByItemId(Long itemId);
+
+    @Modifying
+    @Query(value = """
+        UPDATE item_stock_buckets
+        SET quantity = quantity - :quantity
+        WHERE item_id = :itemId AND bucket = :bucket AND quantity >= :quantity
+        """, nativeQuery = true)
+    int take(Long itemId, short bucket, long quantity);
+
+    @Modifying
+    @Query(value = """
+        UPDATE item_stock_buckets
+        SET quantity = quantity + :quantity
+        WHERE item_id = :itemId AND bucket = :bucket
+        """, nativeQuery = true)
+    int give(Long itemId, short bucket, long quantity);
+
+    @Modifying
+    @Query(value = """
+        UPDATE item_stock_buckets
+        SET quantity = quantity + :quantity
+        WHERE item_id = :itemId
+          AND bucket = (SELECT min(bucket) FROM item_stock_buckets WHERE item_id = :itemId)
+        """, nativeQuery = true)
+    int giveToFirst(Long itemId, long quantity);
+
+    @Modifying
+    @Query("DELETE FROM ItemStockBucket b WHERE b.itemId = :itemId")
+    int deleteByItemId(Long itemId);
+}
@@ -0,0 +1,105 @@
+package org.oldvabik.orderservice.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.entity.OrderItem;
+import org.oldvabik.orderservice.entity.OrderView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for bulk order intake. Ids are taken from the table
+ * sequences up front, so orders and their items can be inserted in plain
+ * batches without reading generated keys back row by row.
+ */
+@Repository
+public class OrderBulkRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderBulkRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<Long> nextOrderIds(int count) {
+        return nextIds("orders_id_seq", count);
+    }
+
+    public List<Long> nextOrderItemIds(int count) {
+        return nextIds("order_items_id_seq", count);
+    }
+
+    public void insertOrders(List<Order> orders) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO orders (id, user_id, status, creation_date, total_amount) VALUES (?, ?, ?, ?, ?)",
+                orders, BATCH_SIZE, (ps, order) -> {
+                    ps.setLong(1, order.getId());
+                    ps.setLong(2, order.getUserId());
+                    ps.setString(3, order.getStatus().name());
+                    ps.setTimestamp(4, Timestamp.valueOf(order.getCreationDate()));
+                    ps.setBigDecimal(5, order.getTotalAmount());
+                });
+
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orders) {
+            items.addAll(order.getItems());
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_items (id, order_id, order_creation_date, item_id, quantity)
+                VALUES (?, ?, ?, ?, ?)
+                """, items, BATCH_SIZE, (ps, item) -> {
+                    ps.setLong(1, item.getId());
+                    ps.setLong(2, item.getOrder().getId());
+                    ps.setTimestamp(3, Timestamp.valueOf(item.getOrder().getCreationDate()));
+                    ps.setLong(4, item.getItem().getId());
+                    ps.setInt(5, item.getQuantity());
+                });
+    }
+
+    public void insertViews(List<OrderView> views) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_view (order_id, user_id, status, creation_date, items,
+                                        user_snapshot, user_snapshot_at, updated_at)
+                VALUES (?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), ?, ?)
+                """, views, BATCH_SIZE, (ps, view) -> {
+                    ps.setLong(1, view.getOrderId());
+                    ps.setLong(2, view.getUserId());
+                    ps.setString(3, view.getStatus().name());
+                    ps.setTimestamp(4, Timestamp.valueOf(view.getCreationDate()));
+                    ps.setString(5, toJson(view.getItems()));
+                    if (view.getUserSnapshot() != null) {
+                        ps.setString(6, toJson(view.getUserSnapshot()));
+                        ps.setTimestamp(7, Timestamp.valueOf(view.getUserSnapshotAt()));
+                    } else {
+                        ps.setNull(6, Types.VARCHAR);
+                        ps.setNull(7, Types.TIMESTAMP);
+                    }
+                    ps.setTimestamp(8, Timestamp.valueOf(view.getUpdatedAt()));
+                });
+    }
+
+    private List<Long> nextIds(String sequence, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
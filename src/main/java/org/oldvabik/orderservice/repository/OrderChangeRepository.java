@@ -0,0 +1,38 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.repository.projection.OrderChangeRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+/**
+ * Reads orders in the order they were last written. Every insert and update
+ * stamps the row with the writing transaction id and a value of
+ * {@code order_change_seq}, see the {@code trg_orders_track_change} trigger.
+ *
+ * <p>Sequence values are taken before commit, so a slow transaction can commit
+ * a lower value after a faster one committed a higher value. Rows are
+ * therefore ordered by transaction id first, and only rows written by
+ * transactions older than every transaction still running are returned: any
+ * later write will sort after them.
+ */
+@Repository
+public class OrderChangeRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderChangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<OrderChangeRow> findChangesAfter(long changeXid, long changeSeq, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, change_xid::text::bigint, change_seq
+                FROM orders
+                WHERE (change_xid, change_seq) > (?::text::xid8, ?)
+                  AND change_xid < pg_snapshot_xmin(pg_current_snapshot())
+                ORDER BY change_xid, change_seq
+                LIMIT ?
+                """, (rs, rowNum) -> new OrderChangeRow(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+                Long.toString(changeXid), changeSeq, limit);
+    }
+}
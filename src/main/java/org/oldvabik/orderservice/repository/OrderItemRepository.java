@@ -1,9 +1,37 @@
 package org.oldvabik.orderservice.repository;
 
 import org.oldvabik.orderservice.entity.OrderItem;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import org.oldvabik.orderservice.repository.projection.OrderItemRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    boolean existsByItemId(Long itemId);
+
+    @Query("""
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderItemRow(
+            oi.order.id, oi.id, i.id, i.name, i.price, oi.quantity)
+        FROM OrderItem oi
+        JOIN oi.item i
+        WHERE oi.order.id IN :orderIds
+          AND oi.orderCreationDate BETWEEN :from AND :to
+        ORDER BY oi.id
+        """)
+    List<OrderItemRow> findRowsByOrderIdIn(Collection<Long> orderIds, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+        SELECT new org.oldvabik.orderservice.repository.projection.ItemQuantityRow(oi.item.id, SUM(oi.quantity))
+        FROM OrderItem oi
+        WHERE oi.order.id IN :orderIds
+          AND oi.orderCreationDate BETWEEN :from AND :to
+        GROUP BY oi.item.id
+        ORDER BY oi.item.id
+        """)
+    List<ItemQuantityRow> sumQuantitiesByOrderIdIn(Collection<Long> orderIds, LocalDateTime from, LocalDateTime to);
 }
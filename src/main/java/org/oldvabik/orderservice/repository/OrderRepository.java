@@ -1,12 +1,23 @@
 package org.oldvabik.orderservice.repository;
 
+import jakarta.persistence.LockModeType;
 import org.oldvabik.orderservice.entity.Order;
 import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.repository.projection.OrderVersionRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,38 +32,163 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         """)
     Optional<Order> findByIdWithDetails(Long id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(Long id);
+
+    @Query(value = """
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderHeaderRow(
+            o.id, o.userId, o.status, o.creationDate)
+        FROM Order o
+        WHERE o.creationDate >= :from AND o.creationDate < :to
+        ORDER BY o.id
+        """,
+        countQuery = "SELECT count(o) FROM Order o WHERE o.creationDate >= :from AND o.creationDate < :to")
+    Page<OrderHeaderRow> findAllHeaders(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query(value = """
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderHeaderRow(
+            o.id, o.userId, o.status, o.creationDate)
+        FROM Order o
+        WHERE o.id IN :ids AND o.creationDate >= :from AND o.creationDate < :to
+        ORDER BY o.id
+        """,
+        countQuery = "SELECT count(o) FROM Order o WHERE o.id IN :ids AND o.creationDate >= :from AND o.creationDate < :to")
+    Page<OrderHeaderRow> findHeadersByIdIn(List<Long> ids, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query(value = """
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderHeaderRow(
+            o.id, o.userId, o.status, o.creationDate)
+        FROM Order o
+        WHERE o.status IN :statuses AND o.creationDate >= :from AND o.creationDate < :to
+        ORDER BY o.id
+        """,
+        countQuery = "SELECT count(o) FROM Order o WHERE o.status IN :statuses AND o.creationDate >= :from AND o.creationDate < :to")
+    Page<OrderHeaderRow> findHeadersByStatusIn(List<OrderStatus> statuses,
+                                               LocalDateTime from,
+                                               LocalDateTime to,
+                                               Pageable pageable);
+
+    @Query(value = """
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderHeaderRow(
+            o.id, o.userId, o.status, o.creationDate)
+        FROM Order o
+        WHERE o.id IN :ids AND o.status IN :statuses AND o.creationDate >= :from AND o.creationDate < :to
+        ORDER BY o.id
+        """,
+        countQuery = """
+            SELECT count(o) FROM Order o
+            WHERE o.id IN :ids AND o.status IN :statuses AND o.creationDate >= :from AND o.creationDate < :to
+            """)
+    Page<OrderHeaderRow> findHeadersByIdInAndStatusIn(List<Long> ids,
+                                                      List<OrderStatus> statuses,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to,
+                                                      Pageable pageable);
+
     @Query("""
-        SELECT DISTINCT o
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderHeaderRow(
+            o.id, o.userId, o.status, o.creationDate)
         FROM Order o
-        LEFT JOIN FETCH o.items oi
-        LEFT JOIN FETCH oi.item
+        WHERE o.userId = :userId
+        ORDER BY o.creationDate DESC, o.id
         """)
-    Page<Order> findAllWithDetails(Pageable pageable);
+    List<OrderHeaderRow> findHistory(Long userId, Limit limit);
 
     @Query("""
-        SELECT DISTINCT o
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderHeaderRow(
+            o.id, o.userId, o.status, o.creationDate)
         FROM Order o
-        LEFT JOIN FETCH o.items oi
-        LEFT JOIN FETCH oi.item
-        WHERE o.id IN :ids
+        WHERE o.userId = :userId
+          AND o.creationDate <= :creationDate
+          AND (o.creationDate < :creationDate OR (o.creationDate = :creationDate AND o.id > :id))
+        ORDER BY o.creationDate DESC, o.id
         """)
-    Page<Order> findByIdIn(List<Long> ids, Pageable pageable);
+    List<OrderHeaderRow> findHistoryAfter(Long userId, LocalDateTime creationDate, Long id, Limit limit);
+
+    /**
+     * Takes the archival lock for the current transaction, so that only one
+     * instance archives at a time; returns {@code false} if another holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('order_archival'))", nativeQuery = true)
+    boolean tryLockArchival();
+
+    @Query(value = """
+        SELECT o.user_id AS userId, o.change_seq AS changeSeq,
+               (SELECT COALESCE(max(i.change_seq), 0)
+                FROM order_items oi
+                JOIN items i ON i.id = oi.item_id
+                WHERE oi.order_id = o.id AND oi.order_creation_date = o.creation_date) AS itemsChangeSeq
+        FROM orders o
+        WHERE o.id = :id
+        """, nativeQuery = true)
+    Optional<OrderVersionRow> findVersionById(Long id);
 
     @Query("""
-        SELECT DISTINCT o
+        SELECT new org.oldvabik.orderservice.repository.projection.OrderHeaderRow(
+            o.id, o.userId, o.status, o.creationDate)
         FROM Order o
-        LEFT JOIN FETCH o.items oi
-        LEFT JOIN FETCH oi.item
-        WHERE o.status IN :statuses
+        WHERE o.id IN :ids
+        ORDER BY o.id
         """)
-    Page<Order> findByStatusIn(List<OrderStatus> statuses, Pageable pageable);
+    List<OrderHeaderRow> findHeadersByIds(Collection<Long> ids);
 
     @Query("""
-        SELECT DISTINCT o
+        SELECT new org.oldvabik.orderservice.repository.projection.ItemQuantityRow(oi.item.id, SUM(oi.quantity))
         FROM Order o
-        LEFT JOIN FETCH o.items oi
-        LEFT JOIN FETCH oi.item
-        WHERE o.id IN :ids AND o.status IN :statuses
+        JOIN o.items oi
+        WHERE o.id IN :ids
+          AND o.status IN :statuses
+        GROUP BY oi.item.id
+        ORDER BY oi.item.id
         """)
-    Page<Order> findByIdInAndStatusIn(List<Long> ids, List<OrderStatus> statuses, Pageable pageable);
+    List<ItemQuantityRow> sumItemQuantitiesByIdInAndStatusIn(Collection<Long> ids, Collection<OrderStatus> statuses);
+
+    @Query(value = """
+        SELECT id
+        FROM orders
+        WHERE status IN (:statuses) AND creation_date < :before
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> lockArchivableIds(Collection<String> statuses, LocalDateTime before, int limit);
+
+    @Query(value = """
+        SELECT id
+        FROM orders
+        WHERE status = 'PENDING' AND creation_date < :before
+        ORDER BY creation_date
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> lockExpiredPendingIds(LocalDateTime before, int limit);
+
+    @Query(value = """
+        SELECT id
+        FROM orders
+        WHERE status IN (:statuses) AND creation_date >= :from AND creation_date < :to
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> lockIdsByFilter(Collection<String> statuses, LocalDateTime from, LocalDateTime to, int limit);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatusByIdIn(Collection<Long> ids, OrderStatus from, OrderStatus to);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT create_order_partitions(CAST(:from AS date), :months)", nativeQuery = true)
+    int createPartitions(LocalDate from, int months);
+
+    /**
+     * Reads the order total and locks the order, so payments of one order are
+     * checked one after another.
+     */
+    @Query(value = "SELECT total_amount FROM orders WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<BigDecimal> lockTotalAmountById(Long id);
 }
@@ -0,0 +1,28 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.entity.OrderStatusCounter;
+import org.oldvabik.orderservice.repository.projection.StatusCountRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface OrderStatusCounterRepository extends JpaRepository<OrderStatusCounter, OrderStatusCounter.Key> {
+    @Modifying
+    @Query(value = """
+        INSERT INTO order_status_counters (status, stripe, order_count)
+        VALUES (:status, :stripe, :delta)
+        ON CONFLICT (status, stripe)
+        DO UPDATE SET order_count = order_status_counters.order_count + EXCLUDED.order_count
+        """, nativeQuery = true)
+    void add(String status, short stripe, long delta);
+
+    @Query("""
+        SELECT new org.oldvabik.orderservice.repository.projection.StatusCountRow(c.status, sum(c.orderCount))
+        FROM OrderStatusCounter c
+        GROUP BY c.status
+        """)
+    List<StatusCountRow> sumByStatus();
+}
@@ -0,0 +1,33 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.entity.OrderStatusDailyCounter;
+import org.oldvabik.orderservice.repository.projection.DailyStatusCountRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderStatusDailyCounterRepository
+        extends JpaRepository<OrderStatusDailyCounter, OrderStatusDailyCounter.Key> {
+    @Modifying
+    @Query(value = """
+        INSERT INTO order_status_daily_counters (status, day, stripe, order_count)
+        VALUES (:status, :day, :stripe, :delta)
+        ON CONFLICT (day, status, stripe)
+        DO UPDATE SET order_count = order_status_daily_counters.order_count + EXCLUDED.order_count
+        """, nativeQuery = true)
+    void add(String status, LocalDate day, short stripe, long delta);
+
+    @Query("""
+        SELECT new org.oldvabik.orderservice.repository.projection.DailyStatusCountRow(
+            c.day, c.status, sum(c.orderCount))
+        FROM OrderStatusDailyCounter c
+        WHERE c.day BETWEEN :from AND :to
+        GROUP BY c.day, c.status
+        ORDER BY c.day
+        """)
+    List<DailyStatusCountRow> sumByDayAndStatus(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,81 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.entity.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+    List<OrderView> findByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE OrderView v SET v.status = :status, v.updatedAt = :updatedAt WHERE v.orderId = :orderId")
+    int updateStatus(Long orderId, OrderStatus status, LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE OrderView v SET v.status = :status, v.updatedAt = :updatedAt WHERE v.orderId IN :orderIds")
+    int updateStatusByOrderIdIn(Collection<Long> orderIds, OrderStatus status, LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("DELETE FROM OrderView v WHERE v.orderId IN :orderIds")
+    int deleteByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = """
+        UPDATE order_view v
+        SET items = (SELECT jsonb_agg(CASE WHEN (t.e ->> 'itemId')::bigint = :itemId
+                                           THEN t.e || jsonb_build_object('name', CAST(:name AS text),
+                                                                          'price', CAST(:price AS numeric))
+                                           ELSE t.e END ORDER BY t.ord)
+                     FROM jsonb_array_elements(v.items) WITH ORDINALITY AS t(e, ord)),
+            updated_at = now()
+        WHERE v.items @> jsonb_build_array(jsonb_build_object('itemId', CAST(:itemId AS bigint)))
+        """, nativeQuery = true)
+    int updateItem(Long itemId, String name, BigDecimal price);
+
+    @Query(value = "SELECT min(id) FROM orders", nativeQuery = true)
+    Long findMinOrderId();
+
+    @Query(value = "SELECT max(id) FROM orders", nativeQuery = true)
+    Long findMaxOrderId();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO order_view (order_id, user_id, status, creation_date, items, updated_at)
+        SELECT o.id, o.user_id, o.status, o.creation_date,
+               COALESCE((SELECT jsonb_agg(jsonb_build_object(
+                                    'id', oi.id, 'itemId', i.id, 'name', i.name,
+                                    'price', i.price, 'quantity', oi.quantity) ORDER BY oi.id)
+                         FROM order_items oi
+                         JOIN items i ON i.id = oi.item_id
+                         WHERE oi.order_id = o.id AND oi.order_creation_date = o.creation_date),
+                        '[]'::jsonb),
+               now()
+        FROM orders o
+        WHERE o.id BETWEEN :fromId AND :toId
+        ON CONFLICT (order_id) DO UPDATE
+        SET user_id = EXCLUDED.user_id,
+            status = EXCLUDED.status,
+            creation_date = EXCLUDED.creation_date,
+            items = EXCLUDED.items,
+            updated_at = EXCLUDED.updated_at
+        """, nativeQuery = true)
+    int rebuildRange(long fromId, long toId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM order_view v
+        WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = v.order_id)
+        """, nativeQuery = true)
+    int deleteOrphans();
+}
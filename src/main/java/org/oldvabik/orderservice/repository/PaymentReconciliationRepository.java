@@ -0,0 +1,53 @@
+package org.oldvabik.orderservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Set-based statements for the nightly payment reconciliation. Each range is
+ * compared inside the database and only mismatches are written, so no order
+ * or payment rows travel to the application.
+ */
+@Repository
+public class PaymentReconciliationRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentReconciliationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Long findMinOrderId() {
+        return jdbcTemplate.queryForObject("SELECT min(id) FROM orders", Long.class);
+    }
+
+    public Long findMaxOrderId() {
+        return jdbcTemplate.queryForObject("SELECT max(id) FROM orders", Long.class);
+    }
+
+    /**
+     * Reports orders in {@code [fromId, toId]} whose successful payments do not
+     * add up to their total, counting only orders that were paid or have a
+     * successful payment.
+     */
+    public int insertMismatches(long fromId, long toId, LocalDateTime runAt) {
+        return jdbcTemplate.update("""
+                INSERT INTO payment_mismatches (run_at, order_id, order_status, expected_amount, paid_amount, kind)
+                SELECT ?, o.id, o.status, o.total_amount, COALESCE(p.paid, 0),
+                       CASE WHEN COALESCE(p.paid, 0) < o.total_amount THEN 'UNDERPAID' ELSE 'OVERPAID' END
+                FROM orders o
+                LEFT JOIN (SELECT order_id, SUM(amount) AS paid
+                           FROM payments
+                           WHERE order_id BETWEEN ? AND ? AND status = 'SUCCESS' AND verdict <> 'INVALID_AMOUNT'
+                           GROUP BY order_id) p ON p.order_id = o.id
+                WHERE o.id BETWEEN ? AND ?
+                  AND COALESCE(p.paid, 0) <> o.total_amount
+                  AND (o.status IN ('PAID', 'SHIPPED', 'DELIVERED', 'COMPLETED') OR p.paid IS NOT NULL)
+                """, Timestamp.valueOf(runAt), fromId, toId, fromId, toId);
+    }
+
+    public int deleteRunsBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM payment_mismatches WHERE run_at < ?", Timestamp.valueOf(before));
+    }
+}
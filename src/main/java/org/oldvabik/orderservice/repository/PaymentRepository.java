@@ -0,0 +1,29 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.entity.Payment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, String> {
+    /**
+     * Inserts the payment unless one with the same id was already recorded,
+     * so a redelivered event is stored once.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO payments (payment_id, order_id, status, amount, expected_amount, verdict, received_at)
+        VALUES (:paymentId, :orderId, :status, :amount, :expectedAmount, :verdict, :receivedAt)
+        ON CONFLICT (payment_id) DO NOTHING
+        """, nativeQuery = true)
+    int insert(String paymentId, Long orderId, String status, BigDecimal amount, BigDecimal expectedAmount,
+               String verdict, LocalDateTime receivedAt);
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.orderId = :orderId AND p.status = 'SUCCESS' "
+            + "AND p.verdict <> org.oldvabik.orderservice.entity.PaymentMatch.INVALID_AMOUNT")
+    BigDecimal sumSucceededAmount(Long orderId);
+}
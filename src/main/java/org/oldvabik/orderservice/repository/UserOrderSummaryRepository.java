@@ -0,0 +1,202 @@
+package org.oldvabik.orderservice.repository;
+
+import org.oldvabik.orderservice.repository.projection.UserOrderSummaryRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-user order count, lifetime spend and last order date. Spend counts the
+ * totals of orders in a settled status: {@code PAID}, {@code SHIPPED},
+ * {@code DELIVERED} or {@code COMPLETED}.
+ *
+ * <p>{@code user_archived_order_summary} keeps the same aggregates for orders
+ * moved to the archive, so recomputing from the order tables keeps them.
+ */
+@Repository
+public class UserOrderSummaryRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final String SETTLED = "('PAID', 'SHIPPED', 'DELIVERED', 'COMPLETED')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserOrderSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<UserOrderSummaryRow> findByUserId(Long userId) {
+        List<UserOrderSummaryRow> rows = jdbcTemplate.query("""
+                SELECT user_id, order_count, lifetime_spend, last_order_date
+                FROM user_order_summary
+                WHERE user_id = ?
+                """, (rs, rowNum) -> {
+                    Timestamp lastOrderDate = rs.getTimestamp(4);
+                    return new UserOrderSummaryRow(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3),
+                            lastOrderDate != null ? lastOrderDate.toLocalDateTime() : null);
+                }, userId);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Adds the given counts and spend to each user's row, creating it when
+     * missing. Rows must be sorted by user id so concurrent writers lock them
+     * in the same order.
+     */
+    public void addOrders(List<UserOrderSummaryRow> deltas, LocalDateTime now) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO user_order_summary (user_id, order_count, lifetime_spend, last_order_date, updated_at)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (user_id) DO UPDATE
+                SET order_count = user_order_summary.order_count + EXCLUDED.order_count,
+                    lifetime_spend = user_order_summary.lifetime_spend + EXCLUDED.lifetime_spend,
+                    last_order_date = GREATEST(user_order_summary.last_order_date, EXCLUDED.last_order_date),
+                    updated_at = EXCLUDED.updated_at
+                """, deltas, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row.getUserId());
+                    ps.setLong(2, row.getOrderCount());
+                    ps.setBigDecimal(3, row.getLifetimeSpend());
+                    ps.setTimestamp(4, Timestamp.valueOf(row.getLastOrderDate()));
+                    ps.setTimestamp(5, Timestamp.valueOf(now));
+                });
+    }
+
+    public int addSpend(Long userId, BigDecimal delta, LocalDateTime now) {
+        return jdbcTemplate.update("""
+                UPDATE user_order_summary
+                SET lifetime_spend = lifetime_spend + ?, updated_at = ?
+                WHERE user_id = ?
+                """, delta, Timestamp.valueOf(now), userId);
+    }
+
+    /**
+     * Subtracts the given orders from their owners' rows. Must run before the
+     * orders are deleted: the amounts are read from them, and the last order
+     * date is recomputed from the owners' remaining orders.
+     */
+    public int removeOrders(Collection<Long> orderIds, LocalDateTime now) {
+        return jdbcTemplate.update(con -> {
+            Array ids = con.createArrayOf("bigint", orderIds.toArray());
+            var ps = con.prepareStatement("""
+                    WITH removed AS (SELECT user_id, count(*) AS orders,
+                                            COALESCE(SUM(total_amount) FILTER (WHERE status IN %s), 0) AS spend
+                                     FROM orders
+                                     WHERE id = ANY(?)
+                                     GROUP BY user_id),
+                         locked AS (SELECT s.user_id
+                                    FROM user_order_summary s
+                                    JOIN removed r ON r.user_id = s.user_id
+                                    ORDER BY s.user_id
+                                    FOR UPDATE OF s)
+                    UPDATE user_order_summary s
+                    SET order_count = s.order_count - r.orders,
+                        lifetime_spend = s.lifetime_spend - r.spend,
+                        last_order_date = (SELECT max(d)
+                                           FROM (SELECT max(o.creation_date) AS d
+                                                 FROM orders o
+                                                 WHERE o.user_id = s.user_id AND o.id <> ALL(?)
+                                                 UNION ALL
+                                                 SELECT a.last_order_date
+                                                 FROM user_archived_order_summary a
+                                                 WHERE a.user_id = s.user_id) dates),
+                        updated_at = ?
+                    FROM removed r
+                    WHERE s.user_id = r.user_id
+                      AND s.user_id IN (SELECT user_id FROM locked)
+                    """.formatted(SETTLED));
+            ps.setArray(1, ids);
+            ps.setArray(2, ids);
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+            return ps;
+        });
+    }
+
+    /**
+     * Adds the given orders to their owners' archived aggregates; call in the
+     * transaction that deletes them, before the delete.
+     */
+    public int addArchived(Collection<Long> orderIds) {
+        return jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("""
+                    INSERT INTO user_archived_order_summary (user_id, order_count, lifetime_spend, last_order_date)
+                    SELECT user_id, count(*),
+                           COALESCE(SUM(total_amount) FILTER (WHERE status IN %s), 0),
+                           max(creation_date)
+                    FROM orders
+                    WHERE id = ANY(?)
+                    GROUP BY user_id
+                    ORDER BY user_id
+                    ON CONFLICT (user_id) DO UPDATE
+                    SET order_count = user_archived_order_summary.order_count + EXCLUDED.order_count,
+                        lifetime_spend = user_archived_order_summary.lifetime_spend + EXCLUDED.lifetime_spend,
+                        last_order_date = GREATEST(user_archived_order_summary.last_order_date,
+                                                   EXCLUDED.last_order_date)
+                    """.formatted(SETTLED));
+            ps.setArray(1, con.createArrayOf("bigint", orderIds.toArray()));
+            return ps;
+        });
+    }
+
+    public Long findMinUserId() {
+        return jdbcTemplate.queryForObject("""
+                SELECT min(user_id)
+                FROM (SELECT min(user_id) AS user_id FROM orders
+                      UNION ALL
+                      SELECT min(user_id) FROM user_archived_order_summary) ids
+                """, Long.class);
+    }
+
+    public Long findMaxUserId() {
+        return jdbcTemplate.queryForObject("""
+                SELECT max(user_id)
+                FROM (SELECT max(user_id) AS user_id FROM orders
+                      UNION ALL
+                      SELECT max(user_id) FROM user_archived_order_summary) ids
+                """, Long.class);
+    }
+
+    /**
+     * Recomputes the rows of users in {@code [fromUserId, toUserId]} from the
+     * order tables and the archived aggregates.
+     */
+    public int rebuildRange(long fromUserId, long toUserId) {
+        return jdbcTemplate.update("""
+                WITH live AS (SELECT user_id, count(*) AS order_count,
+                                     COALESCE(SUM(total_amount) FILTER (WHERE status IN %s), 0) AS lifetime_spend,
+                                     max(creation_date) AS last_order_date
+                              FROM orders
+                              WHERE user_id BETWEEN ? AND ?
+                              GROUP BY user_id),
+                     fresh AS (SELECT user_id, SUM(order_count) AS order_count,
+                                      SUM(lifetime_spend) AS lifetime_spend,
+                                      max(last_order_date) AS last_order_date
+                               FROM (SELECT * FROM live
+                                     UNION ALL
+                                     SELECT user_id, order_count, lifetime_spend, last_order_date
+                                     FROM user_archived_order_summary
+                                     WHERE user_id BETWEEN ? AND ?) parts
+                               GROUP BY user_id)
+                INSERT INTO user_order_summary (user_id, order_count, lifetime_spend, last_order_date, updated_at)
+                SELECT user_id, order_count, lifetime_spend, last_order_date, now()
+                FROM fresh
+                ON CONFLICT (user_id) DO UPDATE
+                SET order_count = EXCLUDED.order_count,
+                    lifetime_spend = EXCLUDED.lifetime_spend,
+                    last_order_date = EXCLUDED.last_order_date,
+                    updated_at = EXCLUDED.updated_at
+                """.formatted(SETTLED), fromUserId, toUserId, fromUserId, toUserId);
+    }
+
+    public int deleteOrphans() {
+        return jdbcTemplate.update("""
+                DELETE FROM user_order_summary s
+                WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.user_id = s.user_id)
+                  AND NOT EXISTS (SELECT 1 FROM user_archived_order_summary a WHERE a.user_id = s.user_id)
+                """);
+    }
+}
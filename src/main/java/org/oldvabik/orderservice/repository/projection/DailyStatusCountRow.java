@@ -0,0 +1,14 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class DailyStatusCountRow {
+    private final LocalDate day;
+    private final OrderStatus status;
+    private final Long count;
+}
@@ -0,0 +1,11 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemMergeCounts {
+    private final long inserted;
+    private final long updated;
+}
@@ -0,0 +1,11 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemQuantityRow {
+    private final Long itemId;
+    private final Long quantity;
+}
@@ -0,0 +1,12 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OrderChangeRow {
+    private final Long id;
+    private final Long changeXid;
+    private final Long changeSeq;
+}
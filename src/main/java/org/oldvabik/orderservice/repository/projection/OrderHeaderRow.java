@@ -0,0 +1,19 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged row of the {@code orders} table selected through a JPQL
+ * constructor expression. Rows are never attached to the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderHeaderRow {
+    private final Long id;
+    private final Long userId;
+    private final OrderStatus status;
+    private final LocalDateTime creationDate;
+}
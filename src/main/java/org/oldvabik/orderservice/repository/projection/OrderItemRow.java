@@ -0,0 +1,19 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.math.BigDecimal;
+
+/**
+ * Flat, unmanaged row of {@code order_items} joined with {@code items}.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderItemRow {
+    private final Long orderId;
+    private final Long id;
+    private final Long itemId;
+    private final String name;
+    private final BigDecimal price;
+    private final Integer quantity;
+}
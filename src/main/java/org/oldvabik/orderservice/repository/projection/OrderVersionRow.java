@@ -0,0 +1,13 @@
+package org.oldvabik.orderservice.repository.projection;
+
+/**
+ * Owner and last change sequence of an order, and the latest change sequence
+ * of the items on its lines, read without loading the order.
+ */
+public interface OrderVersionRow {
+    Long getUserId();
+
+    Long getChangeSeq();
+
+    Long getItemsChangeSeq();
+}
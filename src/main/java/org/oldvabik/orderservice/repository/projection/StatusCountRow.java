@@ -0,0 +1,12 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.oldvabik.orderservice.entity.OrderStatus;
+
+@Getter
+@AllArgsConstructor
+public class StatusCountRow {
+    private final OrderStatus status;
+    private final Long count;
+}
@@ -0,0 +1,11 @@
+package org.oldvabik.orderservice.repository.projection;
+
+/**
+ * Bucket of item stock read with a native query, so it always reflects
+ * decrements already made in the current transaction.
+ */
+public interface StockBucketRow {
+    Short getBucket();
+
+    Long getQuantity();
+}
@@ -0,0 +1,15 @@
+package org.oldvabik.orderservice.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class UserOrderSummaryRow {
+    private final Long userId;
+    private final Long orderCount;
+    private final BigDecimal lifetimeSpend;
+    private final LocalDateTime lastOrderDate;
+}
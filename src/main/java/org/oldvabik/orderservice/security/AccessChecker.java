@@ -7,9 +7,20 @@ import org.springframework.stereotype.Component;
 @Component
 public class AccessChecker {
     public boolean canAccessUser(Authentication auth, UserDto user) {
-        if (auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+        if (isAdmin(auth)) {
             return true;
         }
         return auth.getName().equals(user.getEmail());
     }
+
+    public boolean isAdmin(Authentication auth) {
+        return auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    public Long getUserId(Authentication auth) {
+        if (auth.getPrincipal() instanceof JwtUser user) {
+            return user.getUserId();
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -33,4 +33,10 @@ public class JwtProvider {
         return (String) Jwts.parserBuilder().setSigningKey(key).build()
                 .parseClaimsJws(token).getBody().get("role");
     }
+
+    public Long getUserIdFromToken(String token) {
+        Object userId = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().get("userId");
+        return userId instanceof Number number ? number.longValue() : null;
+    }
 }
@@ -0,0 +1,20 @@
+package org.oldvabik.orderservice.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import java.util.Collection;
+
+/**
+ * Principal built from a validated JWT. {@code userId} is taken from the
+ * {@code userId} claim and is {@code null} for tokens that do not carry it.
+ */
+@Getter
+public class JwtUser extends User {
+    private final Long userId;
+
+    public JwtUser(String email, Long userId, Collection<? extends GrantedAuthority> authorities) {
+        super(email, "", authorities);
+        this.userId = userId;
+    }
+}
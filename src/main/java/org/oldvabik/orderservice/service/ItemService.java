@@ -1,19 +1,43 @@
 package org.oldvabik.orderservice.service;
 
+import org.oldvabik.orderservice.dto.BatchGetResultDto;
 import org.oldvabik.orderservice.dto.ItemCreateDto;
 import org.oldvabik.orderservice.dto.ItemDto;
+import org.oldvabik.orderservice.dto.ItemImportFormat;
+import org.oldvabik.orderservice.dto.ItemImportResultDto;
 import org.oldvabik.orderservice.dto.ItemUpdateDto;
+import org.oldvabik.orderservice.dto.SalesWindow;
+import org.oldvabik.orderservice.dto.TopItemDto;
 import org.springframework.data.domain.Page;
+import java.io.InputStream;
+import java.util.List;
 
 public interface ItemService {
     ItemDto createItem(ItemCreateDto dto);
 
     Page<ItemDto> getItems(Integer page, Integer size, String name);
 
+    List<String> autocomplete(String prefix, Integer limit);
+
+    List<TopItemDto> getTopItems(SalesWindow window, Integer limit);
+
     ItemDto getItemById(Long id);
 
+    /**
+     * Returns the items with the given ids in request order, and the ids that
+     * matched no item. At most {@code app.batch-get.max-ids} distinct ids.
+     */
+    BatchGetResultDto<ItemDto> batchGetItems(List<Long> ids);
+
     ItemDto updateItem(Long id, ItemUpdateDto dto);
 
     void deleteItem(Long id);
+
+    /**
+     * Creates items with new names and updates the price of existing ones from
+     * a streamed payload in one transaction. Invalid rows, and every row of a
+     * name that appears more than once, are skipped and reported.
+     */
+    ItemImportResultDto importItems(InputStream body, ItemImportFormat format);
 }
 
@@ -0,0 +1,34 @@
+package org.oldvabik.orderservice.service;
+
+import org.oldvabik.orderservice.dto.ItemStockDto;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemStockService {
+    /**
+     * Takes {@code quantity} units of the item in the caller's transaction.
+     *
+     * @return {@code false} if the item is tracked and has less stock available
+     */
+    boolean reserve(Long itemId, long quantity);
+
+    /**
+     * Reserves several requests of item quantities, such as the orders of a
+     * bulk create, in the caller's transaction. Stock is locked once per item
+     * in ascending item id, and a request is granted only if all of its items
+     * are covered; requests are served in list order.
+     *
+     * @return the index of each request that could not be covered, mapped to
+     *         the lowest id of its items that was short; nothing is reserved
+     *         for these requests
+     */
+    Map<Integer, Long> reserveAll(List<Map<Long, Long>> requests);
+
+    void release(Long itemId, long quantity);
+
+    void release(Map<Long, Long> quantitiesByItem);
+
+    ItemStockDto getStock(Long itemId);
+
+    ItemStockDto setStock(Long itemId, long quantity);
+}
@@ -0,0 +1,14 @@
+package org.oldvabik.orderservice.service;
+
+import org.oldvabik.orderservice.dto.OrderBulkResponseDto;
+import org.oldvabik.orderservice.dto.OrderCreateDto;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.springframework.security.core.Authentication;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderBulkService {
+    OrderBulkResponseDto createOrders(Authentication auth, List<OrderCreateDto> dtos);
+
+    int deleteOrders(List<OrderStatus> statuses, LocalDate createdFrom, LocalDate createdTo);
+}
@@ -0,0 +1,11 @@
+package org.oldvabik.orderservice.service;
+
+import org.oldvabik.orderservice.dto.OrderCreateDto;
+import org.oldvabik.orderservice.dto.OrderIntakeDto;
+import org.springframework.security.core.Authentication;
+
+public interface OrderIntakeService {
+    OrderIntakeDto submit(Authentication auth, OrderCreateDto dto);
+
+    OrderIntakeDto getStatus(Authentication auth, String trackingId);
+}
@@ -1,23 +1,69 @@
 package org.oldvabik.orderservice.service;
 
+import org.oldvabik.orderservice.dto.BatchGetResultDto;
+import org.oldvabik.orderservice.dto.OrderChangesDto;
 import org.oldvabik.orderservice.dto.OrderCreateDto;
 import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.dto.OrderSliceDto;
 import org.oldvabik.orderservice.dto.OrderUpdateDto;
 import org.oldvabik.orderservice.entity.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.security.core.Authentication;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface OrderService {
     OrderDto createOrder(Authentication auth, OrderCreateDto dto);
 
-    Page<OrderDto> getOrders(Authentication auth, Integer page, Integer size, List<Long> ids, List<OrderStatus> statuses);
+    /**
+     * Creates the order once per {@code idempotencyKey}; repeating the same request
+     * with the same key returns the original order. A {@code null} key behaves
+     * like {@link #createOrder(Authentication, OrderCreateDto)}.
+     */
+    OrderDto createOrder(Authentication auth, OrderCreateDto dto, String idempotencyKey);
+
+    Page<OrderDto> getOrders(Authentication auth,
+                             Integer page,
+                             Integer size,
+                             List<Long> ids,
+                             List<OrderStatus> statuses,
+                             LocalDate createdFrom,
+                             LocalDate createdTo);
 
     OrderDto getOrderById(Authentication auth, Long id);
 
+    /**
+     * Returns a token that changes whenever the order or an item on its lines
+     * is written, read without loading the order, or {@code null} when that is
+     * not enough to answer: the order is not in the live tables, or the caller
+     * is neither an admin nor the owner identified by the token's user id.
+     */
+    String getOrderVersion(Authentication auth, Long id);
+
+    /**
+     * Returns the orders with the given ids in request order, and the ids that
+     * matched no order. At most {@code app.batch-get.max-ids} distinct ids.
+     */
+    BatchGetResultDto<OrderDto> batchGetOrders(Authentication auth, List<Long> ids);
+
+    OrderSliceDto getMyOrders(Authentication auth, String cursor, Integer size);
+
+    OrderSliceDto getOrdersByUserId(Authentication auth, Long userId, String cursor, Integer size);
+
+    /**
+     * Returns up to {@code size} orders written after {@code watermark}, oldest
+     * change first, with the watermark to pass on the next call. A {@code null}
+     * watermark starts from the beginning. An order written several times
+     * appears once, at its latest change; deleted and archived orders are not
+     * reported.
+     */
+    OrderChangesDto getOrderChanges(Authentication auth, String watermark, Integer size);
+
     OrderDto updateOrder(Authentication auth, Long id, OrderUpdateDto dto);
 
     void deleteOrder(Long id);
 
     void updateOrderStatusByPayment(String orderId, String paymentStatus);
+
+    int rebuildOrderView();
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package org.oldvabik.orderservice.service;
+
+import org.oldvabik.orderservice.dto.OrderStatusDailyCountsDto;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface OrderStatsService {
+    void recordCreated(LocalDate day, OrderStatus status);
+
+    void recordCreated(LocalDate day, OrderStatus status, long count);
+
+    void recordTransition(LocalDate day, OrderStatus from, OrderStatus to);
+
+    void recordTransition(LocalDate day, OrderStatus from, OrderStatus to, long count);
+
+    void recordDeleted(LocalDate day, OrderStatus status);
+
+    void recordDeleted(LocalDate day, OrderStatus status, long count);
+
+    Map<OrderStatus, Long> getStatusCounts();
+
+    List<OrderStatusDailyCountsDto> getDailyStatusCounts(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,10 @@
+package org.oldvabik.orderservice.service;
+
+import org.oldvabik.orderservice.entity.PaymentMatch;
+import org.oldvabik.orderservice.event.CreatePaymentEvent;
+
+public interface PaymentReconciliationService {
+    PaymentMatch recordPayment(CreatePaymentEvent event);
+
+    PaymentMatch applyPayment(CreatePaymentEvent event);
+}
@@ -0,0 +1,33 @@
+package org.oldvabik.orderservice.service;
+
+import org.oldvabik.orderservice.dto.UserOrderSummaryDto;
+import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.springframework.security.core.Authentication;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserOrderSummaryService {
+    void recordCreated(List<Order> orders);
+
+    void recordTransition(Long userId, BigDecimal totalAmount, OrderStatus from, OrderStatus to);
+
+    /**
+     * Subtracts the given orders from their owners' summaries; call before the
+     * orders are deleted.
+     */
+    void recordDeleted(Collection<Long> orderIds);
+
+    /**
+     * Moves the given orders into their owners' archived aggregates, leaving
+     * the summaries unchanged; call before the orders are deleted.
+     */
+    void recordArchived(Collection<Long> orderIds);
+
+    UserOrderSummaryDto getSummary(Long userId);
+
+    UserOrderSummaryDto getMySummary(Authentication auth);
+
+    int rebuild();
+}
@@ -0,0 +1,138 @@
+package org.oldvabik.orderservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.config.IdempotencyProperties;
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.entity.IdempotencyRecord;
+import org.oldvabik.orderservice.exception.UnprocessableEntityException;
+import org.oldvabik.orderservice.repository.IdempotencyRecordRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Remembers the outcome of order creation requests sent with an
+ * {@code Idempotency-Key}.
+ *
+ * <p>The {@code idempotency_keys} table is the source of truth. A key is claimed
+ * with an insert in the caller's transaction, so a concurrent request with the
+ * same key waits for the first one and then replays its result; if the first
+ * one rolls back, the key is free again. Completed outcomes are also kept in a
+ * bounded in-memory index, filled after commit, which answers most retries
+ * without touching the database. Keys are scoped to the principal and expire
+ * after {@code app.idempotency.ttl}.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Cache<String, Outcome> recent;
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            ObjectMapper objectMapper,
+                            IdempotencyProperties properties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public String hash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the recorded response for the key, or empty if the caller now owns
+     * the key and must {@link #complete} it in the same transaction.
+     *
+     * @throws UnprocessableEntityException if the key was used for a different request
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<OrderDto> claim(String principal, String key, String requestHash) {
+        Outcome cached = recent.getIfPresent(cacheKey(principal, key));
+        if (cached != null) {
+            return Optional.of(replay(key, requestHash, cached));
+        }
+
+        int claimed = idempotencyRecordRepository.claim(principal, key, requestHash, LocalDateTime.now());
+        if (claimed == 1) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecord record = idempotencyRecordRepository
+                .findById(new IdempotencyRecord.Key(principal, key))
+                .orElseThrow(() -> new IllegalStateException("Idempotency key vanished: " + key));
+        Outcome outcome = new Outcome(record.getRequestHash(), record.getResponse());
+        recent.put(cacheKey(principal, key), outcome);
+        return Optional.of(replay(key, requestHash, outcome));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(String principal, String key, String requestHash, OrderDto response) {
+        IdempotencyRecord record = idempotencyRecordRepository
+                .findById(new IdempotencyRecord.Key(principal, key))
+                .orElseThrow(() -> new IllegalStateException("Idempotency key not claimed: " + key));
+        record.setOrderId(response.getId());
+        record.setResponse(response);
+
+        Outcome outcome = new Outcome(requestHash, response);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recent.put(cacheKey(principal, key), outcome);
+            }
+        });
+    }
+
+    public int deleteExpired() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getTtl());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyRecordRepository.deleteCreatedBefore(before, properties.getCleanupBatchSize());
+            total += deleted;
+        } while (deleted == properties.getCleanupBatchSize());
+        return total;
+    }
+
+    private static OrderDto replay(String key, String requestHash, Outcome outcome) {
+        if (!outcome.requestHash().equals(requestHash)) {
+            log.warn("[IdempotencyStore] claim: key={} reused with a different request", key);
+            throw new UnprocessableEntityException("Idempotency-Key was already used for a different request");
+        }
+        log.debug("[IdempotencyStore] claim: replaying key={}, orderId={}", key, outcome.response().getId());
+        return outcome.response();
+    }
+
+    private static String cacheKey(String principal, String key) {
+        return principal + "\n" + key;
+    }
+
+    private record Outcome(String requestHash, OrderDto response) {
+    }
+}
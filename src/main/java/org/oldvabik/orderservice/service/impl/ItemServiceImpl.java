@@ -1,31 +1,95 @@
 package org.oldvabik.orderservice.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
+import org.oldvabik.orderservice.cache.ItemChangeDispatcher;
+import org.oldvabik.orderservice.cache.ItemNameFilter;
+import org.oldvabik.orderservice.cache.ItemNameIndex;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
+import org.oldvabik.orderservice.dto.BatchGetResultDto;
 import org.oldvabik.orderservice.dto.ItemCreateDto;
 import org.oldvabik.orderservice.dto.ItemDto;
+import org.oldvabik.orderservice.dto.ItemImportConflictDto;
+import org.oldvabik.orderservice.dto.ItemImportFormat;
+import org.oldvabik.orderservice.dto.ItemImportResultDto;
 import org.oldvabik.orderservice.dto.ItemUpdateDto;
+import org.oldvabik.orderservice.dto.SalesWindow;
+import org.oldvabik.orderservice.dto.TopItemDto;
 import org.oldvabik.orderservice.entity.Item;
+import org.oldvabik.orderservice.event.ItemChangeType;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
 import org.oldvabik.orderservice.exception.AlreadyExistsException;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import org.oldvabik.orderservice.exception.ConflictException;
 import org.oldvabik.orderservice.exception.NotFoundException;
+import org.oldvabik.orderservice.kafka.ItemEventProducer;
 import org.oldvabik.orderservice.mapper.ItemMapper;
+import org.oldvabik.orderservice.repository.ItemImportRepository;
 import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.repository.OrderItemRepository;
+import org.oldvabik.orderservice.repository.projection.ItemMergeCounts;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
 import org.oldvabik.orderservice.service.ItemService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 @Service
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
+    private final ItemCatalogCache itemCatalogCache;
+    private final ItemNameIndex itemNameIndex;
+    private final ItemNameFilter itemNameFilter;
+    private final ItemChangeDispatcher itemChangeDispatcher;
+    private final ItemEventProducer itemEventProducer;
+    private final OrderViewStore orderViewStore;
+    private final OrderItemRepository orderItemRepository;
+    private final ItemSalesCounter itemSalesCounter;
+    private final ItemImportRepository itemImportRepository;
+
+    @Value("${app.item-import.max-reported-conflicts:1000}")
+    private int maxReportedConflicts = 1000;
+
+    @Value("${app.batch-get.max-ids:500}")
+    private int batchGetMaxIds = 500;
 
     public ItemServiceImpl(ItemRepository itemRepository,
-                           ItemMapper itemMapper) {
+                           ItemMapper itemMapper,
+                           ItemCatalogCache itemCatalogCache,
+                           ItemNameIndex itemNameIndex,
+                           ItemNameFilter itemNameFilter,
+                           ItemChangeDispatcher itemChangeDispatcher,
+                           ItemEventProducer itemEventProducer,
+                           OrderViewStore orderViewStore,
+                           OrderItemRepository orderItemRepository,
+                           ItemSalesCounter itemSalesCounter,
+                           ItemImportRepository itemImportRepository) {
         this.itemRepository = itemRepository;
         this.itemMapper = itemMapper;
+        this.itemCatalogCache = itemCatalogCache;
+        this.itemNameIndex = itemNameIndex;
+        this.itemNameFilter = itemNameFilter;
+        this.itemChangeDispatcher = itemChangeDispatcher;
+        this.itemEventProducer = itemEventProducer;
+        this.orderViewStore = orderViewStore;
+        this.orderItemRepository = orderItemRepository;
+        this.itemSalesCounter = itemSalesCounter;
+        this.itemImportRepository = itemImportRepository;
     }
 
     @Override
@@ -33,19 +97,31 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto createItem(ItemCreateDto dto) {
         log.debug("[ItemService] createItem: name={}", dto.getName());
 
-        itemRepository.findByName(dto.getName()).ifPresent(i -> {
-            log.warn("[ItemService] createItem: name={} already exists", dto.getName());
-            throw new AlreadyExistsException("item with name " + dto.getName() + " already exists");
-        });
+        // a name the filter has never seen cannot exist, so the lookup is skipped
+        if (itemNameFilter.mightContain(dto.getName())) {
+            itemRepository.findByName(dto.getName()).ifPresent(i -> {
+                log.warn("[ItemService] createItem: name={} already exists", dto.getName());
+                throw new AlreadyExistsException("item with name " + dto.getName() + " already exists");
+            });
+        }
 
         Item item = itemMapper.toEntity(dto);
-        Item savedItem = itemRepository.save(item);
+        Item savedItem;
+        try {
+            savedItem = itemRepository.save(item);
+        } catch (DataIntegrityViolationException e) {
+            // the name was added after the filter was loaded, by another instance or outside the service
+            log.warn("[ItemService] createItem: name={} already exists", dto.getName());
+            throw new AlreadyExistsException("item with name " + dto.getName() + " already exists");
+        }
+        publishAfterCommit(savedItem.getId(), savedItem.getName(), null, ItemChangeType.CREATED);
 
         log.info("[ItemService] createItem: created id={}", savedItem.getId());
         return itemMapper.toDto(savedItem);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ItemDto> getItems(Integer page, Integer size, String name) {
         log.debug("[ItemService] getItems: page={}, size={}", page, size);
 
@@ -53,7 +129,7 @@ public class ItemServiceImpl implements ItemService {
         Page<Item> items;
 
         if (name != null && !name.isBlank()) {
-            items = itemRepository.findByNameContainingIgnoreCase(name, pageable);
+            items = itemRepository.searchByNamePattern(containsPattern(name), pageable);
         } else {
             items = itemRepository.findAll(pageable);
         }
@@ -63,17 +139,74 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    public List<String> autocomplete(String prefix, Integer limit) {
+        log.debug("[ItemService] autocomplete: prefix={}, limit={}", prefix, limit);
+
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        List<String> names = itemNameIndex.findByPrefix(prefix.strip(), limit);
+
+        log.info("[ItemService] autocomplete: found {} names", names.size());
+        return names;
+    }
+
+    @Override
+    public List<TopItemDto> getTopItems(SalesWindow window, Integer limit) {
+        log.debug("[ItemService] getTopItems: window={}, limit={}", window, limit);
+
+        List<ItemQuantityRow> ranked = itemSalesCounter.top(window, limit);
+        List<TopItemDto> items = new ArrayList<>(ranked.size());
+        for (ItemQuantityRow row : ranked) {
+            items.add(TopItemDto.builder()
+                    .itemId(row.getItemId())
+                    .name(itemCatalogCache.findById(row.getItemId()).map(ItemDto::getName).orElse(null))
+                    .quantity(row.getQuantity())
+                    .build());
+        }
+
+        log.info("[ItemService] getTopItems: found {} items", items.size());
+        return items;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ItemDto getItemById(Long id) {
         log.debug("[ItemService] getItemById: id={}", id);
 
-        Item item = itemRepository.findById(id)
+        ItemDto item = itemCatalogCache.findById(id)
                 .orElseThrow(() -> {
                     log.warn("[ItemService] getItemById: id={} not found", id);
                     return new NotFoundException("item with id " + id + " not found");
                 });
 
         log.info("[ItemService] getItemById: found id={}", id);
-        return itemMapper.toDto(item);
+        return item;
+    }
+
+    @Override
+    public BatchGetResultDto<ItemDto> batchGetItems(List<Long> ids) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+        log.debug("[ItemService] batchGetItems: ids={}", distinct.size());
+        if (distinct.size() > batchGetMaxIds) {
+            throw new BadRequestException("at most " + batchGetMaxIds + " ids per request");
+        }
+
+        Map<Long, ItemDto> byId = itemCatalogCache.findByIds(distinct);
+        List<ItemDto> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            ItemDto item = byId.get(id);
+            if (item != null) {
+                found.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        log.info("[ItemService] batchGetItems: found={}, missing={}", found.size(), missing.size());
+        return new BatchGetResultDto<>(found, missing);
     }
 
     @Override
@@ -94,8 +227,11 @@ public class ItemServiceImpl implements ItemService {
             });
         }
 
+        String previousName = item.getName();
         itemMapper.updateEntityFromDto(dto, item);
         Item updatedItem = itemRepository.save(item);
+        orderViewStore.updateItem(id, updatedItem.getName(), updatedItem.getPrice());
+        publishAfterCommit(id, updatedItem.getName(), previousName, ItemChangeType.UPDATED);
 
         log.info("[ItemService] updateItem: updated id={}", id);
         return itemMapper.toDto(updatedItem);
@@ -112,8 +248,89 @@ public class ItemServiceImpl implements ItemService {
                     return new NotFoundException("item with id " + id + " not found");
                 });
 
+        // the foreign key rejects the delete anyway, but only at flush and as a generic error
+        if (orderItemRepository.existsByItemId(id)) {
+            log.warn("[ItemService] deleteItem: id={} is used by orders", id);
+            throw new ConflictException("item with id " + id + " is used by orders");
+        }
+
         itemRepository.delete(item);
+        publishAfterCommit(id, item.getName(), null, ItemChangeType.DELETED);
 
         log.info("[ItemService] deleteItem: deleted id={}", id);
     }
+
+    @Override
+    @Transactional
+    public ItemImportResultDto importItems(InputStream body, ItemImportFormat format) {
+        log.debug("[ItemService] importItems: format={}", format);
+
+        itemImportRepository.createStaging();
+        long received = format == ItemImportFormat.CSV
+                ? itemImportRepository.copyCsv(body)
+                : itemImportRepository.copyNdjson(body);
+        long rejected = itemImportRepository.markRejected();
+        List<ItemImportConflictDto> conflicts = rejected > 0
+                ? itemImportRepository.findRejected(maxReportedConflicts)
+                : List.of();
+        ItemMergeCounts merged = itemImportRepository.merge();
+        if (merged.getUpdated() > 0) {
+            int views = itemImportRepository.repriceOrderViews();
+            log.debug("[ItemService] importItems: repriced {} order views", views);
+        }
+        if (merged.getInserted() + merged.getUpdated() > 0) {
+            // one event makes every instance reload its catalog views instead of one event per item
+            publishAfterCommit(null, null, null, ItemChangeType.IMPORTED);
+        }
+
+        log.info("[ItemService] importItems: received {}, inserted {}, updated {}, rejected {}",
+                received, merged.getInserted(), merged.getUpdated(), rejected);
+        return ItemImportResultDto.builder()
+                .received(received)
+                .inserted(merged.getInserted())
+                .updated(merged.getUpdated())
+                .unchanged(received - rejected - merged.getInserted() - merged.getUpdated())
+                .rejected(rejected)
+                .conflicts(conflicts)
+                .build();
+    }
+
+    private static String containsPattern(String fragment) {
+        String escaped = fragment.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private void publishAfterCommit(Long id, String name, String previousName, ItemChangeType type) {
+        ItemChangedEvent event = ItemChangedEvent.builder()
+                .itemId(id)
+                .name(name)
+                .previousName(previousName)
+                .type(type)
+                .changedAt(LocalDateTime.now())
+                .build();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    private void publish(ItemChangedEvent event) {
+        itemChangeDispatcher.dispatch(event);
+        try {
+            itemEventProducer.sendItemChangedEvent(event);
+        } catch (Exception e) {
+            log.error("[ItemService] failed to publish item change for id={}: {}", event.getItemId(), e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,199 @@
+package org.oldvabik.orderservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.dto.ItemStockDto;
+import org.oldvabik.orderservice.entity.ItemStockBucket;
+import org.oldvabik.orderservice.exception.NotFoundException;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.repository.ItemStockBucketRepository;
+import org.oldvabik.orderservice.repository.projection.StockBucketRow;
+import org.oldvabik.orderservice.service.ItemStockService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reserves and releases item stock kept in {@code app.item-stock.buckets}
+ * rows per item.
+ *
+ * <p>A reservation first tries a single conditional decrement on a random
+ * bucket, which only locks that row, so hot items scale with the number of
+ * buckets. When that bucket cannot cover the request, all buckets of the item
+ * are locked in bucket order and the quantity is taken from the fullest ones;
+ * this slow path only becomes common when the item is nearly sold out.
+ * Stock never goes negative, so an item cannot be oversold.
+ *
+ * <p>{@link #reserveAll} serves many requests in one transaction. It locks all
+ * buckets of every requested item up front, in ascending item id, and settles
+ * the requests in memory, so concurrent bulk callers never lock the same rows
+ * in opposite order and a short request needs no release.
+ */
+@Slf4j
+@Service
+public class ItemStockServiceImpl implements ItemStockService {
+    private final ItemStockBucketRepository bucketRepository;
+    private final ItemRepository itemRepository;
+
+    @Value("${app.item-stock.buckets:8}")
+    private int buckets = 8;
+
+    public ItemStockServiceImpl(ItemStockBucketRepository bucketRepository,
+                                ItemRepository itemRepository) {
+        this.bucketRepository = bucketRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reserve(Long itemId, long quantity) {
+        if (bucketRepository.take(itemId, randomBucket(), quantity) == 1) {
+            return true;
+        }
+
+        List<StockBucketRow> locked = bucketRepository.lockByItemId(itemId);
+        if (locked.isEmpty()) {
+            return true;
+        }
+        long available = locked.stream().mapToLong(StockBucketRow::getQuantity).sum();
+        if (available < quantity) {
+            log.debug("[ItemStockService] reserve: itemId={} has {} left, {} requested", itemId, available, quantity);
+            return false;
+        }
+
+        takeFromFullest(itemId, locked, quantity);
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Integer, Long> reserveAll(List<Map<Long, Long>> requests) {
+        TreeSet<Long> itemIds = new TreeSet<>();
+        requests.forEach(request -> itemIds.addAll(request.keySet()));
+
+        // untracked items have no buckets and are left out of both maps
+        Map<Long, List<StockBucketRow>> locked = new HashMap<>();
+        Map<Long, Long> available = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<StockBucketRow> rows = bucketRepository.lockByItemId(itemId);
+            if (!rows.isEmpty()) {
+                locked.put(itemId, rows);
+                available.put(itemId, rows.stream().mapToLong(StockBucketRow::getQuantity).sum());
+            }
+        }
+
+        Map<Integer, Long> rejected = new TreeMap<>();
+        Map<Long, Long> granted = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Long shortItem = null;
+            for (Map.Entry<Long, Long> line : new TreeMap<>(requests.get(i)).entrySet()) {
+                Long left = available.get(line.getKey());
+                if (left != null && left - granted.getOrDefault(line.getKey(), 0L) < line.getValue()) {
+                    shortItem = line.getKey();
+                    break;
+                }
+            }
+            if (shortItem != null) {
+                rejected.put(i, shortItem);
+                continue;
+            }
+            requests.get(i).forEach((itemId, quantity) -> {
+                if (available.containsKey(itemId)) {
+                    granted.merge(itemId, quantity, Long::sum);
+                }
+            });
+        }
+
+        granted.forEach((itemId, quantity) -> takeFromFullest(itemId, locked.get(itemId), quantity));
+        if (!rejected.isEmpty()) {
+            log.debug("[ItemStockService] reserveAll: {} of {} requests short of stock", rejected.size(), requests.size());
+        }
+        return rejected;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long itemId, long quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        if (bucketRepository.give(itemId, randomBucket(), quantity) == 0) {
+            bucketRepository.giveToFirst(itemId, quantity);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Map<Long, Long> quantitiesByItem) {
+        quantitiesByItem.forEach(this::release);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemStockDto getStock(Long itemId) {
+        requireItem(itemId);
+        return toDto(itemId, bucketRepository.findByItemIdOrderByBucket(itemId));
+    }
+
+    @Override
+    @Transactional
+    public ItemStockDto setStock(Long itemId, long quantity) {
+        log.debug("[ItemStockService] setStock: itemId={}, quantity={}", itemId, quantity);
+        requireItem(itemId);
+
+        bucketRepository.lockByItemId(itemId);
+        bucketRepository.deleteByItemId(itemId);
+
+        List<ItemStockBucket> rows = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            long share = quantity / buckets + (i < quantity % buckets ? 1 : 0);
+            rows.add(ItemStockBucket.builder().itemId(itemId).bucket((short) i).quantity(share).build());
+        }
+        bucketRepository.saveAll(rows);
+
+        log.info("[ItemStockService] setStock: itemId={} now has {} units in {} buckets", itemId, quantity, buckets);
+        return toDto(itemId, rows);
+    }
+
+    private void requireItem(Long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("item with id " + itemId + " not found");
+        }
+    }
+
+    private void takeFromFullest(Long itemId, List<StockBucketRow> locked, long quantity) {
+        long remaining = quantity;
+        List<StockBucketRow> fullestFirst = new ArrayList<>(locked);
+        fullestFirst.sort(Comparator.comparingLong(StockBucketRow::getQuantity).reversed());
+        for (StockBucketRow bucket : fullestFirst) {
+            long taken = Math.min(bucket.getQuantity(), remaining);
+            if (taken > 0) {
+                bucketRepository.take(itemId, bucket.getBucket(), taken);
+                remaining -= taken;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+    }
+
+    private short randomBucket() {
+        return (short) ThreadLocalRandom.current().nextInt(buckets);
+    }
+
+    private static ItemStockDto toDto(Long itemId, List<ItemStockBucket> rows) {
+        return ItemStockDto.builder()
+                .itemId(itemId)
+                .tracked(!rows.isEmpty())
+                .available(rows.isEmpty() ? null : rows.stream().mapToLong(ItemStockBucket::getQuantity).sum())
+                .build();
+    }
+}
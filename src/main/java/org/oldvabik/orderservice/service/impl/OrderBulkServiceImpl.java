@@ -0,0 +1,415 @@
+package org.oldvabik.orderservice.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
+import org.oldvabik.orderservice.client.UserServiceClient;
+import org.oldvabik.orderservice.dto.*;
+import org.oldvabik.orderservice.entity.Item;
+import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.entity.OrderItem;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.event.CreateOrderEvent;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import org.oldvabik.orderservice.kafka.OrderEventProducer;
+import org.oldvabik.orderservice.money.Money;
+import org.oldvabik.orderservice.repository.OrderBulkRepository;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.security.AccessChecker;
+import org.oldvabik.orderservice.service.ItemStockService;
+import org.oldvabik.orderservice.service.OrderBulkService;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many orders in one transaction and deletes orders by filter.
+ *
+ * <p>Each distinct email and item name is resolved once for the whole request.
+ * Orders that fail validation, user lookup, the access check or item lookup are
+ * reported individually and skipped. Stock for the remaining orders is reserved
+ * in a single pass locked in item id order, so concurrent batches cannot
+ * deadlock, and orders it cannot cover are reported as well. The rest are
+ * written with JDBC batches and their events are sent after commit and flushed
+ * together.
+ *
+ * <p>Deletes run in chunks of {@code app.order-bulk.delete-chunk-size} orders,
+ * each claimed with {@code FOR UPDATE SKIP LOCKED} and removed with one
+ * statement in its own transaction; order items follow through
+ * {@code ON DELETE CASCADE}. Orders locked by a concurrent writer are skipped
+ * and left for the next run. Stock still reserved by deleted pending or paid
+ * orders is released in the same transaction.
+ */
+@Slf4j
+@Service
+public class OrderBulkServiceImpl implements OrderBulkService {
+    private static final LocalDateTime UNBOUNDED_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime UNBOUNDED_TO = LocalDateTime.of(9999, 1, 1, 0, 0);
+    // later statuses have consumed their stock, earlier failures never held any
+    private static final Set<OrderStatus> RESERVING_STATUSES = EnumSet.of(OrderStatus.PENDING, OrderStatus.PAID);
+
+    private final OrderBulkRepository orderBulkRepository;
+    private final ItemCatalogCache itemCatalogCache;
+    private final UserServiceClient userServiceClient;
+    private final AccessChecker accessChecker;
+    private final OrderEventProducer orderEventProducer;
+    private final OrderStatsService orderStatsService;
+    private final OrderViewStore orderViewStore;
+    private final Validator validator;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemStockService itemStockService;
+    private final ItemSalesCounter itemSalesCounter;
+    private final UserOrderSummaryService userOrderSummaryService;
+
+    @Value("${app.order-bulk.delete-chunk-size:1000}")
+    private int deleteChunkSize = 1000;
+
+    public OrderBulkServiceImpl(OrderBulkRepository orderBulkRepository,
+                                ItemCatalogCache itemCatalogCache,
+                                UserServiceClient userServiceClient,
+                                AccessChecker accessChecker,
+                                OrderEventProducer orderEventProducer,
+                                OrderStatsService orderStatsService,
+                                OrderViewStore orderViewStore,
+                                Validator validator,
+                                OrderRepository orderRepository,
+                                TransactionTemplate transactionTemplate,
+                                ItemStockService itemStockService,
+                                ItemSalesCounter itemSalesCounter,
+                                UserOrderSummaryService userOrderSummaryService) {
+        this.orderBulkRepository = orderBulkRepository;
+        this.itemCatalogCache = itemCatalogCache;
+        this.userServiceClient = userServiceClient;
+        this.accessChecker = accessChecker;
+        this.orderEventProducer = orderEventProducer;
+        this.orderStatsService = orderStatsService;
+        this.orderViewStore = orderViewStore;
+        this.validator = validator;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.itemStockService = itemStockService;
+        this.itemSalesCounter = itemSalesCounter;
+        this.userOrderSummaryService = userOrderSummaryService;
+    }
+
+    @Override
+    @Transactional
+    public OrderBulkResponseDto createOrders(Authentication auth, List<OrderCreateDto> dtos) {
+        log.debug("[OrderBulkService] createOrders: size={}", dtos.size());
+
+        OrderBulkResultDto[] results = new OrderBulkResultDto[dtos.size()];
+        Map<String, Optional<UserDto>> users = new HashMap<>();
+        Map<String, Optional<ItemDto>> items = new HashMap<>();
+        List<Order> orders = new ArrayList<>();
+        List<UserDto> owners = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            OrderCreateDto dto = dtos.get(i);
+
+            String invalid = validate(dto);
+            if (invalid != null) {
+                results[i] = failed(i, invalid);
+                continue;
+            }
+
+            UserDto user = users.computeIfAbsent(dto.getEmail(), email -> resolveUser(auth, email)).orElse(null);
+            if (user == null) {
+                results[i] = failed(i, "User not found: " + dto.getEmail());
+                continue;
+            }
+            if (!accessChecker.canAccessUser(auth, user)) {
+                results[i] = failed(i, "Access denied");
+                continue;
+            }
+
+            Order order = Order.builder()
+                    .userId(user.getId())
+                    .status(OrderStatus.PENDING)
+                    .creationDate(now)
+                    .items(new ArrayList<>())
+                    .build();
+            String missingItem = null;
+            for (OrderItemCreateDto itemDto : dto.getItems()) {
+                Optional<ItemDto> item = items.computeIfAbsent(itemDto.getName(), itemCatalogCache::findByName);
+                if (item.isEmpty()) {
+                    missingItem = itemDto.getName();
+                    break;
+                }
+                order.getItems().add(OrderItem.builder()
+                        .order(order)
+                        .item(Item.builder()
+                                .id(item.get().getId())
+                                .name(item.get().getName())
+                                .price(item.get().getPrice())
+                                .build())
+                        .quantity(itemDto.getQuantity())
+                        .orderCreationDate(now)
+                        .build());
+            }
+            if (missingItem != null) {
+                results[i] = failed(i, "Item not found: " + missingItem);
+                continue;
+            }
+            order.setTotalAmount(totalAmount(order).toBigDecimal());
+
+            orders.add(order);
+            indexes.add(i);
+            owners.add(user);
+        }
+
+        // one reservation pass for the whole batch, so stock rows are locked in item id order across all orders
+        List<Map<Long, Long>> requests = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            requests.add(quantitiesByItem(order));
+        }
+        Map<Integer, Long> shortItems = itemStockService.reserveAll(requests);
+        for (int k = orders.size() - 1; k >= 0; k--) {
+            Long shortItem = shortItems.get(k);
+            if (shortItem != null) {
+                int index = indexes.get(k);
+                results[index] = failed(index, "Insufficient stock for item: " + itemName(orders.get(k), shortItem));
+                orders.remove(k);
+                indexes.remove(k);
+                owners.remove(k);
+            }
+        }
+
+        if (!orders.isEmpty()) {
+            insert(orders, owners);
+            for (int i = 0; i < orders.size(); i++) {
+                results[indexes.get(i)] = OrderBulkResultDto.builder()
+                        .index(indexes.get(i))
+                        .status(BulkResultStatus.CREATED)
+                        .orderId(orders.get(i).getId())
+                        .build();
+            }
+        }
+
+        int failed = dtos.size() - orders.size();
+        log.info("[OrderBulkService] createOrders: created {} orders, {} failed", orders.size(), failed);
+        return OrderBulkResponseDto.builder()
+                .created(orders.size())
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    @Override
+    public int deleteOrders(List<OrderStatus> statuses, LocalDate createdFrom, LocalDate createdTo) {
+        log.debug("[OrderBulkService] deleteOrders: statuses={}, createdFrom={}, createdTo={}",
+                statuses, createdFrom, createdTo);
+
+        boolean hasStatuses = statuses != null && !statuses.isEmpty();
+        if (!hasStatuses && createdFrom == null && createdTo == null) {
+            throw new BadRequestException("At least one of statuses, createdFrom or createdTo is required");
+        }
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new BadRequestException("createdFrom must not be after createdTo");
+        }
+        List<String> statusNames = (hasStatuses ? statuses : Arrays.asList(OrderStatus.values())).stream()
+                .map(OrderStatus::name)
+                .toList();
+        LocalDateTime from = createdFrom != null ? createdFrom.atStartOfDay() : UNBOUNDED_FROM;
+        LocalDateTime to = createdTo != null ? createdTo.plusDays(1).atStartOfDay() : UNBOUNDED_TO;
+
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteChunk(statusNames, from, to));
+            total += deleted;
+        } while (deleted == deleteChunkSize);
+
+        log.info("[OrderBulkService] deleteOrders: deleted {} orders", total);
+        return total;
+    }
+
+    private int deleteChunk(List<String> statuses, LocalDateTime from, LocalDateTime to) {
+        List<Long> ids = orderRepository.lockIdsByFilter(statuses, from, to, deleteChunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Map<LocalDate, Map<OrderStatus, Long>> deletedPerDay = new HashMap<>();
+        for (OrderHeaderRow order : orderRepository.findHeadersByIds(ids)) {
+            deletedPerDay.computeIfAbsent(order.getCreationDate().toLocalDate(), day -> new EnumMap<>(OrderStatus.class))
+                    .merge(order.getStatus(), 1L, Long::sum);
+        }
+        Map<Long, Long> reserved = new TreeMap<>();
+        for (ItemQuantityRow row : orderRepository.sumItemQuantitiesByIdInAndStatusIn(ids, RESERVING_STATUSES)) {
+            reserved.put(row.getItemId(), row.getQuantity());
+        }
+        itemStockService.release(reserved);
+        userOrderSummaryService.recordDeleted(ids);
+        orderRepository.deleteAllByIdIn(ids);
+        deletedPerDay.forEach((day, counts) ->
+                counts.forEach((status, count) -> orderStatsService.recordDeleted(day, status, count)));
+        orderViewStore.delete(ids);
+        return ids.size();
+    }
+
+    private void insert(List<Order> orders, List<UserDto> owners) {
+        List<Long> orderIds = orderBulkRepository.nextOrderIds(orders.size());
+        int itemCount = orders.stream().mapToInt(order -> order.getItems().size()).sum();
+        List<Long> itemIds = orderBulkRepository.nextOrderItemIds(itemCount);
+
+        int nextItemId = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(orderIds.get(i));
+            for (OrderItem item : orders.get(i).getItems()) {
+                item.setId(itemIds.get(nextItemId++));
+            }
+        }
+        orderBulkRepository.insertOrders(orders);
+
+        List<OrderDto> views = new ArrayList<>(orders.size());
+        List<CreateOrderEvent> events = new ArrayList<>(orders.size());
+        Map<LocalDate, Long> createdPerDay = new HashMap<>();
+        Map<Long, Long> soldPerItem = new HashMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            views.add(toDto(order, owners.get(i)));
+            for (OrderItem item : order.getItems()) {
+                soldPerItem.merge(item.getItem().getId(), (long) item.getQuantity(), Long::sum);
+            }
+            events.add(CreateOrderEvent.builder()
+                    .orderId(String.valueOf(order.getId()))
+                    .userId(String.valueOf(order.getUserId()))
+                    .totalAmount(order.getTotalAmount())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            createdPerDay.merge(order.getCreationDate().toLocalDate(), 1L, Long::sum);
+        }
+        createdPerDay.forEach((day, count) -> orderStatsService.recordCreated(day, OrderStatus.PENDING, count));
+        userOrderSummaryService.recordCreated(orders);
+        orderViewStore.insertAll(views);
+        itemSalesCounter.recordAfterCommit(soldPerItem);
+        publishAfterCommit(events);
+    }
+
+    private Optional<UserDto> resolveUser(Authentication auth, String email) {
+        try {
+            UserDto user = userServiceClient.getUserByEmail(auth, email);
+            // the client's fallback answers with id -1 when the user service is unavailable
+            return user != null && user.getId() != null && user.getId() > 0 ? Optional.of(user) : Optional.empty();
+        } catch (RuntimeException e) {
+            log.warn("[OrderBulkService] resolveUser: email={} failed: {}", email, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String validate(OrderCreateDto dto) {
+        if (dto == null) {
+            return "Order must not be null";
+        }
+        Set<ConstraintViolation<OrderCreateDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void publishAfterCommit(List<CreateOrderEvent> events) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(events);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(events);
+            }
+        });
+    }
+
+    private void publish(List<CreateOrderEvent> events) {
+        try {
+            orderEventProducer.sendOrderCreatedEvents(events);
+        } catch (Exception e) {
+            log.error("[OrderBulkService] failed to publish {} order events: {}", events.size(), e.getMessage(), e);
+        }
+    }
+
+    private static OrderDto toDto(Order order, UserDto user) {
+        List<OrderItemDto> items = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            items.add(OrderItemDto.builder()
+                    .id(item.getId())
+                    .itemId(item.getItem().getId())
+                    .name(item.getItem().getName())
+                    .price(item.getItem().getPrice())
+                    .quantity(item.getQuantity())
+                    .build());
+        }
+        return OrderDto.builder()
+                .id(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .creationDate(order.getCreationDate())
+                .items(items)
+                .user(user)
+                .build();
+    }
+
+    private static Money totalAmount(Order order) {
+        Money total = Money.ZERO;
+        for (OrderItem oi : order.getItems()) {
+            total = total.plus(Money.ofMajor(oi.getItem().getPrice()).times(oi.getQuantity()));
+        }
+        return total;
+    }
+
+    private static Map<Long, Long> quantitiesByItem(Order order) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (OrderItem orderItem : order.getItems()) {
+            quantities.merge(orderItem.getItem().getId(), (long) orderItem.getQuantity(), Long::sum);
+        }
+        return quantities;
+    }
+
+    private static String itemName(Order order, Long itemId) {
+        for (OrderItem orderItem : order.getItems()) {
+            if (orderItem.getItem().getId().equals(itemId)) {
+                return orderItem.getItem().getName();
+            }
+        }
+        return String.valueOf(itemId);
+    }
+
+    private static OrderBulkResultDto failed(int index, String error) {
+        return OrderBulkResultDto.builder()
+                .index(index)
+                .status(BulkResultStatus.FAILED)
+                .error(error)
+                .build();
+    }
+}
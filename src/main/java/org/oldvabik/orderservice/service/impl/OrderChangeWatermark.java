@@ -0,0 +1,42 @@
+package org.oldvabik.orderservice.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in the order changes feed, ordered by
+ * {@code change_xid, change_seq}: the last change a client has received.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderChangeWatermark {
+    public static final OrderChangeWatermark START = new OrderChangeWatermark(0L, 0L);
+
+    private static final char SEPARATOR = '|';
+
+    private final long changeXid;
+    private final long changeSeq;
+
+    public String encode() {
+        String raw = Long.toString(changeXid) + SEPARATOR + changeSeq;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderChangeWatermark decode(String watermark) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            long changeXid = Long.parseLong(raw.substring(0, separator));
+            long changeSeq = Long.parseLong(raw.substring(separator + 1));
+            if (changeXid < 0 || changeSeq < 0) {
+                throw new BadRequestException("invalid watermark: " + watermark);
+            }
+            return new OrderChangeWatermark(changeXid, changeSeq);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("invalid watermark: " + watermark);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.oldvabik.orderservice.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in an order history ordered by
+ * {@code creation_date DESC, id ASC}: the last row of the previous page.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderCursor {
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime creationDate;
+    private final Long id;
+
+    public String encode() {
+        String raw = creationDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("invalid cursor: " + cursor);
+        }
+    }
+}
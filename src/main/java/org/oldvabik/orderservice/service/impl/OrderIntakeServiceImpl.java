@@ -0,0 +1,211 @@
+package org.oldvabik.orderservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.config.OrderIntakeProperties;
+import org.oldvabik.orderservice.dto.*;
+import org.oldvabik.orderservice.exception.NotFoundException;
+import org.oldvabik.orderservice.exception.ServiceUnavailableException;
+import org.oldvabik.orderservice.service.OrderBulkService;
+import org.oldvabik.orderservice.service.OrderIntakeService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts orders into a bounded in-process queue and creates them in the
+ * background through {@link OrderBulkService}.
+ *
+ * <p>{@link #submit} only enqueues, so request threads are released before the
+ * user lookup and the database writes; a full queue is reported as
+ * unavailable instead of blocking. Workers drain up to
+ * {@code app.order-intake.batch-size} submissions at a time and create each
+ * principal's orders in one bulk call. Outcomes are kept for
+ * {@code app.order-intake.status-ttl} and can be polled by the submitter.
+ * Submissions still queued when the instance stops are lost and stay
+ * {@link IntakeStatus#QUEUED} until they expire.
+ */
+@Slf4j
+@Service
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+    private final OrderBulkService orderBulkService;
+    private final OrderIntakeProperties properties;
+    private final BlockingQueue<Submission> queue;
+    private final Cache<String, Tracked> statuses;
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public OrderIntakeServiceImpl(OrderBulkService orderBulkService,
+                                  OrderIntakeProperties properties) {
+        this.orderBulkService = orderBulkService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(properties.getStatusCacheSize())
+                .expireAfterWrite(properties.getStatusTtl())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "order-intake");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.submit(this::work);
+        }
+        log.info("[OrderIntakeService] start: {} workers, queue capacity {}",
+                properties.getWorkers(), properties.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("[OrderIntakeService] stop: {} queued orders were not processed", queue.size());
+        }
+    }
+
+    @Override
+    public OrderIntakeDto submit(Authentication auth, OrderCreateDto dto) {
+        if (!properties.isEnabled()) {
+            throw new ServiceUnavailableException("Asynchronous order intake is disabled");
+        }
+
+        OrderIntakeDto status = OrderIntakeDto.builder()
+                .trackingId(UUID.randomUUID().toString())
+                .status(IntakeStatus.QUEUED)
+                .acceptedAt(LocalDateTime.now())
+                .build();
+        statuses.put(status.getTrackingId(), new Tracked(auth.getName(), status));
+
+        if (!queue.offer(new Submission(status.getTrackingId(), auth, dto))) {
+            statuses.invalidate(status.getTrackingId());
+            log.warn("[OrderIntakeService] submit: queue full, rejecting order for email={}", dto.getEmail());
+            throw new ServiceUnavailableException("Order intake queue is full, retry later");
+        }
+
+        log.debug("[OrderIntakeService] submit: queued trackingId={}", status.getTrackingId());
+        return copy(status);
+    }
+
+    @Override
+    public OrderIntakeDto getStatus(Authentication auth, String trackingId) {
+        Tracked tracked = statuses.getIfPresent(trackingId);
+        if (tracked == null || !tracked.principal().equals(auth.getName())) {
+            throw new NotFoundException("Order submission not found: " + trackingId);
+        }
+        return copy(tracked.status());
+    }
+
+    /**
+     * Processes one batch of queued submissions on the calling thread.
+     *
+     * @return the number of submissions processed
+     */
+    public int processPending() {
+        Submission first = queue.poll();
+        return first != null ? process(first) : 0;
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                Submission first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    process(first);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("[OrderIntakeService] worker failed", e);
+            }
+        }
+    }
+
+    private int process(Submission first) {
+        List<Submission> batch = new ArrayList<>(properties.getBatchSize());
+        batch.add(first);
+        queue.drainTo(batch, properties.getBatchSize() - 1);
+
+        Map<String, List<Submission>> byPrincipal = new LinkedHashMap<>();
+        for (Submission submission : batch) {
+            byPrincipal.computeIfAbsent(submission.auth().getName(), name -> new ArrayList<>()).add(submission);
+        }
+        byPrincipal.forEach(this::create);
+
+        log.debug("[OrderIntakeService] process: processed {} submissions", batch.size());
+        return batch.size();
+    }
+
+    private void create(String principal, List<Submission> submissions) {
+        List<OrderCreateDto> dtos = submissions.stream().map(Submission::dto).toList();
+        try {
+            OrderBulkResponseDto response = orderBulkService.createOrders(submissions.get(0).auth(), dtos);
+            for (OrderBulkResultDto result : response.getResults()) {
+                Submission submission = submissions.get(result.getIndex());
+                complete(submission, principal, result.getStatus() == BulkResultStatus.CREATED
+                        ? IntakeStatus.CREATED : IntakeStatus.FAILED, result.getOrderId(), result.getError());
+            }
+        } catch (RuntimeException e) {
+            log.error("[OrderIntakeService] create: {} orders for {} failed", submissions.size(), principal, e);
+            for (Submission submission : submissions) {
+                complete(submission, principal, IntakeStatus.FAILED, null, e.getMessage());
+            }
+        }
+    }
+
+    private void complete(Submission submission, String principal, IntakeStatus status, Long orderId, String error) {
+        Tracked previous = statuses.getIfPresent(submission.trackingId());
+        OrderIntakeDto dto = OrderIntakeDto.builder()
+                .trackingId(submission.trackingId())
+                .status(status)
+                .orderId(orderId)
+                .error(error)
+                .acceptedAt(previous != null ? previous.status().getAcceptedAt() : null)
+                .completedAt(LocalDateTime.now())
+                .build();
+        statuses.put(submission.trackingId(), new Tracked(principal, dto));
+    }
+
+    private static OrderIntakeDto copy(OrderIntakeDto status) {
+        return OrderIntakeDto.builder()
+                .trackingId(status.getTrackingId())
+                .status(status.getStatus())
+                .orderId(status.getOrderId())
+                .error(status.getError())
+                .acceptedAt(status.getAcceptedAt())
+                .completedAt(status.getCompletedAt())
+                .build();
+    }
+
+    private record Submission(String trackingId, Authentication auth, OrderCreateDto dto) {
+    }
+
+    private record Tracked(String principal, OrderIntakeDto status) {
+    }
+}
@@ -0,0 +1,120 @@
+package org.oldvabik.orderservice.service.impl;
+
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.dto.OrderItemDto;
+import org.oldvabik.orderservice.mapper.OrderItemMapper;
+import org.oldvabik.orderservice.mapper.OrderMapper;
+import org.oldvabik.orderservice.repository.OrderItemRepository;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.repository.projection.OrderItemRow;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link OrderDto}s from flat projection rows instead of managed
+ * {@code Order -> OrderItem -> Item} graphs. Line items of all orders in a
+ * page are fetched with a single query and grouped in memory; the query is
+ * bounded by the page's creation-date range so that only the matching
+ * {@code order_items} partitions are scanned. Orders present in the
+ * {@link OrderViewStore} read model are taken from there instead, including
+ * the cached user snapshot when it is still fresh.
+ */
+@Component
+public class OrderRowAssembler {
+    private final OrderItemRepository orderItemRepository;
+    private final OrderMapper orderMapper;
+    private final OrderItemMapper orderItemMapper;
+    private final OrderViewStore orderViewStore;
+
+    public OrderRowAssembler(OrderItemRepository orderItemRepository,
+                             OrderMapper orderMapper,
+                             OrderItemMapper orderItemMapper,
+                             OrderViewStore orderViewStore) {
+        this.orderItemRepository = orderItemRepository;
+        this.orderMapper = orderMapper;
+        this.orderItemMapper = orderItemMapper;
+        this.orderViewStore = orderViewStore;
+    }
+
+    public Page<OrderDto> toDtoPage(Page<OrderHeaderRow> headers) {
+        Map<Long, OrderDto> views = loadViews(headers.getContent());
+        Map<Long, List<OrderItemDto>> itemsByOrderId = loadItems(missing(headers.getContent(), views));
+        return headers.map(header -> toDto(header, views, itemsByOrderId));
+    }
+
+    public List<OrderDto> toDtos(List<OrderHeaderRow> headers) {
+        Map<Long, OrderDto> views = loadViews(headers);
+        Map<Long, List<OrderItemDto>> itemsByOrderId = loadItems(missing(headers, views));
+        List<OrderDto> result = new ArrayList<>(headers.size());
+        for (OrderHeaderRow header : headers) {
+            result.add(toDto(header, views, itemsByOrderId));
+        }
+        return result;
+    }
+
+    private OrderDto toDto(OrderHeaderRow header,
+                           Map<Long, OrderDto> views,
+                           Map<Long, List<OrderItemDto>> itemsByOrderId) {
+        OrderDto view = views.get(header.getId());
+        if (view != null) {
+            return view;
+        }
+        OrderDto dto = orderMapper.toDto(header);
+        dto.setItems(itemsByOrderId.getOrDefault(header.getId(), new ArrayList<>()));
+        return dto;
+    }
+
+    private Map<Long, OrderDto> loadViews(List<OrderHeaderRow> headers) {
+        if (!orderViewStore.isReadEnabled() || headers.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> orderIds = new ArrayList<>(headers.size());
+        for (OrderHeaderRow header : headers) {
+            orderIds.add(header.getId());
+        }
+        return orderViewStore.findByIds(orderIds);
+    }
+
+    private static List<OrderHeaderRow> missing(List<OrderHeaderRow> headers, Map<Long, OrderDto> views) {
+        if (views.isEmpty()) {
+            return headers;
+        }
+        List<OrderHeaderRow> result = new ArrayList<>();
+        for (OrderHeaderRow header : headers) {
+            if (!views.containsKey(header.getId())) {
+                result.add(header);
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, List<OrderItemDto>> loadItems(List<OrderHeaderRow> headers) {
+        if (headers.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> orderIds = new ArrayList<>(headers.size());
+        LocalDateTime from = headers.get(0).getCreationDate();
+        LocalDateTime to = from;
+        for (OrderHeaderRow header : headers) {
+            orderIds.add(header.getId());
+            if (header.getCreationDate().isBefore(from)) {
+                from = header.getCreationDate();
+            } else if (header.getCreationDate().isAfter(to)) {
+                to = header.getCreationDate();
+            }
+        }
+
+        Map<Long, List<OrderItemDto>> itemsByOrderId = new HashMap<>(headers.size() * 2);
+        for (OrderItemRow row : orderItemRepository.findRowsByOrderIdIn(orderIds, from, to)) {
+            itemsByOrderId.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>())
+                    .add(orderItemMapper.toDto(row));
+        }
+        return itemsByOrderId;
+    }
+}
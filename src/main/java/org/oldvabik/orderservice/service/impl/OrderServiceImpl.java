@@ -1,20 +1,36 @@
 package org.oldvabik.orderservice.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.archive.OrderArchive;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
+import org.oldvabik.orderservice.cache.ItemNameFilter;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
 import org.oldvabik.orderservice.client.UserServiceClient;
 import org.oldvabik.orderservice.dto.*;
 import org.oldvabik.orderservice.entity.Item;
 import org.oldvabik.orderservice.entity.Order;
 import org.oldvabik.orderservice.entity.OrderItem;
 import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import org.oldvabik.orderservice.exception.ConflictException;
 import org.oldvabik.orderservice.exception.NotFoundException;
 import org.oldvabik.orderservice.event.CreateOrderEvent;
+import org.oldvabik.orderservice.event.OrderStatusChangedEvent;
 import org.oldvabik.orderservice.kafka.OrderEventProducer;
 import org.oldvabik.orderservice.mapper.OrderMapper;
-import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.money.Money;
+import org.oldvabik.orderservice.repository.OrderChangeRepository;
 import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.projection.OrderChangeRow;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.repository.projection.OrderVersionRow;
 import org.oldvabik.orderservice.security.AccessChecker;
+import org.oldvabik.orderservice.service.ItemStockService;
 import org.oldvabik.orderservice.service.OrderService;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,33 +38,81 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Slf4j
 @Service
 public class OrderServiceImpl implements OrderService {
+    // used when no creation-date bound is requested, so list queries always carry a range predicate
+    private static final LocalDateTime UNBOUNDED_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime UNBOUNDED_TO = LocalDateTime.of(9999, 1, 1, 0, 0);
+    // later statuses have consumed their stock, earlier failures never held any
+    private static final Set<OrderStatus> RESERVING_STATUSES = EnumSet.of(OrderStatus.PENDING, OrderStatus.PAID);
+
     private final OrderRepository orderRepository;
-    private final ItemRepository itemRepository;
+    private final ItemCatalogCache itemCatalogCache;
     private final OrderMapper orderMapper;
     private final UserServiceClient userServiceClient;
     private final AccessChecker accessChecker;
     private final OrderEventProducer orderEventProducer;
+    private final OrderRowAssembler orderRowAssembler;
+    private final OrderStatsService orderStatsService;
+    private final OrderArchive orderArchive;
+    private final OrderViewStore orderViewStore;
+    private final IdempotencyStore idempotencyStore;
+    private final ItemStockService itemStockService;
+    private final ItemSalesCounter itemSalesCounter;
+    private final UserOrderSummaryService userOrderSummaryService;
+    private final ItemNameFilter itemNameFilter;
+    private final OrderChangeRepository orderChangeRepository;
+
+    @Value("${app.batch-get.max-ids:500}")
+    private int batchGetMaxIds = 500;
 
     public OrderServiceImpl(OrderRepository orderRepository,
-                            ItemRepository itemRepository,
+                            ItemCatalogCache itemCatalogCache,
                             OrderMapper orderMapper,
                             UserServiceClient userServiceClient,
                             AccessChecker accessChecker,
-                            OrderEventProducer orderEventProducer) {
+                            OrderEventProducer orderEventProducer,
+                            OrderRowAssembler orderRowAssembler,
+                            OrderStatsService orderStatsService,
+                            OrderArchive orderArchive,
+                            OrderViewStore orderViewStore,
+                            IdempotencyStore idempotencyStore,
+                            ItemStockService itemStockService,
+                            ItemSalesCounter itemSalesCounter,
+                            UserOrderSummaryService userOrderSummaryService,
+                            ItemNameFilter itemNameFilter,
+                            OrderChangeRepository orderChangeRepository) {
         this.orderRepository = orderRepository;
-        this.itemRepository = itemRepository;
+        this.itemCatalogCache = itemCatalogCache;
         this.orderMapper = orderMapper;
         this.userServiceClient = userServiceClient;
         this.accessChecker = accessChecker;
         this.orderEventProducer = orderEventProducer;
+        this.orderRowAssembler = orderRowAssembler;
+        this.orderStatsService = orderStatsService;
+        this.orderArchive = orderArchive;
+        this.orderViewStore = orderViewStore;
+        this.idempotencyStore = idempotencyStore;
+        this.itemStockService = itemStockService;
+        this.itemSalesCounter = itemSalesCounter;
+        this.userOrderSummaryService = userOrderSummaryService;
+        this.itemNameFilter = itemNameFilter;
+        this.orderChangeRepository = orderChangeRepository;
     }
 
     @Override
@@ -56,6 +120,22 @@ public class OrderServiceImpl implements OrderService {
     public OrderDto createOrder(Authentication auth, OrderCreateDto dto) {
         log.debug("[OrderService] createOrder: email={}", dto.getEmail());
 
+        // unknown names are rejected before the user lookup; an item created on another instance reaches
+        // the filter only with its event, so a filter miss is confirmed against the catalog once and then
+        // remembered for app.item-cache.name-miss-ttl, and repeated unknown names cost no query
+        for (OrderItemCreateDto itemDto : dto.getItems()) {
+            String name = itemDto.getName();
+            if (itemNameFilter.mightContain(name)) {
+                continue;
+            }
+            if (itemNameFilter.isKnownMissing(name) || itemCatalogCache.findByName(name).isEmpty()) {
+                itemNameFilter.recordMissing(name);
+                log.warn("[OrderService] createOrder: unknown item name={}", name);
+                throw new NotFoundException("Item not found: " + name);
+            }
+            itemNameFilter.add(name);
+        }
+
         UserDto user = userServiceClient.getUserByEmail(auth, dto.getEmail());
 
         if (!accessChecker.canAccessUser(auth, user)) {
@@ -73,30 +153,41 @@ public class OrderServiceImpl implements OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (OrderItemCreateDto itemDto : dto.getItems()) {
-            Item item = itemRepository.findByName(itemDto.getName())
+            ItemDto item = itemCatalogCache.findByName(itemDto.getName())
                     .orElseThrow(() -> new NotFoundException(
                             "Item not found: " + itemDto.getName())
                     );
 
             OrderItem oi = new OrderItem();
             oi.setOrder(order);
-            oi.setItem(item);
+            // detached snapshot from the catalog cache, only its id is written to order_items
+            oi.setItem(Item.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .price(item.getPrice())
+                    .build());
             oi.setQuantity(itemDto.getQuantity());
             orderItems.add(oi);
         }
 
+        Money totalAmount = Money.ZERO;
+        for (OrderItem oi : orderItems) {
+            totalAmount = totalAmount.plus(Money.ofMajor(oi.getItem().getPrice()).times(oi.getQuantity()));
+        }
+
         order.setItems(orderItems);
+        order.setTotalAmount(totalAmount.toBigDecimal());
+        reserveStock(orderItems);
 
         Order saved = orderRepository.save(order);
-
-        BigDecimal totalAmount = orderItems.stream()
-                .map(oi -> oi.getItem().getPrice().multiply(BigDecimal.valueOf(oi.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        orderStatsService.recordCreated(saved.getCreationDate().toLocalDate(), saved.getStatus());
+        userOrderSummaryService.recordCreated(List.of(saved));
+        itemSalesCounter.recordAfterCommit(quantitiesByItem(orderItems));
 
         CreateOrderEvent event = CreateOrderEvent.builder()
                 .orderId(String.valueOf(saved.getId()))
                 .userId(String.valueOf(user.getId()))
-                .totalAmount(totalAmount)
+                .totalAmount(totalAmount.toBigDecimal())
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -104,39 +195,70 @@ public class OrderServiceImpl implements OrderService {
 
         OrderDto response = orderMapper.toDto(saved);
         response.setUser(user);
+        orderViewStore.save(response);
 
         log.info("[OrderService] createOrder: created id={}", saved.getId());
         return response;
     }
 
     @Override
+    @Transactional
+    public OrderDto createOrder(Authentication auth, OrderCreateDto dto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createOrder(auth, dto);
+        }
+
+        String requestHash = idempotencyStore.hash(dto);
+        Optional<OrderDto> previous = idempotencyStore.claim(auth.getName(), idempotencyKey, requestHash);
+        if (previous.isPresent()) {
+            log.info("[OrderService] createOrder: replaying id={} for idempotency key", previous.get().getId());
+            return previous.get();
+        }
+
+        OrderDto response = createOrder(auth, dto);
+        idempotencyStore.complete(auth.getName(), idempotencyKey, requestHash, response);
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<OrderDto> getOrders(Authentication auth,
                                     Integer page,
                                     Integer size,
                                     List<Long> ids,
-                                    List<OrderStatus> statuses) {
-        log.debug("[OrderService] getOrders: page={}, size={}", page, size);
+                                    List<OrderStatus> statuses,
+                                    LocalDate createdFrom,
+                                    LocalDate createdTo) {
+        log.debug("[OrderService] getOrders: page={}, size={}, createdFrom={}, createdTo={}",
+                page, size, createdFrom, createdTo);
+
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new BadRequestException("createdFrom must not be after createdTo");
+        }
+        LocalDateTime from = createdFrom != null ? createdFrom.atStartOfDay() : UNBOUNDED_FROM;
+        LocalDateTime to = createdTo != null ? createdTo.plusDays(1).atStartOfDay() : UNBOUNDED_TO;
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders;
+        Page<OrderHeaderRow> orders;
 
         boolean hasIds = ids != null && !ids.isEmpty();
         boolean hasStatuses = statuses != null && !statuses.isEmpty();
 
         if (!hasIds && !hasStatuses) {
-            orders = orderRepository.findAllWithDetails(pageable);
+            orders = orderRepository.findAllHeaders(from, to, pageable);
         } else if (hasIds && hasStatuses) {
-            orders = orderRepository.findByIdInAndStatusIn(ids, statuses, pageable);
+            orders = orderRepository.findHeadersByIdInAndStatusIn(ids, statuses, from, to, pageable);
         } else if (hasIds) {
-            orders = orderRepository.findByIdIn(ids, pageable);
+            orders = orderRepository.findHeadersByIdIn(ids, from, to, pageable);
         } else {
-            orders = orderRepository.findByStatusIn(statuses, pageable);
+            orders = orderRepository.findHeadersByStatusIn(statuses, from, to, pageable);
         }
 
-        Page<OrderDto> result = orders.map(order -> {
-            OrderDto dto = orderMapper.toDto(order);
-            dto.setUser(userServiceClient.getUserById(auth, order.getUserId()));
-            return dto;
+        Page<OrderDto> result = orderRowAssembler.toDtoPage(orders);
+        result.forEach(dto -> {
+            if (dto.getUser() == null) {
+                dto.setUser(userServiceClient.getUserById(auth, dto.getUserId()));
+            }
         });
 
         log.info("[OrderService] getOrders: returning {} orders", result.getContent().size());
@@ -144,17 +266,20 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDto getOrderById(Authentication auth, Long id) {
         log.debug("[OrderService] getOrderById: id={}", id);
 
-        Order order = orderRepository.findByIdWithDetails(id)
+        OrderDto dto = orderViewStore.findById(id)
+                .or(() -> orderRepository.findByIdWithDetails(id).map(orderMapper::toDto))
+                .or(() -> orderArchive.findById(id))
                 .orElseThrow(() -> {
                     log.warn("[OrderService] getOrderById: id={} not found", id);
                     return new NotFoundException("order with id " + id + " not found");
                 });
-
-        OrderDto dto = orderMapper.toDto(order);
-        dto.setUser(userServiceClient.getUserById(auth, order.getUserId()));
+        if (dto.getUser() == null) {
+            dto.setUser(userServiceClient.getUserById(auth, dto.getUserId()));
+        }
 
         if (!accessChecker.canAccessUser(auth, dto.getUser())) {
             log.warn("[OrderService] getOrderById: access denied for email={}", auth.getName());
@@ -165,21 +290,163 @@ public class OrderServiceImpl implements OrderService {
         return dto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getOrderVersion(Authentication auth, Long id) {
+        OrderVersionRow version = orderRepository.findVersionById(id).orElse(null);
+        if (version == null) {
+            return null;
+        }
+        if (!accessChecker.isAdmin(auth) && !version.getUserId().equals(accessChecker.getUserId(auth))) {
+            log.debug("[OrderService] getOrderVersion: ownership of id={} not confirmed from token", id);
+            return null;
+        }
+        return version.getChangeSeq() + "." + version.getItemsChangeSeq();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchGetResultDto<OrderDto> batchGetOrders(Authentication auth, List<Long> ids) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+        log.debug("[OrderService] batchGetOrders: ids={}", distinct.size());
+        if (distinct.size() > batchGetMaxIds) {
+            throw new BadRequestException("at most " + batchGetMaxIds + " ids per request");
+        }
+
+        Map<Long, OrderDto> byId = new HashMap<>(distinct.size() * 2);
+        for (OrderDto dto : orderRowAssembler.toDtos(orderRepository.findHeadersByIds(distinct))) {
+            byId.put(dto.getId(), dto);
+        }
+
+        // ids not in the live tables are looked up in the archive in one pass
+        List<Long> notLive = distinct.stream().filter(id -> !byId.containsKey(id)).toList();
+        if (!notLive.isEmpty()) {
+            byId.putAll(orderArchive.findByIds(notLive));
+        }
+
+        List<OrderDto> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            OrderDto dto = byId.get(id);
+            if (dto == null) {
+                missing.add(id);
+            } else {
+                found.add(dto);
+            }
+        }
+        fillUsers(auth, found);
+
+        log.info("[OrderService] batchGetOrders: found={}, missing={}", found.size(), missing.size());
+        return new BatchGetResultDto<>(found, missing);
+    }
+
+    // not read-only: the snapshot horizon must come from the primary, which assigns transaction ids
+    @Override
+    @Transactional
+    public OrderChangesDto getOrderChanges(Authentication auth, String watermark, Integer size) {
+        OrderChangeWatermark after = watermark != null ? OrderChangeWatermark.decode(watermark)
+                : OrderChangeWatermark.START;
+        log.debug("[OrderService] getOrderChanges: changeXid={}, changeSeq={}, size={}",
+                after.getChangeXid(), after.getChangeSeq(), size);
+
+        List<OrderChangeRow> changes = orderChangeRepository.findChangesAfter(
+                after.getChangeXid(), after.getChangeSeq(), size + 1);
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+
+        List<Long> ids = new ArrayList<>(changes.size());
+        for (OrderChangeRow change : changes) {
+            ids.add(change.getId());
+        }
+        Map<Long, OrderDto> byId = new HashMap<>(ids.size() * 2);
+        if (!ids.isEmpty()) {
+            for (OrderDto dto : orderRowAssembler.toDtos(orderRepository.findHeadersByIds(ids))) {
+                byId.put(dto.getId(), dto);
+            }
+        }
+
+        // orders deleted since the feed query are skipped
+        List<OrderDto> content = new ArrayList<>(changes.size());
+        for (Long id : ids) {
+            OrderDto dto = byId.get(id);
+            if (dto != null) {
+                content.add(dto);
+            }
+        }
+        fillUsers(auth, content);
+
+        OrderChangeWatermark next = after;
+        if (!changes.isEmpty()) {
+            OrderChangeRow last = changes.get(changes.size() - 1);
+            next = new OrderChangeWatermark(last.getChangeXid(), last.getChangeSeq());
+        }
+
+        log.info("[OrderService] getOrderChanges: returning {} orders, hasMore={}", content.size(), hasMore);
+        return new OrderChangesDto(content, next.encode(), hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderSliceDto getMyOrders(Authentication auth, String cursor, Integer size) {
+        log.debug("[OrderService] getMyOrders: email={}, size={}", auth.getName(), size);
+
+        UserDto user;
+        Long userId = accessChecker.getUserId(auth);
+        if (userId != null) {
+            user = UserDto.builder()
+                    .id(userId)
+                    .email(auth.getName())
+                    .build();
+        } else {
+            log.debug("[OrderService] getMyOrders: token has no userId claim, resolving email={}", auth.getName());
+            user = userServiceClient.getUserByEmail(auth, auth.getName());
+        }
+
+        OrderSliceDto result = getHistory(user, cursor, size);
+
+        log.info("[OrderService] getMyOrders: returning {} orders", result.getContent().size());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderSliceDto getOrdersByUserId(Authentication auth, Long userId, String cursor, Integer size) {
+        log.debug("[OrderService] getOrdersByUserId: userId={}, size={}", userId, size);
+
+        UserDto user = userServiceClient.getUserById(auth, userId);
+        OrderSliceDto result = getHistory(user, cursor, size);
+
+        log.info("[OrderService] getOrdersByUserId: returning {} orders", result.getContent().size());
+        return result;
+    }
+
     @Override
     @Transactional
     public OrderDto updateOrder(Authentication auth, Long id, OrderUpdateDto dto) {
         log.debug("[OrderService] updateOrder: id={}", id);
 
-        Order order = orderRepository.findByIdWithDetails(id)
+        // the header is locked first, so a concurrent expiry batch or payment update is seen before the
+        // transition is applied; the items are then fetched into the same, already locked order
+        Order locked = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> {
                     log.warn("[OrderService] updateOrder: id={} not found", id);
                     return new NotFoundException("order with id " + id + " not found");
                 });
+        Order order = orderRepository.findByIdWithDetails(id).orElse(locked);
 
+        OrderStatus previousStatus = order.getStatus();
         orderMapper.updateEntityFromDto(dto, order);
+        adjustStock(order, previousStatus, true);
         Order updatedOrder = orderRepository.save(order);
+        orderStatsService.recordTransition(order.getCreationDate().toLocalDate(), previousStatus, order.getStatus());
+        userOrderSummaryService.recordTransition(order.getUserId(), order.getTotalAmount(), previousStatus,
+                order.getStatus());
         OrderDto updatedOrderDto = orderMapper.toDto(updatedOrder);
         updatedOrderDto.setUser(userServiceClient.getUserById(auth, updatedOrderDto.getUserId()));
+        orderViewStore.save(updatedOrderDto);
+        publishStatusChange(updatedOrder, previousStatus);
 
         log.info("[OrderService] updateOrder: updated id={}", id);
         return updatedOrderDto;
@@ -190,13 +457,20 @@ public class OrderServiceImpl implements OrderService {
     public void deleteOrder(Long id) {
         log.debug("[OrderService] deleteOrder: id={}", id);
 
-        Order order = orderRepository.findByIdWithDetails(id)
+        // order_items rows go with the order through ON DELETE CASCADE
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> {
                     log.warn("[OrderService] deleteOrder: id={} not found", id);
                     return new NotFoundException("order with id " + id + " not found");
                 });
 
-        orderRepository.delete(order);
+        if (RESERVING_STATUSES.contains(order.getStatus())) {
+            itemStockService.release(quantitiesByItem(order.getItems()));
+        }
+        userOrderSummaryService.recordDeleted(List.of(id));
+        orderRepository.deleteAllByIdIn(List.of(id));
+        orderStatsService.recordDeleted(order.getCreationDate().toLocalDate(), order.getStatus());
+        orderViewStore.delete(List.of(id));
 
         log.info("[OrderService] deleteOrder: deleted id={}", id);
     }
@@ -208,12 +482,14 @@ public class OrderServiceImpl implements OrderService {
 
         try {
             Long id = Long.parseLong(orderId);
-            Order order = orderRepository.findById(id)
+            // locked so a concurrent expiry batch is seen before the transition is counted
+            Order order = orderRepository.findByIdForUpdate(id)
                     .orElseThrow(() -> {
                         log.warn("[OrderService] updateOrderStatusByPayment: orderId={} not found", orderId);
                         return new NotFoundException("order with id " + id + " not found");
                     });
 
+            OrderStatus previousStatus = order.getStatus();
             if ("SUCCESS".equalsIgnoreCase(paymentStatus)) {
                 order.setStatus(OrderStatus.PAID);
                 log.info("[OrderService] Payment SUCCESS - setting order status to PAID");
@@ -222,10 +498,147 @@ public class OrderServiceImpl implements OrderService {
                 log.info("[OrderService] Payment FAILED - setting order status to PAYMENT_FAILED");
             }
 
+            adjustStock(order, previousStatus, false);
             orderRepository.save(order);
+            orderStatsService.recordTransition(order.getCreationDate().toLocalDate(), previousStatus, order.getStatus());
+            userOrderSummaryService.recordTransition(order.getUserId(), order.getTotalAmount(), previousStatus,
+                    order.getStatus());
+            orderViewStore.updateStatus(id, order.getStatus());
+            publishStatusChange(order, previousStatus);
             log.info("[OrderService] updateOrderStatusByPayment: updated orderId={}, new status={}", orderId, order.getStatus());
         } catch (NumberFormatException e) {
             log.error("[OrderService] updateOrderStatusByPayment: invalid orderId format: {}", orderId, e);
         }
     }
+
+    @Override
+    public int rebuildOrderView() {
+        log.debug("[OrderService] rebuildOrderView");
+
+        int rebuilt = orderViewStore.rebuild();
+
+        log.info("[OrderService] rebuildOrderView: rebuilt {} orders", rebuilt);
+        return rebuilt;
+    }
+
+    private void fillUsers(Authentication auth, List<OrderDto> orders) {
+        Map<Long, UserDto> users = new HashMap<>();
+        for (OrderDto dto : orders) {
+            if (dto.getUser() == null) {
+                dto.setUser(users.computeIfAbsent(dto.getUserId(),
+                        userId -> userServiceClient.getUserById(auth, userId)));
+            }
+        }
+    }
+
+    private OrderSliceDto getHistory(UserDto user, String cursor, Integer size) {
+        Limit limit = Limit.of(size + 1);
+        List<OrderHeaderRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findHistory(user.getId(), limit);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            rows = orderRepository.findHistoryAfter(user.getId(), position.getCreationDate(), position.getId(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        List<OrderDto> content = orderRowAssembler.toDtos(rows);
+        content.forEach(dto -> dto.setUser(user));
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderHeaderRow last = rows.get(rows.size() - 1);
+            nextCursor = new OrderCursor(last.getCreationDate(), last.getId()).encode();
+        }
+
+        return OrderSliceDto.builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Reserves the stock of all lines in item id order, so concurrent orders
+     * lock the buckets of shared items in the same order. Lines reserved
+     * before a failing one are given back.
+     */
+    private void reserveStock(List<OrderItem> orderItems) {
+        Map<Long, Long> reserved = new TreeMap<>();
+        for (Map.Entry<Long, Long> line : quantitiesByItem(orderItems).entrySet()) {
+            if (!itemStockService.reserve(line.getKey(), line.getValue())) {
+                itemStockService.release(reserved);
+                log.warn("[OrderService] reserveStock: insufficient stock for itemId={}", line.getKey());
+                throw new ConflictException("Insufficient stock for item with id " + line.getKey());
+            }
+            reserved.put(line.getKey(), line.getValue());
+        }
+    }
+
+    private void adjustStock(Order order, OrderStatus previousStatus, boolean strict) {
+        boolean held = holdsStock(previousStatus);
+        if (held == holdsStock(order.getStatus())) {
+            return;
+        }
+        if (held) {
+            itemStockService.release(quantitiesByItem(order.getItems()));
+            return;
+        }
+
+        try {
+            reserveStock(order.getItems());
+        } catch (ConflictException e) {
+            if (strict) {
+                throw e;
+            }
+            // the payment already happened, so the order proceeds even if the stock was sold meanwhile
+            log.warn("[OrderService] adjustStock: orderId={} moved to {} without stock", order.getId(), order.getStatus());
+        }
+    }
+
+    private static boolean holdsStock(OrderStatus status) {
+        return status != OrderStatus.CANCELLED && status != OrderStatus.PAYMENT_FAILED;
+    }
+
+    private static Map<Long, Long> quantitiesByItem(List<OrderItem> orderItems) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (OrderItem oi : orderItems) {
+            quantities.merge(oi.getItem().getId(), (long) oi.getQuantity(), Long::sum);
+        }
+        return quantities;
+    }
+
+    private void publishStatusChange(Order order, OrderStatus previousStatus) {
+        if (order.getStatus() == previousStatus) {
+            return;
+        }
+
+        OrderStatusChangedEvent event = OrderStatusChangedEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .previousStatus(previousStatus)
+                .status(order.getStatus())
+                .changedAt(LocalDateTime.now())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            orderEventProducer.sendOrderStatusChangedEvent(event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    orderEventProducer.sendOrderStatusChangedEvent(event);
+                } catch (Exception e) {
+                    log.error("[OrderService] failed to publish status change of orderId={}: {}",
+                            event.getOrderId(), e.getMessage(), e);
+                }
+            }
+        });
+    }
 }
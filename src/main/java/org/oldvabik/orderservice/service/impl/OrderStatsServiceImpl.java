@@ -0,0 +1,144 @@
+package org.oldvabik.orderservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.dto.OrderStatusDailyCountsDto;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import org.oldvabik.orderservice.repository.OrderStatusCounterRepository;
+import org.oldvabik.orderservice.repository.OrderStatusDailyCounterRepository;
+import org.oldvabik.orderservice.repository.projection.DailyStatusCountRow;
+import org.oldvabik.orderservice.repository.projection.StatusCountRow;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maintains per-status order counters incrementally, in the caller's transaction.
+ *
+ * <p>Every counter is split into {@code app.order-stats.stripes} rows and each
+ * update goes to a random stripe, so concurrent writers seldom contend on the
+ * same row. Transitions touch rows in enum order to keep lock order stable.
+ */
+@Slf4j
+@Service
+public class OrderStatsServiceImpl implements OrderStatsService {
+    private static final int MAX_DAYS = 366;
+
+    private final OrderStatusCounterRepository counterRepository;
+    private final OrderStatusDailyCounterRepository dailyCounterRepository;
+
+    @Value("${app.order-stats.stripes:8}")
+    private int stripes = 8;
+
+    public OrderStatsServiceImpl(OrderStatusCounterRepository counterRepository,
+                                 OrderStatusDailyCounterRepository dailyCounterRepository) {
+        this.counterRepository = counterRepository;
+        this.dailyCounterRepository = dailyCounterRepository;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(LocalDate day, OrderStatus status) {
+        add(day, status, 1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(LocalDate day, OrderStatus status, long count) {
+        if (count > 0) {
+            add(day, status, count);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(LocalDate day, OrderStatus from, OrderStatus to) {
+        recordTransition(day, from, to, 1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(LocalDate day, OrderStatus from, OrderStatus to, long count) {
+        if (from == to || count <= 0) {
+            return;
+        }
+        if (from.compareTo(to) < 0) {
+            add(day, from, -count);
+            add(day, to, count);
+        } else {
+            add(day, to, count);
+            add(day, from, -count);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(LocalDate day, OrderStatus status) {
+        add(day, status, -1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(LocalDate day, OrderStatus status, long count) {
+        if (count > 0) {
+            add(day, status, -count);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<OrderStatus, Long> getStatusCounts() {
+        log.debug("[OrderStatsService] getStatusCounts");
+
+        Map<OrderStatus, Long> counts = emptyCounts();
+        for (StatusCountRow row : counterRepository.sumByStatus()) {
+            counts.put(row.getStatus(), row.getCount());
+        }
+        return counts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderStatusDailyCountsDto> getDailyStatusCounts(LocalDate from, LocalDate to) {
+        log.debug("[OrderStatsService] getDailyStatusCounts: from={}, to={}", from, to);
+
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new BadRequestException("range must not exceed " + MAX_DAYS + " days");
+        }
+
+        Map<LocalDate, Map<OrderStatus, Long>> byDay = new TreeMap<>();
+        for (DailyStatusCountRow row : dailyCounterRepository.sumByDayAndStatus(from, to)) {
+            byDay.computeIfAbsent(row.getDay(), day -> emptyCounts()).put(row.getStatus(), row.getCount());
+        }
+
+        List<OrderStatusDailyCountsDto> result = new ArrayList<>(byDay.size());
+        byDay.forEach((day, counts) -> result.add(new OrderStatusDailyCountsDto(day, counts)));
+        return result;
+    }
+
+    private void add(LocalDate day, OrderStatus status, long delta) {
+        short stripe = (short) ThreadLocalRandom.current().nextInt(stripes);
+        counterRepository.add(status.name(), stripe, delta);
+        dailyCounterRepository.add(status.name(), day, stripe, delta);
+    }
+
+    private static Map<OrderStatus, Long> emptyCounts() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,161 @@
+package org.oldvabik.orderservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.dto.OrderItemDto;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.entity.OrderView;
+import org.oldvabik.orderservice.repository.OrderBulkRepository;
+import org.oldvabik.orderservice.repository.OrderViewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains the {@code order_view} read model and serves reads from it.
+ *
+ * <p>Writers update the view in their own transaction, so it never shows a
+ * state the order tables do not have. The user snapshot is refreshed on every
+ * order write and is only handed out while younger than
+ * {@code app.order-view.user-snapshot-ttl}; older snapshots are left for the
+ * caller to replace with a fresh remote lookup. {@link #rebuild()} recomputes
+ * all rows from the order tables in id chunks.
+ */
+@Slf4j
+@Component
+public class OrderViewStore {
+    private final OrderViewRepository orderViewRepository;
+    private final OrderBulkRepository orderBulkRepository;
+
+    @Value("${app.order-view.read-enabled:false}")
+    private boolean readEnabled = false;
+
+    @Value("${app.order-view.user-snapshot-ttl:PT1H}")
+    private Duration userSnapshotTtl = Duration.ofHours(1);
+
+    @Value("${app.order-view.rebuild-chunk-size:10000}")
+    private int rebuildChunkSize = 10_000;
+
+    public OrderViewStore(OrderViewRepository orderViewRepository,
+                          OrderBulkRepository orderBulkRepository) {
+        this.orderViewRepository = orderViewRepository;
+        this.orderBulkRepository = orderBulkRepository;
+    }
+
+    public boolean isReadEnabled() {
+        return readEnabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void save(OrderDto order) {
+        orderViewRepository.save(toView(order, LocalDateTime.now()));
+    }
+
+    /**
+     * Batch-inserts rows for orders created in the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void insertAll(List<OrderDto> orders) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderView> views = new ArrayList<>(orders.size());
+        for (OrderDto order : orders) {
+            views.add(toView(order, now));
+        }
+        orderBulkRepository.insertViews(views);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateStatus(Long orderId, OrderStatus status) {
+        orderViewRepository.updateStatus(orderId, status, LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateStatus(Collection<Long> orderIds, OrderStatus status) {
+        if (!orderIds.isEmpty()) {
+            orderViewRepository.updateStatusByOrderIdIn(orderIds, status, LocalDateTime.now());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            orderViewRepository.deleteByOrderIdIn(orderIds);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updateItem(Long itemId, String name, BigDecimal price) {
+        int updated = orderViewRepository.updateItem(itemId, name, price);
+        log.debug("[OrderViewStore] updateItem: itemId={}, rows={}", itemId, updated);
+    }
+
+    public Optional<OrderDto> findById(Long orderId) {
+        if (!readEnabled) {
+            return Optional.empty();
+        }
+        return orderViewRepository.findById(orderId).map(this::toDto);
+    }
+
+    public Map<Long, OrderDto> findByIds(Collection<Long> orderIds) {
+        if (!readEnabled || orderIds.isEmpty()) {
+            return Map.of();
+        }
+        List<OrderView> views = orderViewRepository.findByOrderIdIn(orderIds);
+        Map<Long, OrderDto> result = new HashMap<>(views.size() * 2);
+        for (OrderView view : views) {
+            result.put(view.getOrderId(), toDto(view));
+        }
+        return result;
+    }
+
+    public int rebuild() {
+        Long minId = orderViewRepository.findMinOrderId();
+        Long maxId = orderViewRepository.findMaxOrderId();
+        int rebuilt = 0;
+        if (minId != null) {
+            for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+                rebuilt += orderViewRepository.rebuildRange(from, from + rebuildChunkSize - 1);
+            }
+        }
+        int removed = orderViewRepository.deleteOrphans();
+        log.info("[OrderViewStore] rebuild: rebuilt {} rows, removed {} orphans", rebuilt, removed);
+        return rebuilt;
+    }
+
+    private static OrderView toView(OrderDto order, LocalDateTime now) {
+        return OrderView.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .creationDate(order.getCreationDate())
+                .items(order.getItems() != null ? new ArrayList<>(order.getItems()) : new ArrayList<>())
+                .userSnapshot(order.getUser())
+                .userSnapshotAt(order.getUser() != null ? now : null)
+                .updatedAt(now)
+                .build();
+    }
+
+    private OrderDto toDto(OrderView view) {
+        boolean snapshotFresh = view.getUserSnapshotAt() != null
+                && view.getUserSnapshotAt().isAfter(LocalDateTime.now().minus(userSnapshotTtl));
+        List<OrderItemDto> items = view.getItems() != null ? view.getItems() : new ArrayList<>();
+        return OrderDto.builder()
+                .id(view.getOrderId())
+                .userId(view.getUserId())
+                .status(view.getStatus())
+                .creationDate(view.getCreationDate())
+                .items(new ArrayList<>(items))
+                .user(snapshotFresh ? view.getUserSnapshot() : null)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package org.oldvabik.orderservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.entity.Payment;
+import org.oldvabik.orderservice.entity.PaymentMatch;
+import org.oldvabik.orderservice.event.CreatePaymentEvent;
+import org.oldvabik.orderservice.money.Money;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.PaymentRepository;
+import org.oldvabik.orderservice.service.OrderService;
+import org.oldvabik.orderservice.service.PaymentReconciliationService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Records each incoming payment and checks it against the total persisted with
+ * the order. Successful payments of an order are summed, so an order paid in
+ * several parts matches once the parts add up to its total; the order row is
+ * locked while doing so, so concurrent parts see each other.
+ *
+ * <p>An amount with more than two fraction digits cannot be a real payment of
+ * an order; it is recorded as {@link PaymentMatch#INVALID_AMOUNT} and left out
+ * of the sums. {@link #applyPayment} records a payment and updates the order
+ * status in one transaction, so a failed update does not leave the payment
+ * recorded without its effect; a redelivered payment is not applied again.
+ */
+@Slf4j
+@Service
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+    private static final String SUCCESS = "SUCCESS";
+
+    private final PaymentRepository paymentRepository;
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+
+    public PaymentReconciliationServiceImpl(PaymentRepository paymentRepository,
+                                            OrderRepository orderRepository,
+                                            OrderService orderService) {
+        this.paymentRepository = paymentRepository;
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+    }
+
+    @Override
+    @Transactional
+    public PaymentMatch applyPayment(CreatePaymentEvent event) {
+        Recorded recorded = record(event);
+        PaymentMatch verdict = recorded.verdict();
+        if (verdict == PaymentMatch.ORDER_NOT_FOUND) {
+            log.warn("[PaymentReconciliationService] applyPayment: orderId={} not found, status left unchanged",
+                    event.getOrderId());
+            return verdict;
+        }
+        if (!recorded.inserted()) {
+            // a redelivered payment was applied with its first delivery
+            log.debug("[PaymentReconciliationService] applyPayment: paymentId={} already applied", event.getPaymentId());
+            return verdict;
+        }
+        if (SUCCESS.equalsIgnoreCase(event.getStatus())
+                && (verdict == PaymentMatch.UNDERPAID || verdict == PaymentMatch.INVALID_AMOUNT)) {
+            // an underpaid order stays unpaid until the rest arrives
+            log.warn("[PaymentReconciliationService] applyPayment: paymentId={} is {}, orderId={} status left unchanged",
+                    event.getPaymentId(), verdict, event.getOrderId());
+            return verdict;
+        }
+        orderService.updateOrderStatusByPayment(event.getOrderId(), event.getStatus());
+        return verdict;
+    }
+
+    @Override
+    @Transactional
+    public PaymentMatch recordPayment(CreatePaymentEvent event) {
+        return record(event).verdict();
+    }
+
+    private Recorded record(CreatePaymentEvent event) {
+        log.debug("[PaymentReconciliationService] recordPayment: paymentId={}, orderId={}",
+                event.getPaymentId(), event.getOrderId());
+
+        Long orderId;
+        try {
+            orderId = Long.parseLong(event.getOrderId());
+        } catch (NumberFormatException e) {
+            log.warn("[PaymentReconciliationService] recordPayment: invalid orderId format: {}", event.getOrderId());
+            return new Recorded(PaymentMatch.ORDER_NOT_FOUND, false);
+        }
+
+        Optional<Payment> recorded = paymentRepository.findById(event.getPaymentId());
+        if (recorded.isPresent()) {
+            log.debug("[PaymentReconciliationService] recordPayment: paymentId={} already recorded", event.getPaymentId());
+            return new Recorded(recorded.get().getVerdict(), false);
+        }
+
+        String status = event.getStatus() != null ? event.getStatus().toUpperCase(Locale.ROOT) : "UNKNOWN";
+        BigDecimal rawAmount = event.getPaymentAmount() != null ? event.getPaymentAmount() : BigDecimal.ZERO;
+        Money amount;
+        try {
+            amount = Money.ofMajor(rawAmount);
+        } catch (ArithmeticException e) {
+            amount = null;
+        }
+        BigDecimal expected = orderRepository.lockTotalAmountById(orderId).orElse(null);
+
+        PaymentMatch verdict;
+        if (expected == null) {
+            verdict = PaymentMatch.ORDER_NOT_FOUND;
+        } else if (amount == null) {
+            verdict = PaymentMatch.INVALID_AMOUNT;
+        } else {
+            Money paid = Money.ofMajor(paymentRepository.sumSucceededAmount(orderId));
+            if (SUCCESS.equals(status)) {
+                paid = paid.plus(amount);
+            }
+            int diff = paid.compareTo(Money.ofMajor(expected));
+            verdict = diff < 0 ? PaymentMatch.UNDERPAID : diff > 0 ? PaymentMatch.OVERPAID : PaymentMatch.MATCHED;
+        }
+
+        // the column keeps two fraction digits; the verdict marks an amount that had more
+        BigDecimal storedAmount = amount != null
+                ? amount.toBigDecimal()
+                : rawAmount.setScale(Money.SCALE, RoundingMode.HALF_UP);
+        if (paymentRepository.insert(event.getPaymentId(), orderId, status, storedAmount, expected,
+                verdict.name(), LocalDateTime.now()) == 0) {
+            // a concurrent delivery of the same payment was recorded first
+            return new Recorded(paymentRepository.findById(event.getPaymentId()).map(Payment::getVerdict).orElse(verdict),
+                    false);
+        }
+
+        if (verdict != PaymentMatch.MATCHED) {
+            log.warn("[PaymentReconciliationService] recordPayment: paymentId={} for orderId={} is {}: paid {}, expected {}",
+                    event.getPaymentId(), orderId, verdict, rawAmount.toPlainString(), expected);
+        }
+        return new Recorded(verdict, true);
+    }
+
+    private record Recorded(PaymentMatch verdict, boolean inserted) {
+    }
+}
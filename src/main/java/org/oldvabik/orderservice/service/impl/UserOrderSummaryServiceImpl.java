@@ -0,0 +1,156 @@
+package org.oldvabik.orderservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.client.UserServiceClient;
+import org.oldvabik.orderservice.dto.UserOrderSummaryDto;
+import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.repository.UserOrderSummaryRepository;
+import org.oldvabik.orderservice.repository.projection.UserOrderSummaryRow;
+import org.oldvabik.orderservice.security.AccessChecker;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@code user_order_summary} incrementally, in the caller's
+ * transaction, so a user's order count, lifetime spend and last order date
+ * are one primary-key read.
+ *
+ * <p>Every order counts from creation until it is deleted; its total counts
+ * towards spend while the order is in a settled status. Archiving an order
+ * leaves the summary alone and adds the order to the user's archived
+ * aggregate, which {@link #rebuild()} adds back when it recomputes rows from
+ * the primary order tables in user id chunks.
+ */
+@Slf4j
+@Service
+public class UserOrderSummaryServiceImpl implements UserOrderSummaryService {
+    private static final Set<OrderStatus> SETTLED = EnumSet.of(
+            OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED, OrderStatus.COMPLETED);
+
+    private final UserOrderSummaryRepository summaryRepository;
+    private final AccessChecker accessChecker;
+    private final UserServiceClient userServiceClient;
+
+    @Value("${app.user-order-summary.rebuild-chunk-size:10000}")
+    private int rebuildChunkSize = 10_000;
+
+    public UserOrderSummaryServiceImpl(UserOrderSummaryRepository summaryRepository,
+                                       AccessChecker accessChecker,
+                                       UserServiceClient userServiceClient) {
+        this.summaryRepository = summaryRepository;
+        this.accessChecker = accessChecker;
+        this.userServiceClient = userServiceClient;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(List<Order> orders) {
+        // sorted by user id so concurrent writers lock summary rows in the same order
+        Map<Long, UserOrderSummaryRow> deltas = new TreeMap<>();
+        for (Order order : orders) {
+            BigDecimal spend = SETTLED.contains(order.getStatus()) ? order.getTotalAmount() : BigDecimal.ZERO;
+            deltas.merge(order.getUserId(),
+                    new UserOrderSummaryRow(order.getUserId(), 1L, spend, order.getCreationDate()),
+                    UserOrderSummaryServiceImpl::merge);
+        }
+        if (!deltas.isEmpty()) {
+            summaryRepository.addOrders(new ArrayList<>(deltas.values()), LocalDateTime.now());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Long userId, BigDecimal totalAmount, OrderStatus from, OrderStatus to) {
+        boolean wasSettled = SETTLED.contains(from);
+        if (wasSettled == SETTLED.contains(to)) {
+            return;
+        }
+        summaryRepository.addSpend(userId, wasSettled ? totalAmount.negate() : totalAmount, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            summaryRepository.removeOrders(orderIds, LocalDateTime.now());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordArchived(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            summaryRepository.addArchived(orderIds);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserOrderSummaryDto getSummary(Long userId) {
+        log.debug("[UserOrderSummaryService] getSummary: userId={}", userId);
+
+        // a user without orders has no row and gets an empty summary
+        return summaryRepository.findByUserId(userId)
+                .map(row -> UserOrderSummaryDto.builder()
+                        .userId(row.getUserId())
+                        .orderCount(row.getOrderCount())
+                        .lifetimeSpend(row.getLifetimeSpend())
+                        .lastOrderDate(row.getLastOrderDate())
+                        .build())
+                .orElseGet(() -> UserOrderSummaryDto.builder()
+                        .userId(userId)
+                        .orderCount(0L)
+                        .lifetimeSpend(BigDecimal.ZERO)
+                        .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserOrderSummaryDto getMySummary(Authentication auth) {
+        log.debug("[UserOrderSummaryService] getMySummary: email={}", auth.getName());
+
+        Long userId = accessChecker.getUserId(auth);
+        if (userId == null) {
+            log.debug("[UserOrderSummaryService] getMySummary: token has no userId claim, resolving email={}",
+                    auth.getName());
+            userId = userServiceClient.getUserByEmail(auth, auth.getName()).getId();
+        }
+        return getSummary(userId);
+    }
+
+    @Override
+    public int rebuild() {
+        Long minId = summaryRepository.findMinUserId();
+        Long maxId = summaryRepository.findMaxUserId();
+        int rebuilt = 0;
+        if (minId != null) {
+            for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+                rebuilt += summaryRepository.rebuildRange(from, from + rebuildChunkSize - 1);
+            }
+        }
+        int removed = summaryRepository.deleteOrphans();
+        log.info("[UserOrderSummaryService] rebuild: rebuilt {} rows, removed {} orphans", rebuilt, removed);
+        return rebuilt;
+    }
+
+    private static UserOrderSummaryRow merge(UserOrderSummaryRow a, UserOrderSummaryRow b) {
+        return new UserOrderSummaryRow(a.getUserId(),
+                a.getOrderCount() + b.getOrderCount(),
+                a.getLifetimeSpend().add(b.getLifetimeSpend()),
+                a.getLastOrderDate().isAfter(b.getLastOrderDate()) ? a.getLastOrderDate() : b.getLastOrderDate());
+    }
+}
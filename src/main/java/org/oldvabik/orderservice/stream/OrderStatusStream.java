@@ -0,0 +1,311 @@
+package org.oldvabik.orderservice.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.oldvabik.orderservice.client.UserServiceClient;
+import org.oldvabik.orderservice.config.OrderStreamProperties;
+import org.oldvabik.orderservice.dto.UserDto;
+import org.oldvabik.orderservice.event.OrderStatusChangedEvent;
+import org.oldvabik.orderservice.exception.ServiceUnavailableException;
+import org.oldvabik.orderservice.security.AccessChecker;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes order status changes to server-sent event subscribers.
+ *
+ * <p>Admins receive every change, other users only changes of their own
+ * orders. Each event is serialized once and the same payload is written to
+ * every matching emitter; subscribers are indexed by user id, so a change
+ * touches only the connections that want it. Idle connections hold no thread,
+ * only their emitter, and are kept alive with periodic comments.
+ *
+ * <p>Publishing never writes to a connection itself: events are queued per
+ * subscriber and written by a small pool of sender threads
+ * ({@code app.order-stream.sender-threads}), one subscriber at a time, so the
+ * Kafka listener is not held up by slow clients. A subscriber whose queue
+ * reaches {@code app.order-stream.subscriber-queue-size} has fallen behind; its
+ * connection is closed and it can resume with {@code Last-Event-ID}.
+ *
+ * <p>The last {@code app.order-stream.buffer-size} events are kept in a ring
+ * buffer. A client reconnecting with {@code Last-Event-ID} gets the events it
+ * missed; if that id is no longer buffered it receives a {@code reset} event
+ * and should reload the orders it shows. Event ids are Kafka record positions,
+ * so resuming on another instance works, but events of different partitions
+ * may be replayed in a different order there.
+ */
+@Slf4j
+@Component
+public class OrderStatusStream {
+    static final String EVENT_NAME = "order-status";
+    static final String RESET_EVENT_NAME = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final AccessChecker accessChecker;
+    private final UserServiceClient userServiceClient;
+    private final OrderStreamProperties properties;
+    private final Entry[] buffer;
+    private long appended;
+    private final Set<Subscriber> admins = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Executor senders;
+
+    public OrderStatusStream(ObjectMapper objectMapper,
+                             AccessChecker accessChecker,
+                             UserServiceClient userServiceClient,
+                             OrderStreamProperties properties) {
+        this.objectMapper = objectMapper;
+        this.accessChecker = accessChecker;
+        this.userServiceClient = userServiceClient;
+        this.properties = properties;
+        this.buffer = new Entry[properties.getBufferSize()];
+        this.senders = createSenders(properties.getSenderThreads());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    public SseEmitter subscribe(Authentication auth, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many order stream subscribers, retry later");
+        }
+
+        Subscriber subscriber;
+        try {
+            Long userId = accessChecker.isAdmin(auth) ? null : resolveUserId(auth);
+            subscriber = new Subscriber(createEmitter(properties.getTimeout().toMillis()), userId,
+                    properties.getSubscriberQueueSize());
+        } catch (RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // the emitter is not handed to MVC yet, so these sends are only buffered
+        synchronized (this) {
+            subscriber.since = appended;
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId);
+            }
+            if (subscriber.userId == null) {
+                admins.add(subscriber);
+            } else {
+                byUser.computeIfAbsent(subscriber.userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+        }
+
+        log.debug("[OrderStatusStream] subscribe: user={}, lastEventId={}, subscribers={}",
+                auth.getName(), lastEventId, subscriberCount.get());
+        return emitter;
+    }
+
+    public void publish(String id, OrderStatusChangedEvent event) {
+        Entry entry;
+        synchronized (this) {
+            entry = new Entry(appended, id, event.getUserId(), toJson(event));
+            buffer[(int) (appended % buffer.length)] = entry;
+            appended++;
+        }
+
+        for (Subscriber subscriber : admins) {
+            send(subscriber, entry);
+        }
+        Set<Subscriber> owners = byUser.get(entry.userId());
+        if (owners != null) {
+            for (Subscriber subscriber : owners) {
+                send(subscriber, entry);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        List<Subscriber> subscribers = new ArrayList<>(admins);
+        byUser.values().forEach(subscribers::addAll);
+        for (Subscriber subscriber : subscribers) {
+            // a subscriber with queued events is written to anyway
+            if (subscriber.pending.isEmpty()) {
+                enqueue(subscriber, SseEmitter.event().comment("keep-alive"));
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    protected Executor createSenders(int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long oldest = Math.max(0, appended - buffer.length);
+        long from = -1;
+        for (long seq = appended - 1; seq >= oldest; seq--) {
+            if (buffer[(int) (seq % buffer.length)].id().equals(lastEventId)) {
+                from = seq + 1;
+                break;
+            }
+        }
+
+        try {
+            if (from < 0) {
+                subscriber.emitter.send(SseEmitter.event().name(RESET_EVENT_NAME).data(""));
+                return;
+            }
+            for (long seq = from; seq < appended; seq++) {
+                Entry entry = buffer[(int) (seq % buffer.length)];
+                if (subscriber.userId == null || subscriber.userId.equals(entry.userId())) {
+                    subscriber.emitter.send(toSseEvent(entry));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void send(Subscriber subscriber, Entry entry) {
+        if (entry.seq() < subscriber.since) {
+            return;
+        }
+        enqueue(subscriber, toSseEvent(entry));
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.overflowed) {
+            return;
+        }
+        if (!subscriber.pending.offer(event)) {
+            log.warn("[OrderStatusStream] enqueue: dropping subscriber that fell behind, userId={}",
+                    subscriber.userId);
+            subscriber.overflowed = true;
+            remove(subscriber);
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    // runs on a sender thread; at most one drain per subscriber is scheduled at a time
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.overflowed && (event = subscriber.pending.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("[OrderStatusStream] drain: dropping subscriber: {}", e.getMessage());
+                    subscriber.pending.clear();
+                    remove(subscriber);
+                    return;
+                }
+            }
+            if (subscriber.overflowed) {
+                subscriber.pending.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.scheduled.set(false);
+        } while (!subscriber.pending.isEmpty() && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        boolean removed;
+        if (subscriber.userId == null) {
+            removed = admins.remove(subscriber);
+        } else {
+            synchronized (this) {
+                Set<Subscriber> owners = byUser.get(subscriber.userId);
+                removed = owners != null && owners.remove(subscriber);
+                if (owners != null && owners.isEmpty()) {
+                    byUser.remove(subscriber.userId);
+                }
+            }
+        }
+        if (removed) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private Long resolveUserId(Authentication auth) {
+        Long userId = accessChecker.getUserId(auth);
+        if (userId != null) {
+            return userId;
+        }
+        UserDto user = userServiceClient.getUserByEmail(auth, auth.getName());
+        // the client's fallback answers with id -1 when the user service is unavailable
+        if (user == null || user.getId() == null || user.getId() <= 0) {
+            throw new ServiceUnavailableException("Unable to resolve the current user, retry later");
+        }
+        return user.getId();
+    }
+
+    private String toJson(OrderStatusChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(Entry entry) {
+        return SseEmitter.event()
+                .id(entry.id())
+                .name(EVENT_NAME)
+                .data(entry.json(), MediaType.APPLICATION_JSON);
+    }
+
+    private record Entry(long seq, String id, Long userId, String json) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private long since;
+
+        private Subscriber(SseEmitter emitter, Long userId, int queueSize) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.pending = new LinkedBlockingQueue<>(queueSize);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.oldvabik.orderservice.benchmark;
+
+import org.junit.jupiter.api.*;
+import org.oldvabik.orderservice.dto.ItemCreateDto;
+import org.oldvabik.orderservice.dto.ItemImportFormat;
+import org.oldvabik.orderservice.dto.ItemImportResultDto;
+import org.oldvabik.orderservice.kafka.ItemEventProducer;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.service.ItemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loads a catalog one item at a time through {@code createItem} and in one
+ * {@code COPY} import, then refreshes every price of the imported catalog.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=localhost:9092")
+@ActiveProfiles("test")
+class ItemImportBenchmarkTest {
+
+    private static final int SINGLE_ITEMS = 2_000;
+    private static final int IMPORTED_ITEMS = 200_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("marketplace")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @MockBean
+    private ItemEventProducer itemEventProducer;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void compareSingleCreatesAndCopyImport() {
+        long began = System.nanoTime();
+        for (int i = 0; i < SINGLE_ITEMS; i++) {
+            itemService.createItem(new ItemCreateDto("Single " + i, BigDecimal.TEN));
+        }
+        double singlePerSecond = SINGLE_ITEMS / ((System.nanoTime() - began) / 1_000_000_000.0);
+
+        began = System.nanoTime();
+        ItemImportResultDto inserted = itemService.importItems(csv("9.99"), ItemImportFormat.CSV);
+        double insertSeconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        began = System.nanoTime();
+        ItemImportResultDto updated = itemService.importItems(csv("10.49"), ItemImportFormat.CSV);
+        double updateSeconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        assertEquals(IMPORTED_ITEMS, inserted.getInserted());
+        assertEquals(IMPORTED_ITEMS, updated.getUpdated());
+        System.out.printf("[benchmark] createItem:      %8.0f items/s%n", singlePerSecond);
+        System.out.printf("[benchmark] import (insert): %8.0f items/s, %.2f s%n",
+                IMPORTED_ITEMS / insertSeconds, insertSeconds);
+        System.out.printf("[benchmark] import (reprice): %7.0f items/s, %.2f s%n",
+                IMPORTED_ITEMS / updateSeconds, updateSeconds);
+    }
+
+    private static ByteArrayInputStream csv(String price) {
+        StringBuilder csv = new StringBuilder(IMPORTED_ITEMS * 24).append("name,price\n");
+        for (int i = 0; i < IMPORTED_ITEMS; i++) {
+            csv.append("Item ").append(i).append(',').append(price).append('\n');
+        }
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+}
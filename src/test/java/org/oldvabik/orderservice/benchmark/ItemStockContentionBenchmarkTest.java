@@ -0,0 +1,131 @@
+package org.oldvabik.orderservice.benchmark;
+
+import org.junit.jupiter.api.*;
+import org.oldvabik.orderservice.entity.Item;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.service.ItemStockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many concurrent buyers of one item, reserving from a single stock row and
+ * from striped buckets. The item starts with fewer units than requests, so the
+ * run also checks that the buckets never oversell. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=localhost:9092",
+        "spring.datasource.hikari.maximum-pool-size=400"
+})
+@ActiveProfiles("test")
+class ItemStockContentionBenchmarkTest {
+
+    private static final int THREADS = 400;
+    private static final int RESERVATIONS_PER_THREAD = 50;
+    private static final long STOCK = THREADS * RESERVATIONS_PER_THREAD * 3 / 4;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("marketplace")
+            .withUsername("postgres")
+            .withPassword("postgres")
+            .withCommand("postgres", "-c", "max_connections=500");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ItemStockService itemStockService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        tx = new TransactionTemplate(transactionManager);
+        itemId = itemRepository.save(Item.builder().name("Hot item").price(BigDecimal.TEN).build()).getId();
+    }
+
+    @Test
+    void compareSingleRowAndStripedBuckets() throws Exception {
+        Result single = run(1);
+        Result striped = run(16);
+
+        System.out.printf("[benchmark] 1 bucket:   %8.0f reservations/s%n", single.perSecond());
+        System.out.printf("[benchmark] 16 buckets: %8.0f reservations/s%n", striped.perSecond());
+    }
+
+    private Result run(int buckets) throws Exception {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(itemStockService), "buckets", buckets);
+        itemStockService.setStock(itemId, STOCK);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                    if (Boolean.TRUE.equals(tx.execute(status -> itemStockService.reserve(itemId, 1)))) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - began;
+        executor.shutdown();
+
+        assertEquals(STOCK, reserved.get());
+        assertEquals(0L, itemStockService.getStock(itemId).getAvailable());
+        return new Result(THREADS * RESERVATIONS_PER_THREAD / (elapsed / 1_000_000_000.0));
+    }
+
+    private record Result(double perSecond) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+}
@@ -0,0 +1,185 @@
+package org.oldvabik.orderservice.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.*;
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.entity.Item;
+import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.entity.OrderItem;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.mapper.OrderMapper;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.service.impl.OrderRowAssembler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the former managed-entity list path (a fetch-join query + {@code OrderMapper})
+ * with the flat projection path ({@code findAllHeaders} + {@link OrderRowAssembler}).
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=localhost:9092"
+})
+@ActiveProfiles("test")
+class OrderReadPathBenchmarkTest {
+
+    private static final int ORDERS = 2_000;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 100;
+    // the paged fetch-join query the list endpoint used before the projection path
+    private static final String ENTITY_PATH_QUERY = """
+        SELECT DISTINCT o
+        FROM Order o
+        LEFT JOIN FETCH o.items oi
+        LEFT JOIN FETCH oi.item
+        """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("marketplace")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderRowAssembler orderRowAssembler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        itemRepository.deleteAll();
+
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER * 4; i++) {
+            items.add(Item.builder().name("Item " + i).price(BigDecimal.valueOf(10 + i)).build());
+        }
+        items = itemRepository.saveAll(items);
+
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .userId((long) (i % 50))
+                    .status(OrderStatus.PENDING)
+                    .creationDate(LocalDateTime.now())
+                    .items(new ArrayList<>())
+                    .build();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                OrderItem oi = new OrderItem();
+                oi.setOrder(order);
+                oi.setItem(items.get((i + j) % items.size()));
+                oi.setQuantity(j + 1);
+                order.getItems().add(oi);
+            }
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @Test
+    void compareEntityAndProjectionListPaths() {
+        Supplier<List<OrderDto>> entityPath = () -> readOnlyTx.execute(status -> {
+            // the page total was counted separately, as Spring Data did for the old repository method
+            entityManager.createQuery("SELECT count(o) FROM Order o", Long.class).getSingleResult();
+            return entityManager.createQuery(ENTITY_PATH_QUERY, Order.class)
+                    .setFirstResult(3 * PAGE_SIZE)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList().stream()
+                    .map(orderMapper::toDto)
+                    .toList();
+        });
+        Supplier<List<OrderDto>> projectionPath = () -> readOnlyTx.execute(status ->
+                orderRowAssembler.toDtoPage(orderRepository.findAllHeaders(
+                        LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.now().plusDays(1), PageRequest.of(3, PAGE_SIZE)))
+                        .getContent());
+
+        assertEquals(PAGE_SIZE, projectionPath.get().size());
+        assertEquals(ITEMS_PER_ORDER, projectionPath.get().get(0).getItems().size());
+
+        Result entity = measure(entityPath);
+        Result projection = measure(projectionPath);
+
+        System.out.printf("[benchmark] entity path:     %8.3f ms/page, %10d bytes/page%n",
+                entity.millisPerRound(), entity.bytesPerRound());
+        System.out.printf("[benchmark] projection path: %8.3f ms/page, %10d bytes/page%n",
+                projection.millisPerRound(), projection.bytesPerRound());
+
+        assertTrue(projection.bytesPerRound() < entity.bytesPerRound());
+    }
+
+    private Result measure(Supplier<List<OrderDto>> path) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            path.get();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            path.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return new Result(elapsed / 1_000_000.0 / MEASURED_ROUNDS, bytes / MEASURED_ROUNDS);
+    }
+
+    private record Result(double millisPerRound, long bytesPerRound) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+}
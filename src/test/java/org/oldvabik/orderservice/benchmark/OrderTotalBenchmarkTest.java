@@ -0,0 +1,108 @@
+package org.oldvabik.orderservice.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.oldvabik.orderservice.entity.Item;
+import org.oldvabik.orderservice.entity.OrderItem;
+import org.oldvabik.orderservice.money.Money;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares summing order totals as a stream of {@link BigDecimal} products
+ * with summing them as {@link Money} minor units, over the same order lines.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class OrderTotalBenchmarkTest {
+
+    private static final int ORDERS = 10_000;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    @Test
+    void compareBigDecimalAndMoneyTotals() {
+        List<List<OrderItem>> orders = orders();
+
+        ToLongFunction<List<OrderItem>> bigDecimalPath = items -> items.stream()
+                .map(oi -> oi.getItem().getPrice().multiply(BigDecimal.valueOf(oi.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .unscaledValue()
+                .longValue();
+        ToLongFunction<List<OrderItem>> moneyPath = items -> {
+            Money total = Money.ZERO;
+            for (OrderItem oi : items) {
+                total = total.plus(Money.ofMajor(oi.getItem().getPrice()).times(oi.getQuantity()));
+            }
+            return total.minorUnits();
+        };
+
+        for (List<OrderItem> order : orders) {
+            assertEquals(bigDecimalPath.applyAsLong(order), moneyPath.applyAsLong(order));
+        }
+
+        Result bigDecimal = measure(orders, bigDecimalPath);
+        Result money = measure(orders, moneyPath);
+
+        System.out.printf("[benchmark] BigDecimal totals: %8.3f ms/round, %10d bytes/round%n",
+                bigDecimal.millisPerRound(), bigDecimal.bytesPerRound());
+        System.out.printf("[benchmark] Money totals:      %8.3f ms/round, %10d bytes/round%n",
+                money.millisPerRound(), money.bytesPerRound());
+
+        assertTrue(money.bytesPerRound() < bigDecimal.bytesPerRound());
+    }
+
+    private static List<List<OrderItem>> orders() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(Item.builder().id((long) i).price(BigDecimal.valueOf(999 + i * 137L, 2)).build());
+        }
+        List<List<OrderItem>> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItem> lines = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                lines.add(OrderItem.builder().item(items.get((i + j) % items.size())).quantity(1 + (i + j) % 20).build());
+            }
+            orders.add(lines);
+        }
+        return orders;
+    }
+
+    private static Result measure(List<List<OrderItem>> orders, ToLongFunction<List<OrderItem>> path) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += sum(orders, path);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += sum(orders, path);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        assertNotEquals(0, sink);
+        return new Result(elapsed / 1_000_000.0 / MEASURED_ROUNDS, bytes / MEASURED_ROUNDS);
+    }
+
+    private static long sum(List<List<OrderItem>> orders, ToLongFunction<List<OrderItem>> path) {
+        long total = 0;
+        for (List<OrderItem> order : orders) {
+            total += path.applyAsLong(order);
+        }
+        return total;
+    }
+
+    private record Result(double millisPerRound, long bytesPerRound) {
+    }
+}
@@ -1,24 +1,38 @@
 package org.oldvabik.orderservice.integration.service.impl;
 
 import org.junit.jupiter.api.*;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
 import org.oldvabik.orderservice.dto.ItemCreateDto;
 import org.oldvabik.orderservice.dto.ItemDto;
+import org.oldvabik.orderservice.dto.ItemImportFormat;
+import org.oldvabik.orderservice.dto.ItemImportRejectReason;
+import org.oldvabik.orderservice.dto.ItemImportResultDto;
 import org.oldvabik.orderservice.dto.ItemUpdateDto;
 import org.oldvabik.orderservice.entity.Item;
 import org.oldvabik.orderservice.exception.AlreadyExistsException;
+import org.oldvabik.orderservice.exception.BadRequestException;
 import org.oldvabik.orderservice.exception.NotFoundException;
+import org.oldvabik.orderservice.kafka.ItemEventProducer;
 import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.repository.OrderRepository;
 import org.oldvabik.orderservice.service.ItemService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import static org.junit.jupiter.api.Assertions.*;
 
 @Testcontainers
@@ -45,10 +59,21 @@ class ItemServiceImplTest {
     private ItemService itemService;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ItemEventProducer itemEventProducer;
 
     @BeforeEach
     void setUp() {
+        orderRepository.deleteAll();
         itemRepository.deleteAll();
+        itemCatalogCache.invalidateAll();
     }
 
     @Test
@@ -245,16 +270,96 @@ class ItemServiceImplTest {
         assertFalse(itemRepository.existsById(saved.getId()));
     }
 
+    @Test
+    void deleteItem_referencedByOrder_rejectedByForeignKey() {
+        Item item = saveItem("Referenced", BigDecimal.TEN);
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now());
+        Long orderId = jdbcTemplate.queryForObject("""
+                INSERT INTO orders (user_id, status, creation_date, total_amount)
+                VALUES (100, 'PENDING', ?, 10)
+                RETURNING id
+                """, Long.class, created);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (order_id, order_creation_date, item_id, quantity)
+                VALUES (?, ?, ?, 1)
+                """, orderId, created, item.getId());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("DELETE FROM items WHERE id = ?", item.getId()));
+        assertTrue(itemRepository.existsById(item.getId()));
+    }
+
     @Test
     void deleteItem_notFound_throwsException() {
         assertThrows(NotFoundException.class, () -> itemService.deleteItem(999L));
     }
 
-    private void saveItem(String name, BigDecimal price) {
+    @Test
+    void importItems_csv_insertsUpdatesAndReportsConflicts() {
+        saveItem("Phone", BigDecimal.valueOf(899.99));
+        saveItem("Mouse", BigDecimal.valueOf(19.99));
+        String csv = """
+                name,price
+                Phone,799.99
+                Mouse,19.99
+                Keyboard,49.50
+                Cable,1.001
+                Hub,10
+                Hub,12
+                """;
+
+        ItemImportResultDto result = itemService.importItems(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ItemImportFormat.CSV);
+
+        assertEquals(6L, result.getReceived());
+        assertEquals(1L, result.getInserted());
+        assertEquals(1L, result.getUpdated());
+        assertEquals(1L, result.getUnchanged());
+        assertEquals(3L, result.getRejected());
+        assertEquals(4L, result.getConflicts().get(0).getRow());
+        assertEquals(ItemImportRejectReason.INVALID_PRICE, result.getConflicts().get(0).getReason());
+        assertEquals(ItemImportRejectReason.DUPLICATE_NAME, result.getConflicts().get(1).getReason());
+        assertEquals(0, new BigDecimal("799.99").compareTo(itemRepository.findByName("Phone").orElseThrow().getPrice()));
+        assertTrue(itemRepository.findByName("Keyboard").isPresent());
+        assertTrue(itemRepository.findByName("Hub").isEmpty());
+    }
+
+    @Test
+    void importItems_ndjson_reportsMalformedLines() {
+        String ndjson = """
+                {"name": "Laptop", "price": 1299.99}
+                not json
+
+                {"name": "Tablet", "price": "499.00"}
+                """;
+
+        ItemImportResultDto result = itemService.importItems(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ItemImportFormat.NDJSON);
+
+        assertEquals(3L, result.getReceived());
+        assertEquals(2L, result.getInserted());
+        assertEquals(ItemImportRejectReason.MALFORMED_ROW, result.getConflicts().get(0).getReason());
+        assertEquals(2L, result.getConflicts().get(0).getRow());
+    }
+
+    @Test
+    void importItems_csvWithWrongColumnCount_throwsBadRequestAndImportsNothing() {
+        String csv = """
+                name,price
+                Laptop,1299.99
+                Tablet,499.00,extra
+                """;
+
+        assertThrows(BadRequestException.class, () -> itemService.importItems(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ItemImportFormat.CSV));
+        assertEquals(0, itemRepository.count());
+    }
+
+    private Item saveItem(String name, BigDecimal price) {
         Item item = new Item();
         item.setName(name);
         item.setPrice(price);
-        itemRepository.save(item);
+        return itemRepository.save(item);
     }
 
     @AfterEach
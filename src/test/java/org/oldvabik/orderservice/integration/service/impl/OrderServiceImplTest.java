@@ -1,6 +1,8 @@
 package org.oldvabik.orderservice.integration.service.impl;
 
 import org.junit.jupiter.api.*;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
+import org.oldvabik.orderservice.cache.ItemNameFilter;
 import org.oldvabik.orderservice.client.UserServiceClient;
 import org.oldvabik.orderservice.dto.*;
 import org.oldvabik.orderservice.entity.Item;
@@ -62,6 +64,12 @@ class OrderServiceImplTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+
+    @Autowired
+    private ItemNameFilter itemNameFilter;
+
     @MockBean
     private UserServiceClient userServiceClient;
 
@@ -79,6 +87,7 @@ class OrderServiceImplTest {
     void setUp() {
         orderRepository.deleteAll();
         itemRepository.deleteAll();
+        itemCatalogCache.invalidateAll();
 
         auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("test@example.com");
@@ -94,6 +103,7 @@ class OrderServiceImplTest {
         testItem.setName("Test Item");
         testItem.setPrice(BigDecimal.valueOf(99.99));
         testItem = itemRepository.save(testItem);
+        itemNameFilter.rebuild();
 
         when(accessChecker.canAccessUser(any(), any())).thenReturn(true);
 
@@ -202,7 +212,7 @@ class OrderServiceImplTest {
         createTestOrder();
         createTestOrder();
 
-        Page<OrderDto> result = orderService.getOrders(auth, 0, 10, null, null);
+        Page<OrderDto> result = orderService.getOrders(auth, 0, 10, null, null, null, null);
 
         assertEquals(2, result.getTotalElements());
         assertEquals(2, result.getContent().size());
@@ -215,7 +225,7 @@ class OrderServiceImplTest {
         OrderDto order1 = createTestOrder();
         createTestOrder();
 
-        Page<OrderDto> result = orderService.getOrders(auth, 0, 10, List.of(order1.getId()), null);
+        Page<OrderDto> result = orderService.getOrders(auth, 0, 10, List.of(order1.getId()), null, null, null);
 
         assertEquals(1, result.getTotalElements());
         assertEquals(order1.getId(), result.getContent().get(0).getId());
@@ -232,7 +242,7 @@ class OrderServiceImplTest {
         updateDto.setStatus(OrderStatus.SHIPPED);
         orderService.updateOrder(auth, shippedOrder.getId(), updateDto);
 
-        Page<OrderDto> result = orderService.getOrders(auth, 0, 10, null, List.of(OrderStatus.SHIPPED));
+        Page<OrderDto> result = orderService.getOrders(auth, 0, 10, null, List.of(OrderStatus.SHIPPED), null, null);
 
         assertEquals(1, result.getTotalElements());
         assertEquals(OrderStatus.SHIPPED, result.getContent().get(0).getStatus());
@@ -252,6 +262,32 @@ class OrderServiceImplTest {
         assertEquals(OrderStatus.DELIVERED, result.getStatus());
     }
 
+    @Test
+    void getOrderChanges_afterWatermark_returnsOnlyLaterWrites() {
+        when(userServiceClient.getUserById(auth, testUser.getId())).thenReturn(testUser);
+
+        OrderDto first = createTestOrder();
+        OrderDto second = createTestOrder();
+
+        OrderChangesDto initial = orderService.getOrderChanges(auth, null, 10);
+        assertEquals(List.of(first.getId(), second.getId()),
+                initial.getContent().stream().map(OrderDto::getId).toList());
+        assertFalse(initial.isHasMore());
+
+        OrderUpdateDto updateDto = new OrderUpdateDto();
+        updateDto.setStatus(OrderStatus.SHIPPED);
+        orderService.updateOrder(auth, first.getId(), updateDto);
+
+        OrderChangesDto next = orderService.getOrderChanges(auth, initial.getWatermark(), 10);
+        assertEquals(1, next.getContent().size());
+        assertEquals(first.getId(), next.getContent().get(0).getId());
+        assertEquals(OrderStatus.SHIPPED, next.getContent().get(0).getStatus());
+
+        OrderChangesDto empty = orderService.getOrderChanges(auth, next.getWatermark(), 10);
+        assertTrue(empty.getContent().isEmpty());
+        assertEquals(next.getWatermark(), empty.getWatermark());
+    }
+
     @Test
     void deleteOrder_success() {
         when(userServiceClient.getUserById(auth, testUser.getId())).thenReturn(testUser);
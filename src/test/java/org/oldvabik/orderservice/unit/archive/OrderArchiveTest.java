@@ -0,0 +1,132 @@
+package org.oldvabik.orderservice.unit.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.oldvabik.orderservice.archive.ArchiveSegment;
+import org.oldvabik.orderservice.archive.OrderArchive;
+import org.oldvabik.orderservice.config.OrderArchiveProperties;
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.dto.OrderItemDto;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private ObjectMapper objectMapper;
+    private OrderArchiveProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        properties = new OrderArchiveProperties();
+        properties.setDirectory(directory.toString());
+    }
+
+    @Test
+    void write_thenFindById_returnsArchivedOrder() throws Exception {
+        OrderArchive archive = new OrderArchive(objectMapper, properties);
+
+        ArchiveSegment segment = archive.write(List.of(order(7L, 3), order(3L, 1), order(5L, 2)));
+
+        assertEquals(3L, segment.getMinId());
+        assertEquals(7L, segment.getMaxId());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), segment.getMinCreationDate());
+        assertEquals(LocalDateTime.of(2024, 1, 3, 0, 0), segment.getMaxCreationDate());
+
+        OrderDto found = archive.findById(5L).orElseThrow();
+        assertEquals(OrderStatus.DELIVERED, found.getStatus());
+        assertEquals(1, found.getItems().size());
+        assertEquals(new BigDecimal("12.50"), found.getItems().get(0).getPrice());
+        assertTrue(archive.findById(4L).isEmpty());
+        assertTrue(archive.findById(8L).isEmpty());
+    }
+
+    @Test
+    void loadManifest_restoresSegmentsFromDisk() throws Exception {
+        new OrderArchive(objectMapper, properties).write(List.of(order(1L, 1), order(2L, 2)));
+
+        OrderArchive reopened = new OrderArchive(objectMapper, properties);
+        reopened.loadManifest();
+
+        assertEquals(1, reopened.getSegments().size());
+        assertTrue(reopened.findById(2L).isPresent());
+    }
+
+    @Test
+    void findById_segmentWrittenByOtherInstance_reloadsManifestOnMiss() throws Exception {
+        OrderArchive reader = new OrderArchive(objectMapper, properties);
+        reader.loadManifest();
+        new OrderArchive(objectMapper, properties).write(List.of(order(1L, 1)));
+        OrderArchive writer = new OrderArchive(objectMapper, properties);
+        writer.loadManifest();
+        writer.write(List.of(order(4L, 2)));
+
+        assertTrue(reader.findById(4L).isPresent());
+        assertEquals(2, reader.getSegments().size());
+        assertEquals(2, writer.getSegments().size());
+        assertTrue(reader.findById(9L).isEmpty());
+    }
+
+    @Test
+    void findByIds_readsOnlyTheIndexedBlocks() throws Exception {
+        OrderArchive archive = new OrderArchive(objectMapper, properties);
+        List<OrderDto> orders = new ArrayList<>();
+        for (long id = 1; id <= 4 * 64; id++) {
+            orders.add(order(id * 2, 1));
+        }
+        ArchiveSegment segment = archive.write(orders);
+        // damage the first block: lookups in later blocks must not decompress it
+        try (var channel = Files.newByteChannel(directory.resolve(segment.getFile()), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[16]));
+        }
+
+        Map<Long, OrderDto> found = archive.findByIds(List.of(300L, 301L, 302L, 512L, 1000L));
+
+        assertEquals(Set.of(300L, 302L, 512L), found.keySet());
+        assertEquals(3000L, found.get(300L).getItems().get(0).getId());
+        assertTrue(archive.findById(129L).isEmpty());
+    }
+
+    @Test
+    void findById_missWithinRefreshInterval_doesNotReloadManifest() throws Exception {
+        properties.setManifestRefreshInterval(Duration.ofHours(1));
+        OrderArchive reader = new OrderArchive(objectMapper, properties);
+        reader.loadManifest();
+        OrderArchive writer = new OrderArchive(objectMapper, properties);
+        writer.write(List.of(order(1L, 1)));
+
+        assertTrue(reader.findById(1L).isPresent());
+        writer.write(List.of(order(2L, 2)));
+
+        assertTrue(reader.findById(2L).isEmpty());
+        assertEquals(1, reader.refresh());
+        assertTrue(reader.findById(2L).isPresent());
+    }
+
+    private static OrderDto order(Long id, int day) {
+        return OrderDto.builder()
+                .id(id)
+                .userId(100L)
+                .status(OrderStatus.DELIVERED)
+                .creationDate(LocalDateTime.of(2024, 1, day, 0, 0))
+                .items(List.of(new OrderItemDto(id * 10, 1L, "Item", new BigDecimal("12.50"), 2)))
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package org.oldvabik.orderservice.unit.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.cache.ItemNameFilter;
+import org.oldvabik.orderservice.config.ItemCacheProperties;
+import org.oldvabik.orderservice.event.ItemChangeType;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameFilterTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemNameFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ItemNameFilter(itemRepository, new ItemCacheProperties());
+    }
+
+    @Test
+    void mightContain_beforeFirstLoad_acceptsEveryName() {
+        assertTrue(filter.mightContain("anything"));
+    }
+
+    @Test
+    void rebuild_containsAllNamesAndRejectsMostUnknown() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            names.add("Item " + i);
+        }
+        when(itemRepository.count()).thenReturn((long) names.size());
+        when(itemRepository.findAllNames()).thenReturn(names);
+
+        filter.rebuild();
+
+        for (String name : names) {
+            assertTrue(filter.mightContain(name));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("Missing " + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void onItemChanged_addsCreatedAndRenamedNames() {
+        when(itemRepository.findAllNames()).thenReturn(List.of());
+        filter.rebuild();
+
+        filter.onItemChanged(ItemChangedEvent.builder()
+                .itemId(1L).name("Laptop").type(ItemChangeType.CREATED).build());
+        filter.onItemChanged(ItemChangedEvent.builder()
+                .itemId(2L).name("Mouse").previousName("Old Mouse").type(ItemChangeType.UPDATED).build());
+
+        assertTrue(filter.mightContain("Laptop"));
+        assertTrue(filter.mightContain("Mouse"));
+    }
+
+    @Test
+    void onItemChanged_import_reloadsFromCatalog() {
+        when(itemRepository.findAllNames()).thenReturn(List.of()).thenReturn(List.of("Imported"));
+        filter.rebuild();
+
+        filter.onItemChanged(ItemChangedEvent.builder().type(ItemChangeType.IMPORTED).build());
+
+        assertTrue(filter.mightContain("Imported"));
+        verify(itemRepository, times(2)).findAllNames();
+    }
+
+    @Test
+    void rebuild_keepsNamesAddedWhileLoading() {
+        when(itemRepository.findAllNames()).thenReturn(List.of());
+        filter.rebuild();
+        when(itemRepository.findAllNames()).thenAnswer(invocation -> {
+            filter.onItemChanged(ItemChangedEvent.builder()
+                    .itemId(3L).name("Keyboard").type(ItemChangeType.CREATED).build());
+            return List.of("Monitor");
+        });
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("Keyboard"));
+        assertTrue(filter.mightContain("Monitor"));
+    }
+
+    @Test
+    void recordMissing_isForgottenWhenNameIsCreated() {
+        when(itemRepository.findAllNames()).thenReturn(List.of());
+        filter.rebuild();
+
+        filter.recordMissing("Tablet");
+        assertTrue(filter.isKnownMissing("Tablet"));
+
+        filter.onItemChanged(ItemChangedEvent.builder()
+                .itemId(4L).name("Tablet").type(ItemChangeType.CREATED).build());
+
+        assertFalse(filter.isKnownMissing("Tablet"));
+        assertTrue(filter.mightContain("Tablet"));
+    }
+}
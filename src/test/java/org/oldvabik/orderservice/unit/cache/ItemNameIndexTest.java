@@ -0,0 +1,55 @@
+package org.oldvabik.orderservice.unit.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.cache.ItemNameIndex;
+import org.oldvabik.orderservice.event.ItemChangeType;
+import org.oldvabik.orderservice.event.ItemChangedEvent;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemNameIndex(itemRepository);
+    }
+
+    @Test
+    void findByPrefix_matchesIgnoringCaseInNameOrder() {
+        when(itemRepository.findAllNames()).thenReturn(List.of("Laptop", "lamp", "Mouse", "LAN cable"));
+        index.rebuild();
+
+        assertEquals(List.of("lamp", "LAN cable"), index.findByPrefix("LA", 2));
+        assertEquals(List.of("Mouse"), index.findByPrefix("mo", 10));
+    }
+
+    @Test
+    void rebuild_replaysChangesMadeWhileLoading() {
+        when(itemRepository.findAllNames()).thenReturn(List.of("Laptop", "Mouse"));
+        index.rebuild();
+        when(itemRepository.findAllNames()).thenAnswer(invocation -> {
+            index.onItemChanged(ItemChangedEvent.builder()
+                    .itemId(3L).name("Keyboard").type(ItemChangeType.CREATED).build());
+            index.onItemChanged(ItemChangedEvent.builder()
+                    .itemId(2L).name("Mouse").type(ItemChangeType.DELETED).build());
+            return List.of("Laptop", "Mouse");
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of("Keyboard"), index.findByPrefix("k", 10));
+        assertTrue(index.findByPrefix("m", 10).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package org.oldvabik.orderservice.unit.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
+import org.oldvabik.orderservice.dto.SalesWindow;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSalesCounterTest {
+
+    private static final long START = 29_000_000L;
+
+    private long minute;
+    private ItemSalesCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        minute = START;
+        counter = new ItemSalesCounter() {
+            @Override
+            public long currentMinute() {
+                return minute;
+            }
+        };
+    }
+
+    @Test
+    void top_ranksByQuantityAndLimits() {
+        counter.record(Map.of(1L, 2L, 2L, 5L, 3L, 1L));
+        counter.record(Map.of(1L, 4L));
+
+        List<ItemQuantityRow> top = counter.top(SalesWindow.HOUR, 2);
+
+        assertEquals(2, top.size());
+        assertEquals(1L, top.get(0).getItemId());
+        assertEquals(6L, top.get(0).getQuantity());
+        assertEquals(2L, top.get(1).getItemId());
+    }
+
+    @Test
+    void top_dropsSalesThatLeftTheWindow() {
+        counter.record(Map.of(1L, 10L));
+        minute += 30;
+        counter.record(Map.of(2L, 3L));
+        minute += 31;
+
+        assertEquals(List.of(2L), ids(counter.top(SalesWindow.HOUR, 10)));
+        assertEquals(List.of(1L, 2L), ids(counter.top(SalesWindow.DAY, 10)));
+
+        minute += SalesWindow.DAY.getMinutes();
+
+        assertTrue(counter.top(SalesWindow.DAY, 10).isEmpty());
+    }
+
+    @Test
+    void replace_usesStoredSalesPlusUnsaved() {
+        counter.record(Map.of(1L, 2L));
+        Map<Long, Map<Long, Long>> unsaved = counter.drainUnsaved();
+        assertEquals(Map.of(START, Map.of(1L, 2L)), unsaved);
+
+        counter.record(Map.of(1L, 1L));
+        counter.replace(START - 5, START, Map.of(START, Map.of(1L, 2L, 2L, 7L), START - 3, Map.of(3L, 1L)));
+
+        List<ItemQuantityRow> top = counter.top(SalesWindow.HOUR, 10);
+        assertEquals(List.of(2L, 1L, 3L), ids(top));
+        assertEquals(3L, top.get(1).getQuantity());
+        assertEquals(Map.of(START, Map.of(1L, 1L)), counter.drainUnsaved());
+    }
+
+    private static List<Long> ids(List<ItemQuantityRow> rows) {
+        return rows.stream().map(ItemQuantityRow::getItemId).toList();
+    }
+}
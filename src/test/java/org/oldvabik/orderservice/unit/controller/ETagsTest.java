@@ -0,0 +1,44 @@
+package org.oldvabik.orderservice.unit.controller;
+
+import org.junit.jupiter.api.Test;
+import org.oldvabik.orderservice.controller.ETags;
+import org.oldvabik.orderservice.dto.ItemDto;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import java.math.BigDecimal;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void of_sameItemContent_producesSameTag() {
+        String tag = ETags.of(new ItemDto(1L, "Laptop", new BigDecimal("10.00")));
+
+        assertEquals(tag, ETags.of(new ItemDto(1L, "Laptop", new BigDecimal("10.00"))));
+        assertNotEquals(tag, ETags.of(new ItemDto(1L, "Laptop", new BigDecimal("11.00"))));
+        assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+    }
+
+    @Test
+    void of_pageWithDifferentTotal_producesDifferentTag() {
+        List<ItemDto> items = List.of(new ItemDto(1L, "Laptop", BigDecimal.TEN));
+
+        assertNotEquals(
+                ETags.of(new PageImpl<>(items, PageRequest.of(0, 5), 1)),
+                ETags.of(new PageImpl<>(items, PageRequest.of(0, 5), 6)));
+    }
+
+    @Test
+    void matches_listWeakAndWildcard() {
+        String tag = ETags.ofVersion("42.7");
+
+        assertTrue(tag.startsWith("W/"));
+        assertTrue(ETags.matches("\"41.7\", W/\"42.7\"", tag));
+        assertTrue(ETags.matches("\"42.7\"", tag));
+        assertTrue(ETags.matches("*", tag));
+        assertFalse(ETags.matches("W/\"42.8\"", tag));
+        assertFalse(ETags.matches(null, tag));
+        assertFalse(ETags.matches("*", null));
+    }
+}
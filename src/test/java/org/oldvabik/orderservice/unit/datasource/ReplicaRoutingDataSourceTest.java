@@ -0,0 +1,96 @@
+package org.oldvabik.orderservice.unit.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.oldvabik.orderservice.datasource.ReadYourWritesTracker;
+import org.oldvabik.orderservice.datasource.ReplicaLagMonitor;
+import org.oldvabik.orderservice.datasource.ReplicaRoutingDataSource;
+import org.oldvabik.orderservice.datasource.ReplicaRoutingDataSource.Route;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+    private static final String EMAIL = "user@example.com";
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker tracker;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        routing = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), lagMonitor, tracker);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(EMAIL, null, List.of()));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void route_readOnlyTransaction_goesToReplica() {
+        when(lagMonitor.isUsable()).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(Route.REPLICA, routing.route());
+    }
+
+    @Test
+    void route_replicaLagging_fallsBackToPrimary() {
+        when(lagMonitor.isUsable()).thenReturn(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(Route.PRIMARY, routing.route());
+    }
+
+    @Test
+    void route_afterOwnCommittedWrite_readsStayOnPrimary() {
+        when(lagMonitor.isUsable()).thenReturn(true);
+
+        assertEquals(Route.PRIMARY, routing.route());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(Route.PRIMARY, routing.route());
+        assertTrue(tracker.isSticky(EMAIL));
+        assertFalse(tracker.isSticky("other@example.com"));
+    }
+
+    @Test
+    void route_writeOnAnotherInstance_isCarriedByCookie() {
+        when(lagMonitor.isUsable()).thenReturn(true);
+        var writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), writeResponse));
+        new ReadYourWritesTracker(Duration.ofMinutes(1)).recordWrite(EMAIL);
+        Cookie written = writeResponse.getCookie(ReadYourWritesTracker.COOKIE_NAME);
+        assertNotNull(written);
+
+        var readRequest = new MockHttpServletRequest();
+        readRequest.setCookies(written);
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(readRequest, new MockHttpServletResponse()));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(Route.PRIMARY, routing.route());
+    }
+}
@@ -0,0 +1,68 @@
+package org.oldvabik.orderservice.unit.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.config.PaymentReconciliationProperties;
+import org.oldvabik.orderservice.job.PaymentReconciliationJob;
+import org.oldvabik.orderservice.repository.PaymentReconciliationRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationJobTest {
+
+    @Mock
+    private PaymentReconciliationRepository reconciliationRepository;
+
+    private PaymentReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        PaymentReconciliationProperties properties = new PaymentReconciliationProperties();
+        properties.setChunkSize(10);
+        properties.setParallelism(3);
+        job = new PaymentReconciliationJob(reconciliationRepository, properties);
+    }
+
+    @Test
+    void reconcile_coversWholeIdRangeInChunks() {
+        List<long[]> ranges = Collections.synchronizedList(new ArrayList<>());
+        when(reconciliationRepository.findMinOrderId()).thenReturn(5L);
+        when(reconciliationRepository.findMaxOrderId()).thenReturn(104L);
+        when(reconciliationRepository.insertMismatches(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            ranges.add(new long[]{invocation.getArgument(0), invocation.getArgument(1)});
+            return 1;
+        });
+
+        job.reconcile();
+
+        List<long[]> sorted = new ArrayList<>(ranges);
+        sorted.sort((a, b) -> Long.compare(a[0], b[0]));
+        long next = 5;
+        for (long[] range : sorted) {
+            assertEquals(next, range[0]);
+            assertTrue(range[1] - range[0] < 10);
+            next = range[1] + 1;
+        }
+        assertEquals(105, next);
+        verify(reconciliationRepository).deleteRunsBefore(any(LocalDateTime.class));
+    }
+
+    @Test
+    void reconcile_noOrders_doesNothing() {
+        when(reconciliationRepository.findMinOrderId()).thenReturn(null);
+
+        job.reconcile();
+
+        verify(reconciliationRepository, never()).insertMismatches(anyLong(), anyLong(), any());
+        verify(reconciliationRepository, never()).deleteRunsBefore(any());
+    }
+}
@@ -0,0 +1,122 @@
+package org.oldvabik.orderservice.unit.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.config.OrderExpiryProperties;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.job.PendingOrderExpiryJob;
+import org.oldvabik.orderservice.kafka.OrderEventProducer;
+import org.oldvabik.orderservice.repository.OrderItemRepository;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.service.ItemStockService;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.oldvabik.orderservice.service.impl.OrderViewStore;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingOrderExpiryJobTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private OrderViewStore orderViewStore;
+
+    @Mock
+    private OrderEventProducer orderEventProducer;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ItemStockService itemStockService;
+
+    private PendingOrderExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        OrderExpiryProperties properties = new OrderExpiryProperties();
+        properties.setBatchSize(2);
+        job = new PendingOrderExpiryJob(orderRepository, orderStatsService, orderViewStore, orderEventProducer,
+                properties, new TransactionTemplate(new NoOpTransactionManager()), orderItemRepository,
+                itemStockService);
+    }
+
+    @Test
+    void expire_cancelsClaimedBatchesUntilShortBatch() {
+        LocalDateTime day = LocalDateTime.of(2024, 1, 10, 12, 0);
+        when(orderRepository.lockExpiredPendingIds(any(), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(orderRepository.findHeadersByIds(List.of(1L, 2L))).thenReturn(List.of(
+                new OrderHeaderRow(1L, 10L, OrderStatus.PENDING, day),
+                new OrderHeaderRow(2L, 11L, OrderStatus.PENDING, day)));
+        when(orderRepository.findHeadersByIds(List.of(3L))).thenReturn(List.of(
+                new OrderHeaderRow(3L, 10L, OrderStatus.PENDING, day.plusDays(1))));
+        when(orderItemRepository.sumQuantitiesByOrderIdIn(eq(List.of(1L, 2L)), eq(day), any()))
+                .thenReturn(List.of(new ItemQuantityRow(5L, 3L), new ItemQuantityRow(7L, 1L)));
+        when(orderItemRepository.sumQuantitiesByOrderIdIn(eq(List.of(3L)), eq(day.plusDays(1)), any()))
+                .thenReturn(List.of(new ItemQuantityRow(5L, 2L)));
+
+        job.expire();
+
+        verify(orderRepository).updateStatusByIdIn(List.of(1L, 2L), OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(orderRepository).updateStatusByIdIn(List.of(3L), OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(orderStatsService).recordTransition(LocalDate.of(2024, 1, 10),
+                OrderStatus.PENDING, OrderStatus.CANCELLED, 2L);
+        verify(orderStatsService).recordTransition(LocalDate.of(2024, 1, 11),
+                OrderStatus.PENDING, OrderStatus.CANCELLED, 1L);
+        verify(orderViewStore).updateStatus(List.of(1L, 2L), OrderStatus.CANCELLED);
+        verify(itemStockService).release(Map.of(5L, 3L, 7L, 1L));
+        verify(itemStockService).release(Map.of(5L, 2L));
+        verify(orderEventProducer).sendOrderStatusChangedEvents(argThat(events -> events.size() == 2
+                && events.get(0).getStatus() == OrderStatus.CANCELLED));
+        verify(orderEventProducer).sendOrderStatusChangedEvents(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void expire_nothingExpired_doesNothing() {
+        when(orderRepository.lockExpiredPendingIds(any(), eq(2))).thenReturn(List.of());
+
+        job.expire();
+
+        verify(orderRepository, never()).updateStatusByIdIn(any(), any(), any());
+        verifyNoInteractions(orderStatsService, orderViewStore, orderEventProducer, itemStockService);
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.oldvabik.orderservice.unit.money;
+
+import org.junit.jupiter.api.Test;
+import org.oldvabik.orderservice.money.Money;
+import java.math.BigDecimal;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void ofMajor_convertsExactlyAndBack() {
+        Money price = Money.ofMajor(new BigDecimal("1299.99"));
+
+        assertEquals(129_999L, price.minorUnits());
+        assertEquals(new BigDecimal("1299.99"), price.toBigDecimal());
+        assertEquals(1_000L, Money.ofMajor(BigDecimal.TEN).minorUnits());
+        assertEquals(50L, Money.ofMajor(new BigDecimal("0.500")).minorUnits());
+    }
+
+    @Test
+    void ofMajor_moreThanTwoFractionDigits_throws() {
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(new BigDecimal("0.005")));
+    }
+
+    @Test
+    void arithmetic_matchesBigDecimalAndFailsOnOverflow() {
+        Money total = Money.ofMajor(new BigDecimal("0.10")).times(3).plus(Money.ofMajor(new BigDecimal("0.20")));
+
+        assertEquals(new BigDecimal("0.50"), total.toBigDecimal());
+        assertEquals("0.50", total.toString());
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE / 2).times(3));
+    }
+}
@@ -0,0 +1,86 @@
+package org.oldvabik.orderservice.unit.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.config.IdempotencyProperties;
+import org.oldvabik.orderservice.dto.OrderCreateDto;
+import org.oldvabik.orderservice.dto.OrderDto;
+import org.oldvabik.orderservice.dto.OrderItemCreateDto;
+import org.oldvabik.orderservice.entity.IdempotencyRecord;
+import org.oldvabik.orderservice.exception.UnprocessableEntityException;
+import org.oldvabik.orderservice.repository.IdempotencyRecordRepository;
+import org.oldvabik.orderservice.service.impl.IdempotencyStore;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyStore idempotencyStore;
+
+    private static final String PRINCIPAL = "user@example.com";
+    private static final String KEY = "key-1";
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, new ObjectMapper(),
+                new IdempotencyProperties());
+    }
+
+    @Test
+    void hash_sameRequest_sameHash() {
+        String first = idempotencyStore.hash(request(2));
+
+        assertEquals(first, idempotencyStore.hash(request(2)));
+        assertNotEquals(first, idempotencyStore.hash(request(3)));
+        assertEquals(64, first.length());
+    }
+
+    @Test
+    void claim_existingKey_replaysRecordedResponseOnce() {
+        OrderDto response = OrderDto.builder().id(7L).build();
+        when(idempotencyRecordRepository.claim(eq(PRINCIPAL), eq(KEY), eq("hash"), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById(new IdempotencyRecord.Key(PRINCIPAL, KEY)))
+                .thenReturn(Optional.of(IdempotencyRecord.builder()
+                        .principal(PRINCIPAL)
+                        .idempotencyKey(KEY)
+                        .requestHash("hash")
+                        .orderId(7L)
+                        .response(response)
+                        .build()));
+
+        assertEquals(Optional.of(response), idempotencyStore.claim(PRINCIPAL, KEY, "hash"));
+        assertEquals(Optional.of(response), idempotencyStore.claim(PRINCIPAL, KEY, "hash"));
+
+        verify(idempotencyRecordRepository, times(1)).claim(any(), any(), any(), any());
+    }
+
+    @Test
+    void claim_existingKeyWithDifferentRequest_throwsUnprocessable() {
+        when(idempotencyRecordRepository.claim(eq(PRINCIPAL), eq(KEY), eq("other"), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById(new IdempotencyRecord.Key(PRINCIPAL, KEY)))
+                .thenReturn(Optional.of(IdempotencyRecord.builder()
+                        .requestHash("hash")
+                        .response(OrderDto.builder().id(7L).build())
+                        .build()));
+
+        assertThrows(UnprocessableEntityException.class, () -> idempotencyStore.claim(PRINCIPAL, KEY, "other"));
+    }
+
+    private static OrderCreateDto request(int quantity) {
+        return OrderCreateDto.builder()
+                .email(PRINCIPAL)
+                .items(List.of(new OrderItemCreateDto("Laptop", quantity)))
+                .build();
+    }
+}
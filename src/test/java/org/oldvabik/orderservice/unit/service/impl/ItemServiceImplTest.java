@@ -5,18 +5,41 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
+import org.oldvabik.orderservice.cache.ItemChangeDispatcher;
+import org.oldvabik.orderservice.cache.ItemNameFilter;
+import org.oldvabik.orderservice.cache.ItemNameIndex;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
+import org.oldvabik.orderservice.dto.BatchGetResultDto;
 import org.oldvabik.orderservice.dto.ItemCreateDto;
 import org.oldvabik.orderservice.dto.ItemDto;
+import org.oldvabik.orderservice.dto.ItemImportConflictDto;
+import org.oldvabik.orderservice.dto.ItemImportFormat;
+import org.oldvabik.orderservice.dto.ItemImportRejectReason;
+import org.oldvabik.orderservice.dto.ItemImportResultDto;
 import org.oldvabik.orderservice.dto.ItemUpdateDto;
+import org.oldvabik.orderservice.dto.SalesWindow;
 import org.oldvabik.orderservice.entity.Item;
 import org.oldvabik.orderservice.exception.AlreadyExistsException;
+import org.oldvabik.orderservice.exception.ConflictException;
+import org.oldvabik.orderservice.event.ItemChangeType;
 import org.oldvabik.orderservice.exception.NotFoundException;
+import org.oldvabik.orderservice.kafka.ItemEventProducer;
 import org.oldvabik.orderservice.mapper.ItemMapper;
+import org.oldvabik.orderservice.repository.ItemImportRepository;
 import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.repository.OrderItemRepository;
+import org.oldvabik.orderservice.repository.projection.ItemMergeCounts;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
 import org.oldvabik.orderservice.service.impl.ItemServiceImpl;
+import org.oldvabik.orderservice.service.impl.OrderViewStore;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,6 +52,24 @@ class ItemServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private ItemMapper itemMapper;
+    @Mock
+    private ItemCatalogCache itemCatalogCache;
+    @Mock
+    private ItemNameIndex itemNameIndex;
+    @Mock
+    private ItemNameFilter itemNameFilter;
+    @Mock
+    private ItemChangeDispatcher itemChangeDispatcher;
+    @Mock
+    private ItemEventProducer itemEventProducer;
+    @Mock
+    private OrderViewStore orderViewStore;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private ItemSalesCounter itemSalesCounter;
+    @Mock
+    private ItemImportRepository itemImportRepository;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -51,6 +92,7 @@ class ItemServiceImplTest {
         saved.setName(NAME);
         saved.setPrice(PRICE);
 
+        when(itemNameFilter.mightContain(NAME)).thenReturn(true);
         when(itemRepository.findByName(NAME)).thenReturn(Optional.empty());
         when(itemMapper.toEntity(dto)).thenReturn(entity);
         when(itemRepository.save(entity)).thenReturn(saved);
@@ -68,6 +110,7 @@ class ItemServiceImplTest {
         var dto = new ItemCreateDto();
         dto.setName(NAME);
 
+        when(itemNameFilter.mightContain(NAME)).thenReturn(true);
         when(itemRepository.findByName(NAME)).thenReturn(Optional.of(new Item()));
 
         var ex = assertThrows(AlreadyExistsException.class, () -> itemService.createItem(dto));
@@ -75,6 +118,38 @@ class ItemServiceImplTest {
         verify(itemRepository, never()).save(any());
     }
 
+    @Test
+    void createItem_nameNotInFilter_skipsDuplicateLookup() {
+        var dto = new ItemCreateDto();
+        dto.setName(NAME);
+        var entity = new Item();
+        var saved = item(ID, NAME, PRICE);
+
+        when(itemNameFilter.mightContain(NAME)).thenReturn(false);
+        when(itemMapper.toEntity(dto)).thenReturn(entity);
+        when(itemRepository.save(entity)).thenReturn(saved);
+        when(itemMapper.toDto(saved)).thenReturn(new ItemDto(ID, NAME, PRICE));
+
+        itemService.createItem(dto);
+
+        verify(itemRepository, never()).findByName(any());
+        verify(itemRepository).save(entity);
+    }
+
+    @Test
+    void createItem_nameMissedByFilter_mapsUniqueViolationToAlreadyExists() {
+        var dto = new ItemCreateDto();
+        dto.setName(NAME);
+        var entity = new Item();
+
+        when(itemNameFilter.mightContain(NAME)).thenReturn(false);
+        when(itemMapper.toEntity(dto)).thenReturn(entity);
+        when(itemRepository.save(entity)).thenThrow(new DataIntegrityViolationException("items_name_key"));
+
+        assertThrows(AlreadyExistsException.class, () -> itemService.createItem(dto));
+        verify(itemChangeDispatcher, never()).dispatch(any());
+    }
+
     @Test
     void getItems_noFilters_returnsAllPaged() {
         var pageable = PageRequest.of(0, 10);
@@ -92,41 +167,92 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void getItems_withNameFilter_usesContainingIgnoreCase() {
+    void getItems_withNameFilter_usesTrigramSearch() {
         var pageable = PageRequest.of(0, 10);
         var item = item(ID, NAME, PRICE);
         var page = new PageImpl<>(List.of(item), pageable, 1);
 
-        when(itemRepository.findByNameContainingIgnoreCase(SEARCH_QUERY, pageable)).thenReturn(page);
+        when(itemRepository.searchByNamePattern("%" + SEARCH_QUERY + "%", pageable)).thenReturn(page);
         when(itemMapper.toDto(item)).thenReturn(new ItemDto(ID, NAME, PRICE));
 
         var result = itemService.getItems(0, 10, SEARCH_QUERY);
 
         assertEquals(1, result.getTotalElements());
-        verify(itemRepository).findByNameContainingIgnoreCase(SEARCH_QUERY, pageable);
+        verify(itemRepository).searchByNamePattern("%" + SEARCH_QUERY + "%", pageable);
     }
 
     @Test
-    void getItemById_success() {
-        var item = item(ID, NAME, PRICE);
+    void getItems_nameFilterWithWildcards_isEscaped() {
+        var pageable = PageRequest.of(0, 10);
 
-        when(itemRepository.findById(ID)).thenReturn(Optional.of(item));
-        when(itemMapper.toDto(item)).thenReturn(new ItemDto(ID, NAME, PRICE));
+        when(itemRepository.searchByNamePattern("%50\\%\\_off%", pageable)).thenReturn(Page.empty(pageable));
+
+        var result = itemService.getItems(0, 10, " 50%_OFF ");
+
+        assertEquals(0, result.getTotalElements());
+    }
+
+    @Test
+    void autocomplete_usesNameIndex() {
+        when(itemNameIndex.findByPrefix("lap", 5)).thenReturn(List.of(NAME));
+
+        var result = itemService.autocomplete(" lap ", 5);
+
+        assertEquals(List.of(NAME), result);
+    }
+
+    @Test
+    void autocomplete_blankPrefix_returnsEmpty() {
+        assertTrue(itemService.autocomplete("  ", 5).isEmpty());
+        verifyNoInteractions(itemNameIndex);
+    }
+
+    @Test
+    void getTopItems_addsNamesToRanking() {
+        when(itemSalesCounter.top(SalesWindow.HOUR, 2))
+                .thenReturn(List.of(new ItemQuantityRow(ID, 7L), new ItemQuantityRow(2L, 3L)));
+        when(itemCatalogCache.findById(ID)).thenReturn(Optional.of(new ItemDto(ID, NAME, PRICE)));
+        when(itemCatalogCache.findById(2L)).thenReturn(Optional.empty());
+
+        var result = itemService.getTopItems(SalesWindow.HOUR, 2);
+
+        assertEquals(2, result.size());
+        assertEquals(NAME, result.get(0).getName());
+        assertEquals(7L, result.get(0).getQuantity());
+        assertNull(result.get(1).getName());
+    }
+
+    @Test
+    void getItemById_success() {
+        when(itemCatalogCache.findById(ID)).thenReturn(Optional.of(new ItemDto(ID, NAME, PRICE)));
 
         var result = itemService.getItemById(ID);
 
         assertEquals(NAME, result.getName());
+        verify(itemRepository, never()).findById(any());
     }
 
     @Test
     void getItemById_notFound_throwsException() {
 
-        when(itemRepository.findById(ID)).thenReturn(Optional.empty());
+        when(itemCatalogCache.findById(ID)).thenReturn(Optional.empty());
 
         var ex = assertThrows(NotFoundException.class, () -> itemService.getItemById(ID));
         assertTrue(ex.getMessage().contains(ID.toString()));
     }
 
+    @Test
+    void batchGetItems_keepsRequestOrderAndReportsMissing() {
+        when(itemCatalogCache.findByIds(argThat(ids -> ids.size() == 3))).thenReturn(Map.of(
+                ID, new ItemDto(ID, NAME, PRICE),
+                2L, new ItemDto(2L, NEW_NAME, PRICE)));
+
+        BatchGetResultDto<ItemDto> result = itemService.batchGetItems(List.of(2L, 3L, ID, 2L));
+
+        assertEquals(List.of(2L, ID), result.getFound().stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(3L), result.getMissing());
+    }
+
     @Test
     void updateItem_nameNotChanged_success() {
         var existing = item(ID, NAME, PRICE);
@@ -163,6 +289,8 @@ class ItemServiceImplTest {
 
         verify(itemRepository).findByName(NEW_NAME);
         verify(itemRepository).save(existing);
+        verify(itemChangeDispatcher).dispatch(argThat(e -> NAME.equals(e.getPreviousName())));
+        verify(orderViewStore).updateItem(eq(ID), any(), any());
     }
 
     @Test
@@ -215,6 +343,18 @@ class ItemServiceImplTest {
         itemService.deleteItem(ID);
 
         verify(itemRepository).delete(item);
+        verify(itemChangeDispatcher).dispatch(argThat(e -> ID.equals(e.getItemId()) && e.getType() == ItemChangeType.DELETED));
+        verify(itemEventProducer).sendItemChangedEvent(any());
+    }
+
+    @Test
+    void deleteItem_usedByOrders_throwsConflict() {
+        when(itemRepository.findById(ID)).thenReturn(Optional.of(item(ID, NAME, PRICE)));
+        when(orderItemRepository.existsByItemId(ID)).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> itemService.deleteItem(ID));
+        verify(itemRepository, never()).delete(any());
+        verifyNoInteractions(itemChangeDispatcher, itemEventProducer);
     }
 
     @Test
@@ -226,6 +366,45 @@ class ItemServiceImplTest {
         verify(itemRepository, never()).delete(any());
     }
 
+
+    @Test
+    void importItems_csv_mergesAndPublishesOneImportEvent() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        var conflict = ItemImportConflictDto.builder()
+                .row(3L).name("x").reason(ItemImportRejectReason.INVALID_NAME).build();
+        when(itemImportRepository.copyCsv(body)).thenReturn(5L);
+        when(itemImportRepository.markRejected()).thenReturn(1L);
+        when(itemImportRepository.findRejected(1000)).thenReturn(List.of(conflict));
+        when(itemImportRepository.merge()).thenReturn(new ItemMergeCounts(2, 1));
+
+        ItemImportResultDto result = itemService.importItems(body, ItemImportFormat.CSV);
+
+        assertEquals(5L, result.getReceived());
+        assertEquals(2L, result.getInserted());
+        assertEquals(1L, result.getUpdated());
+        assertEquals(1L, result.getUnchanged());
+        assertEquals(List.of(conflict), result.getConflicts());
+        verify(itemImportRepository).createStaging();
+        verify(itemImportRepository).repriceOrderViews();
+        verify(itemChangeDispatcher).dispatch(argThat(e -> e.getType() == ItemChangeType.IMPORTED));
+        verify(itemEventProducer, times(1)).sendItemChangedEvent(any());
+    }
+
+    @Test
+    void importItems_nothingChanged_skipsRepricingAndEvent() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(itemImportRepository.copyNdjson(body)).thenReturn(2L);
+        when(itemImportRepository.markRejected()).thenReturn(0L);
+        when(itemImportRepository.merge()).thenReturn(new ItemMergeCounts(0, 0));
+
+        ItemImportResultDto result = itemService.importItems(body, ItemImportFormat.NDJSON);
+
+        assertEquals(2L, result.getUnchanged());
+        assertTrue(result.getConflicts().isEmpty());
+        verify(itemImportRepository, never()).findRejected(anyInt());
+        verify(itemImportRepository, never()).repriceOrderViews();
+        verifyNoInteractions(itemChangeDispatcher, itemEventProducer);
+    }
     private Item item(Long id, String name, BigDecimal price) {
         var item = new Item();
         item.setId(id);
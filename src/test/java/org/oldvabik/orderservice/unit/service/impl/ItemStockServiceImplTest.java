@@ -0,0 +1,141 @@
+package org.oldvabik.orderservice.unit.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.dto.ItemStockDto;
+import org.oldvabik.orderservice.entity.ItemStockBucket;
+import org.oldvabik.orderservice.exception.NotFoundException;
+import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.repository.ItemStockBucketRepository;
+import org.oldvabik.orderservice.repository.projection.StockBucketRow;
+import org.oldvabik.orderservice.service.impl.ItemStockServiceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemStockServiceImplTest {
+
+    @Mock
+    private ItemStockBucketRepository bucketRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemStockServiceImpl itemStockService;
+
+    private static final Long ITEM_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        itemStockService = new ItemStockServiceImpl(bucketRepository, itemRepository);
+        ReflectionTestUtils.setField(itemStockService, "buckets", 4);
+    }
+
+    @Test
+    void reserve_randomBucketCovers_takesWithoutLocking() {
+        when(bucketRepository.take(eq(ITEM_ID), anyShort(), eq(2L))).thenReturn(1);
+
+        assertTrue(itemStockService.reserve(ITEM_ID, 2));
+        verify(bucketRepository, never()).lockByItemId(any());
+    }
+
+    @Test
+    void reserve_randomBucketShort_takesFromFullestLockedBuckets() {
+        when(bucketRepository.take(eq(ITEM_ID), anyShort(), eq(5L))).thenReturn(0);
+        when(bucketRepository.lockByItemId(ITEM_ID)).thenReturn(List.of(
+                row(0, 1), row(1, 3), row(2, 0), row(3, 2)));
+
+        assertTrue(itemStockService.reserve(ITEM_ID, 5));
+        verify(bucketRepository).take(ITEM_ID, (short) 1, 3L);
+        verify(bucketRepository).take(ITEM_ID, (short) 3, 2L);
+        verify(bucketRepository, never()).take(ITEM_ID, (short) 0, 1L);
+    }
+
+    @Test
+    void reserve_notEnoughInAllBuckets_returnsFalse() {
+        when(bucketRepository.take(eq(ITEM_ID), anyShort(), eq(10L))).thenReturn(0);
+        when(bucketRepository.lockByItemId(ITEM_ID)).thenReturn(List.of(row(0, 4), row(1, 5)));
+
+        assertFalse(itemStockService.reserve(ITEM_ID, 10));
+        verify(bucketRepository, times(1)).take(anyLong(), anyShort(), anyLong());
+    }
+
+    @Test
+    void reserve_untrackedItem_returnsTrue() {
+        when(bucketRepository.take(eq(ITEM_ID), anyShort(), eq(1L))).thenReturn(0);
+        when(bucketRepository.lockByItemId(ITEM_ID)).thenReturn(List.of());
+
+        assertTrue(itemStockService.reserve(ITEM_ID, 1));
+    }
+
+    @Test
+    void reserveAll_locksItemsInIdOrderAndRejectsWholeShortRequests() {
+        Long otherItemId = 2L;
+        when(bucketRepository.lockByItemId(ITEM_ID)).thenReturn(List.of(row(0, 2), row(1, 1)));
+        when(bucketRepository.lockByItemId(otherItemId)).thenReturn(List.of(row(0, 5)));
+
+        Map<Integer, Long> rejected = itemStockService.reserveAll(List.of(
+                Map.of(otherItemId, 2L, ITEM_ID, 2L),
+                Map.of(otherItemId, 1L, ITEM_ID, 2L),
+                Map.of(otherItemId, 3L)));
+
+        assertEquals(Map.of(1, ITEM_ID), rejected);
+        InOrder inOrder = inOrder(bucketRepository);
+        inOrder.verify(bucketRepository).lockByItemId(ITEM_ID);
+        inOrder.verify(bucketRepository).lockByItemId(otherItemId);
+        verify(bucketRepository).take(ITEM_ID, (short) 0, 2L);
+        verify(bucketRepository).take(otherItemId, (short) 0, 5L);
+        verify(bucketRepository, never()).give(anyLong(), anyShort(), anyLong());
+    }
+
+    @Test
+    void release_missingBucket_givesToFirstBucket() {
+        when(bucketRepository.give(eq(ITEM_ID), anyShort(), eq(3L))).thenReturn(0);
+
+        itemStockService.release(ITEM_ID, 3);
+
+        verify(bucketRepository).giveToFirst(ITEM_ID, 3L);
+    }
+
+    @Test
+    void setStock_spreadsQuantityOverBuckets() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+
+        ItemStockDto result = itemStockService.setStock(ITEM_ID, 10);
+
+        assertTrue(result.getTracked());
+        assertEquals(10L, result.getAvailable());
+        verify(bucketRepository).deleteByItemId(ITEM_ID);
+        verify(bucketRepository).saveAll(argThat((List<ItemStockBucket> rows) -> rows.size() == 4
+                && rows.get(0).getQuantity() == 3 && rows.get(3).getQuantity() == 2));
+    }
+
+    @Test
+    void getStock_unknownItem_throwsNotFound() {
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemStockService.getStock(ITEM_ID));
+    }
+
+    private static StockBucketRow row(int bucket, long quantity) {
+        return new StockBucketRow() {
+            @Override
+            public Short getBucket() {
+                return (short) bucket;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
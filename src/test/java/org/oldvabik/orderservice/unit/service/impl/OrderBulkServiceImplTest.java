@@ -0,0 +1,223 @@
+package org.oldvabik.orderservice.unit.service.impl;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
+import org.oldvabik.orderservice.client.UserServiceClient;
+import org.oldvabik.orderservice.dto.*;
+import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import org.oldvabik.orderservice.kafka.OrderEventProducer;
+import org.oldvabik.orderservice.repository.OrderBulkRepository;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.projection.ItemQuantityRow;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.security.AccessChecker;
+import org.oldvabik.orderservice.service.ItemStockService;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.oldvabik.orderservice.service.impl.OrderBulkServiceImpl;
+import org.oldvabik.orderservice.service.impl.OrderViewStore;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBulkServiceImplTest {
+
+    @Mock
+    private OrderBulkRepository orderBulkRepository;
+
+    @Mock
+    private ItemCatalogCache itemCatalogCache;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private AccessChecker accessChecker;
+
+    @Mock
+    private OrderEventProducer orderEventProducer;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private OrderViewStore orderViewStore;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ItemStockService itemStockService;
+
+    @Mock
+    private ItemSalesCounter itemSalesCounter;
+
+    @Mock
+    private UserOrderSummaryService userOrderSummaryService;
+
+    @Mock
+    private Authentication authentication;
+
+    private OrderBulkServiceImpl orderBulkService;
+
+    private static final String EMAIL = "user@example.com";
+    private static final String ITEM_NAME = "Laptop";
+
+    @BeforeEach
+    void setUp() {
+        orderBulkService = new OrderBulkServiceImpl(orderBulkRepository, itemCatalogCache, userServiceClient,
+                accessChecker, orderEventProducer, orderStatsService, orderViewStore,
+                Validation.buildDefaultValidatorFactory().getValidator(), orderRepository,
+                new TransactionTemplate(transactionManager), itemStockService, itemSalesCounter,
+                userOrderSummaryService);
+    }
+
+    @Test
+    void createOrders_mixedBatch_createsValidAndReportsFailures() {
+        UserDto user = UserDto.builder().id(100L).email(EMAIL).build();
+        when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
+        when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
+        when(itemCatalogCache.findByName(ITEM_NAME))
+                .thenReturn(Optional.of(new ItemDto(1L, ITEM_NAME, BigDecimal.TEN)));
+        when(itemCatalogCache.findByName("Unknown")).thenReturn(Optional.empty());
+        when(orderBulkRepository.nextOrderIds(2)).thenReturn(List.of(11L, 12L));
+        when(orderBulkRepository.nextOrderItemIds(2)).thenReturn(List.of(21L, 22L));
+
+        OrderBulkResponseDto result = orderBulkService.createOrders(authentication, List.of(
+                order(EMAIL, ITEM_NAME),
+                order("not-an-email", ITEM_NAME),
+                order(EMAIL, "Unknown"),
+                order(EMAIL, ITEM_NAME)));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(BulkResultStatus.CREATED, result.getResults().get(0).getStatus());
+        assertEquals(11L, result.getResults().get(0).getOrderId());
+        assertEquals(BulkResultStatus.FAILED, result.getResults().get(1).getStatus());
+        assertTrue(result.getResults().get(1).getError().startsWith("email"));
+        assertEquals("Item not found: Unknown", result.getResults().get(2).getError());
+        assertEquals(12L, result.getResults().get(3).getOrderId());
+
+        verify(userServiceClient, times(1)).getUserByEmail(authentication, EMAIL);
+        verify(itemCatalogCache, times(1)).findByName(ITEM_NAME);
+        verify(orderBulkRepository).insertOrders(argThat((List<Order> orders) -> orders.size() == 2));
+        verify(orderStatsService).recordCreated(any(LocalDate.class), eq(OrderStatus.PENDING), eq(2L));
+        verify(orderViewStore).insertAll(argThat(views -> views.size() == 2));
+        verify(itemSalesCounter).recordAfterCommit(Map.of(1L, 4L));
+        verify(userOrderSummaryService).recordCreated(argThat(orders -> orders.size() == 2));
+        verify(orderEventProducer).sendOrderCreatedEvents(argThat(events -> events.size() == 2
+                && events.get(0).getTotalAmount().compareTo(BigDecimal.valueOf(20)) == 0));
+    }
+
+    @Test
+    void createOrders_soldOut_failsOnlyOrdersWithoutStock() {
+        UserDto user = UserDto.builder().id(100L).email(EMAIL).build();
+        when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
+        when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
+        when(itemCatalogCache.findByName(ITEM_NAME))
+                .thenReturn(Optional.of(new ItemDto(1L, ITEM_NAME, BigDecimal.TEN)));
+        when(itemStockService.reserveAll(List.of(Map.of(1L, 2L), Map.of(1L, 2L)))).thenReturn(Map.of(1, 1L));
+        when(orderBulkRepository.nextOrderIds(1)).thenReturn(List.of(11L));
+        when(orderBulkRepository.nextOrderItemIds(1)).thenReturn(List.of(21L));
+
+        OrderBulkResponseDto result = orderBulkService.createOrders(authentication, List.of(
+                order(EMAIL, ITEM_NAME),
+                order(EMAIL, ITEM_NAME)));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(BulkResultStatus.CREATED, result.getResults().get(0).getStatus());
+        assertEquals("Insufficient stock for item: " + ITEM_NAME, result.getResults().get(1).getError());
+        assertEquals(11L, result.getResults().get(0).getOrderId());
+        verify(itemStockService, never()).reserve(any(), anyLong());
+        verify(itemStockService, never()).release(anyMap());
+    }
+
+    @Test
+    void createOrders_userServiceFallback_reportsUserNotFound() {
+        when(userServiceClient.getUserByEmail(authentication, EMAIL))
+                .thenReturn(UserDto.builder().id(-1L).email(EMAIL).build());
+
+        OrderBulkResponseDto result = orderBulkService.createOrders(authentication, List.of(order(EMAIL, ITEM_NAME)));
+
+        assertEquals(0, result.getCreated());
+        assertEquals("User not found: " + EMAIL, result.getResults().get(0).getError());
+        verifyNoInteractions(orderBulkRepository, orderEventProducer);
+    }
+
+    @Test
+    void deleteOrders_deletesInChunksAndUpdatesCounters() {
+        ReflectionTestUtils.setField(orderBulkService, "deleteChunkSize", 2);
+        LocalDateTime created = LocalDateTime.of(2024, 3, 1, 10, 0);
+        when(orderRepository.lockIdsByFilter(eq(List.of("CANCELLED")), eq(created.toLocalDate().atStartOfDay()),
+                any(), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        when(orderRepository.findHeadersByIds(List.of(1L, 2L))).thenReturn(List.of(
+                new OrderHeaderRow(1L, 10L, OrderStatus.CANCELLED, created),
+                new OrderHeaderRow(2L, 11L, OrderStatus.CANCELLED, created)));
+        when(orderRepository.sumItemQuantitiesByIdInAndStatusIn(List.of(1L, 2L),
+                EnumSet.of(OrderStatus.PENDING, OrderStatus.PAID)))
+                .thenReturn(List.of());
+
+        int deleted = orderBulkService.deleteOrders(List.of(OrderStatus.CANCELLED), created.toLocalDate(), null);
+
+        assertEquals(2, deleted);
+        verify(orderRepository).deleteAllByIdIn(List.of(1L, 2L));
+        verify(orderStatsService).recordDeleted(created.toLocalDate(), OrderStatus.CANCELLED, 2L);
+        verify(orderViewStore).delete(List.of(1L, 2L));
+        verify(userOrderSummaryService).recordDeleted(List.of(1L, 2L));
+    }
+
+    @Test
+    void deleteOrders_pendingOrders_releaseReservedStock() {
+        ReflectionTestUtils.setField(orderBulkService, "deleteChunkSize", 2);
+        LocalDateTime created = LocalDateTime.of(2024, 3, 1, 10, 0);
+        when(orderRepository.lockIdsByFilter(eq(List.of("PENDING")), any(), any(), eq(2)))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+        when(orderRepository.findHeadersByIds(List.of(1L)))
+                .thenReturn(List.of(new OrderHeaderRow(1L, 10L, OrderStatus.PENDING, created)));
+        when(orderRepository.sumItemQuantitiesByIdInAndStatusIn(eq(List.of(1L)), any()))
+                .thenReturn(List.of(new ItemQuantityRow(5L, 3L), new ItemQuantityRow(7L, 1L)));
+
+        assertEquals(1, orderBulkService.deleteOrders(List.of(OrderStatus.PENDING), null, null));
+        verify(itemStockService).release(Map.of(5L, 3L, 7L, 1L));
+        verify(orderRepository).deleteAllByIdIn(List.of(1L));
+    }
+
+    @Test
+    void deleteOrders_withoutFilter_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> orderBulkService.deleteOrders(null, null, null));
+        verifyNoInteractions(orderRepository);
+    }
+
+    private static OrderCreateDto order(String email, String itemName) {
+        return OrderCreateDto.builder()
+                .email(email)
+                .items(List.of(new OrderItemCreateDto(itemName, 2)))
+                .build();
+    }
+}
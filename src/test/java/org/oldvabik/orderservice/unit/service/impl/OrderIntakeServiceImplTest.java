@@ -0,0 +1,96 @@
+package org.oldvabik.orderservice.unit.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.config.OrderIntakeProperties;
+import org.oldvabik.orderservice.dto.*;
+import org.oldvabik.orderservice.exception.NotFoundException;
+import org.oldvabik.orderservice.exception.ServiceUnavailableException;
+import org.oldvabik.orderservice.service.OrderBulkService;
+import org.oldvabik.orderservice.service.impl.OrderIntakeServiceImpl;
+import org.springframework.security.core.Authentication;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeServiceImplTest {
+
+    @Mock
+    private OrderBulkService orderBulkService;
+
+    @Mock
+    private Authentication authentication;
+
+    @Mock
+    private Authentication otherAuthentication;
+
+    private static final String EMAIL = "user@example.com";
+
+    @Test
+    void submit_thenProcess_reportsPerOrderOutcome() {
+        OrderIntakeServiceImpl intake = new OrderIntakeServiceImpl(orderBulkService, properties(10));
+        when(authentication.getName()).thenReturn(EMAIL);
+        when(orderBulkService.createOrders(eq(authentication), argThat(dtos -> dtos.size() == 2)))
+                .thenReturn(OrderBulkResponseDto.builder()
+                        .created(1)
+                        .failed(1)
+                        .results(List.of(
+                                OrderBulkResultDto.builder().index(0).status(BulkResultStatus.CREATED).orderId(5L).build(),
+                                OrderBulkResultDto.builder().index(1).status(BulkResultStatus.FAILED)
+                                        .error("Item not found: Unknown").build()))
+                        .build());
+
+        OrderIntakeDto first = intake.submit(authentication, order());
+        OrderIntakeDto second = intake.submit(authentication, order());
+        assertEquals(IntakeStatus.QUEUED, intake.getStatus(authentication, first.getTrackingId()).getStatus());
+
+        assertEquals(2, intake.processPending());
+
+        OrderIntakeDto created = intake.getStatus(authentication, first.getTrackingId());
+        assertEquals(IntakeStatus.CREATED, created.getStatus());
+        assertEquals(5L, created.getOrderId());
+        assertNotNull(created.getCompletedAt());
+        OrderIntakeDto failed = intake.getStatus(authentication, second.getTrackingId());
+        assertEquals(IntakeStatus.FAILED, failed.getStatus());
+        assertEquals("Item not found: Unknown", failed.getError());
+    }
+
+    @Test
+    void submit_queueFull_throwsServiceUnavailable() {
+        OrderIntakeServiceImpl intake = new OrderIntakeServiceImpl(orderBulkService, properties(1));
+        when(authentication.getName()).thenReturn(EMAIL);
+
+        intake.submit(authentication, order());
+
+        assertThrows(ServiceUnavailableException.class, () -> intake.submit(authentication, order()));
+    }
+
+    @Test
+    void getStatus_otherPrincipal_throwsNotFound() {
+        OrderIntakeServiceImpl intake = new OrderIntakeServiceImpl(orderBulkService, properties(10));
+        when(authentication.getName()).thenReturn(EMAIL);
+        when(otherAuthentication.getName()).thenReturn("other@example.com");
+
+        OrderIntakeDto accepted = intake.submit(authentication, order());
+
+        assertThrows(NotFoundException.class, () -> intake.getStatus(otherAuthentication, accepted.getTrackingId()));
+    }
+
+    private static OrderIntakeProperties properties(int queueCapacity) {
+        OrderIntakeProperties properties = new OrderIntakeProperties();
+        properties.setEnabled(true);
+        properties.setQueueCapacity(queueCapacity);
+        return properties;
+    }
+
+    private static OrderCreateDto order() {
+        return OrderCreateDto.builder()
+                .email(EMAIL)
+                .items(List.of(new OrderItemCreateDto("Laptop", 1)))
+                .build();
+    }
+}
@@ -5,16 +5,33 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.archive.OrderArchive;
+import org.oldvabik.orderservice.cache.ItemCatalogCache;
+import org.oldvabik.orderservice.cache.ItemNameFilter;
+import org.oldvabik.orderservice.cache.ItemSalesCounter;
 import org.oldvabik.orderservice.client.UserServiceClient;
 import org.oldvabik.orderservice.dto.*;
 import org.oldvabik.orderservice.entity.*;
+import org.oldvabik.orderservice.exception.BadRequestException;
+import org.oldvabik.orderservice.exception.ConflictException;
 import org.oldvabik.orderservice.exception.NotFoundException;
 import org.oldvabik.orderservice.kafka.OrderEventProducer;
 import org.oldvabik.orderservice.mapper.OrderMapper;
-import org.oldvabik.orderservice.repository.ItemRepository;
+import org.oldvabik.orderservice.repository.OrderChangeRepository;
 import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.projection.OrderChangeRow;
+import org.oldvabik.orderservice.repository.projection.OrderHeaderRow;
+import org.oldvabik.orderservice.repository.projection.OrderVersionRow;
 import org.oldvabik.orderservice.security.AccessChecker;
+import org.oldvabik.orderservice.service.ItemStockService;
+import org.oldvabik.orderservice.service.OrderStatsService;
+import org.oldvabik.orderservice.service.UserOrderSummaryService;
+import org.oldvabik.orderservice.service.impl.IdempotencyStore;
+import org.oldvabik.orderservice.service.impl.OrderChangeWatermark;
+import org.oldvabik.orderservice.service.impl.OrderCursor;
+import org.oldvabik.orderservice.service.impl.OrderRowAssembler;
 import org.oldvabik.orderservice.service.impl.OrderServiceImpl;
+import org.oldvabik.orderservice.service.impl.OrderViewStore;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +42,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,7 +55,7 @@ class OrderServiceImplTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private ItemRepository itemRepository;
+    private ItemCatalogCache itemCatalogCache;
 
     @Mock
     private OrderMapper orderMapper;
@@ -51,6 +69,36 @@ class OrderServiceImplTest {
     @Mock
     private OrderEventProducer orderEventProducer;
 
+    @Mock
+    private OrderRowAssembler orderRowAssembler;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    @Mock
+    private OrderViewStore orderViewStore;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ItemStockService itemStockService;
+
+    @Mock
+    private ItemSalesCounter itemSalesCounter;
+
+    @Mock
+    private UserOrderSummaryService userOrderSummaryService;
+
+    @Mock
+    private ItemNameFilter itemNameFilter;
+
+    @Mock
+    private OrderChangeRepository orderChangeRepository;
+
     @Mock
     private Authentication authentication;
 
@@ -69,13 +117,15 @@ class OrderServiceImplTest {
         createDto.setItems(List.of(itemCreateDto(ITEM_NAME, 2)));
 
         var user = userDto(USER_ID, EMAIL);
-        var item = item(10L, ITEM_NAME, BigDecimal.valueOf(999.99));
+        var item = new ItemDto(10L, ITEM_NAME, BigDecimal.valueOf(999.99));
         var savedOrder = order(ORDER_ID, USER_ID);
         var orderDtoFromMapper = new OrderDto();
 
+        when(itemNameFilter.mightContain(any())).thenReturn(true);
         when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
         when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
-        when(itemRepository.findByName(ITEM_NAME)).thenReturn(Optional.of(item));
+        when(itemCatalogCache.findByName(ITEM_NAME)).thenReturn(Optional.of(item));
+        when(itemStockService.reserve(10L, 2L)).thenReturn(true);
         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
         when(orderMapper.toDto(savedOrder)).thenReturn(orderDtoFromMapper);
 
@@ -85,9 +135,57 @@ class OrderServiceImplTest {
 
         assertNotNull(result);
         assertEquals(user, result.getUser());
-        verify(orderRepository).save(any(Order.class));
+        verify(orderRepository).save(argThat((Order order) ->
+                new BigDecimal("1999.98").equals(order.getTotalAmount())));
         verify(orderMapper).toDto(savedOrder);
         verify(orderEventProducer).sendOrderCreatedEvent(any());
+        verify(orderStatsService).recordCreated(savedOrder.getCreationDate().toLocalDate(), OrderStatus.PENDING);
+        verify(orderViewStore).save(result);
+        verify(itemSalesCounter).recordAfterCommit(Map.of(10L, 2L));
+        verify(userOrderSummaryService).recordCreated(List.of(savedOrder));
+    }
+
+    @Test
+    void createOrder_withIdempotencyKey_replaysPreviousOrder() {
+        var dto = new OrderCreateDto();
+        dto.setEmail(EMAIL);
+        dto.setItems(List.of(itemCreateDto(ITEM_NAME, 1)));
+        var previous = OrderDto.builder().id(ORDER_ID).userId(USER_ID).build();
+
+        when(authentication.getName()).thenReturn(EMAIL);
+        when(idempotencyStore.hash(dto)).thenReturn("hash");
+        when(idempotencyStore.claim(EMAIL, "key-1", "hash")).thenReturn(Optional.of(previous));
+
+        OrderDto result = orderService.createOrder(authentication, dto, "key-1");
+
+        assertSame(previous, result);
+        verifyNoInteractions(userServiceClient, orderRepository, orderEventProducer, orderViewStore);
+        verify(idempotencyStore, never()).complete(any(), any(), any(), any());
+    }
+
+    @Test
+    void createOrder_withNewIdempotencyKey_createsAndRecordsOrder() {
+        var dto = new OrderCreateDto();
+        dto.setEmail(EMAIL);
+        dto.setItems(List.of(itemCreateDto(ITEM_NAME, 1)));
+        var user = userDto(USER_ID, EMAIL);
+        var savedOrder = order(ORDER_ID, USER_ID);
+
+        when(authentication.getName()).thenReturn(EMAIL);
+        when(idempotencyStore.hash(dto)).thenReturn("hash");
+        when(idempotencyStore.claim(EMAIL, "key-1", "hash")).thenReturn(Optional.empty());
+        when(itemNameFilter.mightContain(any())).thenReturn(true);
+        when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
+        when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
+        when(itemCatalogCache.findByName(ITEM_NAME))
+                .thenReturn(Optional.of(new ItemDto(10L, ITEM_NAME, BigDecimal.TEN)));
+        when(itemStockService.reserve(10L, 1L)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        when(orderMapper.toDto(savedOrder)).thenReturn(new OrderDto());
+
+        OrderDto result = orderService.createOrder(authentication, dto, "key-1");
+
+        verify(idempotencyStore).complete(EMAIL, "key-1", "hash", result);
     }
 
     @Test
@@ -98,6 +196,7 @@ class OrderServiceImplTest {
 
         var user = userDto(USER_ID, EMAIL);
 
+        when(itemNameFilter.mightContain(any())).thenReturn(true);
         when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
         when(accessChecker.canAccessUser(authentication, user)).thenReturn(false);
 
@@ -113,11 +212,84 @@ class OrderServiceImplTest {
 
         var user = userDto(USER_ID, EMAIL);
 
+        when(itemNameFilter.mightContain(any())).thenReturn(true);
         when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
         when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
-        when(itemRepository.findByName("Unknown Item")).thenReturn(Optional.empty());
+        when(itemCatalogCache.findByName("Unknown Item")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> orderService.createOrder(authentication, dto));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createOrder_unknownItemName_rejectedBeforeUserLookup() {
+        var dto = new OrderCreateDto();
+        dto.setEmail(EMAIL);
+        dto.setItems(List.of(itemCreateDto("Unknown Item", 1)));
+
+        when(itemNameFilter.mightContain("Unknown Item")).thenReturn(false);
+        when(itemCatalogCache.findByName("Unknown Item")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> orderService.createOrder(authentication, dto));
+        verify(itemNameFilter).recordMissing("Unknown Item");
+        verifyNoInteractions(userServiceClient, orderRepository);
+    }
+
+    @Test
+    void createOrder_knownMissingItemName_rejectedWithoutCatalogLookup() {
+        var dto = new OrderCreateDto();
+        dto.setEmail(EMAIL);
+        dto.setItems(List.of(itemCreateDto("Unknown Item", 1)));
+
+        when(itemNameFilter.mightContain("Unknown Item")).thenReturn(false);
+        when(itemNameFilter.isKnownMissing("Unknown Item")).thenReturn(true);
 
         assertThrows(NotFoundException.class, () -> orderService.createOrder(authentication, dto));
+        verifyNoInteractions(itemCatalogCache, userServiceClient, orderRepository);
+    }
+
+    @Test
+    void createOrder_filterMissForExistingItem_fallsBackToCatalog() {
+        var dto = new OrderCreateDto();
+        dto.setEmail(EMAIL);
+        dto.setItems(List.of(itemCreateDto(ITEM_NAME, 1)));
+        var user = userDto(USER_ID, EMAIL);
+        var item = new ItemDto(10L, ITEM_NAME, BigDecimal.valueOf(999.99));
+        var savedOrder = order(ORDER_ID, USER_ID);
+
+        when(itemNameFilter.mightContain(ITEM_NAME)).thenReturn(false);
+        when(itemCatalogCache.findByName(ITEM_NAME)).thenReturn(Optional.of(item));
+        when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
+        when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
+        when(itemStockService.reserve(10L, 1L)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+        when(orderMapper.toDto(savedOrder)).thenReturn(new OrderDto());
+
+        assertNotNull(orderService.createOrder(authentication, dto));
+        verify(itemNameFilter).add(ITEM_NAME);
+        verify(orderRepository).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_insufficientStock_releasesReservedLinesAndThrowsConflict() {
+        var dto = new OrderCreateDto();
+        dto.setEmail(EMAIL);
+        dto.setItems(List.of(itemCreateDto(ITEM_NAME, 1), itemCreateDto("Mouse", 3), itemCreateDto(ITEM_NAME, 2)));
+
+        var user = userDto(USER_ID, EMAIL);
+
+        when(itemNameFilter.mightContain(any())).thenReturn(true);
+        when(userServiceClient.getUserByEmail(authentication, EMAIL)).thenReturn(user);
+        when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
+        when(itemCatalogCache.findByName(ITEM_NAME))
+                .thenReturn(Optional.of(new ItemDto(10L, ITEM_NAME, BigDecimal.TEN)));
+        when(itemCatalogCache.findByName("Mouse"))
+                .thenReturn(Optional.of(new ItemDto(20L, "Mouse", BigDecimal.ONE)));
+        when(itemStockService.reserve(10L, 3L)).thenReturn(true);
+        when(itemStockService.reserve(20L, 3L)).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> orderService.createOrder(authentication, dto));
+        verify(itemStockService).release(Map.of(10L, 3L));
         verify(orderRepository, never()).save(any());
     }
 
@@ -126,6 +298,7 @@ class OrderServiceImplTest {
         var order = order(ORDER_ID, USER_ID);
         var user = userDto(USER_ID, EMAIL);
         var orderDtoFromMapper = new OrderDto();
+        orderDtoFromMapper.setUserId(USER_ID);
 
         when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.of(order));
         when(orderMapper.toDto(order)).thenReturn(orderDtoFromMapper);
@@ -140,15 +313,48 @@ class OrderServiceImplTest {
     @Test
     void getOrderById_notFound_throwsException() {
         when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.empty());
+        when(orderArchive.findById(ORDER_ID)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> orderService.getOrderById(authentication, ORDER_ID));
     }
 
+    @Test
+    void getOrderById_fromViewWithFreshSnapshot_skipsUserService() {
+        var user = userDto(USER_ID, EMAIL);
+        var view = OrderDto.builder().id(ORDER_ID).userId(USER_ID).status(OrderStatus.PAID).user(user).build();
+
+        when(orderViewStore.findById(ORDER_ID)).thenReturn(Optional.of(view));
+        when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
+
+        OrderDto result = orderService.getOrderById(authentication, ORDER_ID);
+
+        assertEquals(OrderStatus.PAID, result.getStatus());
+        verify(orderRepository, never()).findByIdWithDetails(any());
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    void getOrderById_archived_readsFromArchive() {
+        var user = userDto(USER_ID, EMAIL);
+        var archived = OrderDto.builder().id(ORDER_ID).userId(USER_ID).status(OrderStatus.DELIVERED).build();
+
+        when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.empty());
+        when(orderArchive.findById(ORDER_ID)).thenReturn(Optional.of(archived));
+        when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(user);
+        when(accessChecker.canAccessUser(authentication, user)).thenReturn(true);
+
+        OrderDto result = orderService.getOrderById(authentication, ORDER_ID);
+
+        assertEquals(OrderStatus.DELIVERED, result.getStatus());
+        assertEquals(user, result.getUser());
+    }
+
     @Test
     void getOrderById_accessDenied_throwsException() {
         var order = order(ORDER_ID, USER_ID);
         var user = userDto(USER_ID, EMAIL);
         var orderDto = new OrderDto();
+        orderDto.setUserId(USER_ID);
 
         when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.of(order));
         when(orderMapper.toDto(order)).thenReturn(orderDto);
@@ -158,19 +364,126 @@ class OrderServiceImplTest {
         assertThrows(AccessDeniedException.class, () -> orderService.getOrderById(authentication, ORDER_ID));
     }
 
+    @Test
+    void getOrderVersion_ownerFromToken_combinesOrderAndItemVersions() {
+        when(orderRepository.findVersionById(ORDER_ID)).thenReturn(Optional.of(version(USER_ID, 42L)));
+        when(accessChecker.isAdmin(authentication)).thenReturn(false);
+        when(accessChecker.getUserId(authentication)).thenReturn(USER_ID);
+
+        assertEquals("42.7", orderService.getOrderVersion(authentication, ORDER_ID));
+        verifyNoInteractions(userServiceClient, orderRowAssembler, orderViewStore);
+    }
+
+    @Test
+    void getOrderVersion_otherUser_returnsNull() {
+        when(orderRepository.findVersionById(ORDER_ID)).thenReturn(Optional.of(version(USER_ID, 42L)));
+        when(accessChecker.isAdmin(authentication)).thenReturn(false);
+        when(accessChecker.getUserId(authentication)).thenReturn(USER_ID + 1);
+
+        assertNull(orderService.getOrderVersion(authentication, ORDER_ID));
+    }
+
+    @Test
+    void getOrderVersion_notInLiveTables_returnsNull() {
+        when(orderRepository.findVersionById(ORDER_ID)).thenReturn(Optional.empty());
+
+        assertNull(orderService.getOrderVersion(authentication, ORDER_ID));
+        verifyNoInteractions(accessChecker);
+    }
+
+    @Test
+    void batchGetOrders_keepsRequestOrderAndReportsMissing() {
+        var user = userDto(USER_ID, EMAIL);
+        var first = OrderDto.builder().id(1L).userId(USER_ID).build();
+        var second = OrderDto.builder().id(2L).userId(USER_ID).build();
+        List<OrderHeaderRow> headers = List.of(
+                header(1L, USER_ID),
+                header(2L, USER_ID));
+
+        when(orderRepository.findHeadersByIds(argThat(ids -> ids.size() == 3))).thenReturn(headers);
+        when(orderRowAssembler.toDtos(headers)).thenReturn(List.of(first, second));
+        when(orderArchive.findByIds(List.of(3L))).thenReturn(Map.of());
+        when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(user);
+
+        BatchGetResultDto<OrderDto> result = orderService.batchGetOrders(authentication, List.of(2L, 3L, 1L, 2L));
+
+        assertEquals(List.of(2L, 1L), result.getFound().stream().map(OrderDto::getId).toList());
+        assertEquals(List.of(3L), result.getMissing());
+        assertEquals(user, result.getFound().get(1).getUser());
+        verify(userServiceClient, times(1)).getUserById(authentication, USER_ID);
+    }
+
+    @Test
+    void batchGetOrders_tooManyIds_throwsException() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 501; id++) {
+            ids.add(id);
+        }
+
+        assertThrows(BadRequestException.class, () -> orderService.batchGetOrders(authentication, ids));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getOrderChanges_morePages_returnsWatermarkOfLastChange() {
+        var user = userDto(USER_ID, EMAIL);
+        var first = OrderDto.builder().id(7L).userId(USER_ID).build();
+        var second = OrderDto.builder().id(3L).userId(USER_ID).build();
+        List<OrderHeaderRow> headers = List.of(
+                new OrderHeaderRow(3L, USER_ID, OrderStatus.PAID, LocalDateTime.now()),
+                header(7L, USER_ID));
+        String watermark = new OrderChangeWatermark(40L, 10L).encode();
+
+        when(orderChangeRepository.findChangesAfter(40L, 10L, 3)).thenReturn(List.of(
+                new OrderChangeRow(7L, 41L, 11L),
+                new OrderChangeRow(3L, 42L, 12L),
+                new OrderChangeRow(5L, 42L, 13L)));
+        when(orderRepository.findHeadersByIds(List.of(7L, 3L))).thenReturn(headers);
+        when(orderRowAssembler.toDtos(headers)).thenReturn(List.of(second, first));
+        when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(user);
+
+        OrderChangesDto result = orderService.getOrderChanges(authentication, watermark, 2);
+
+        assertEquals(List.of(7L, 3L), result.getContent().stream().map(OrderDto::getId).toList());
+        assertTrue(result.isHasMore());
+        OrderChangeWatermark next = OrderChangeWatermark.decode(result.getWatermark());
+        assertEquals(42L, next.getChangeXid());
+        assertEquals(12L, next.getChangeSeq());
+        verify(userServiceClient, times(1)).getUserById(authentication, USER_ID);
+    }
+
+    @Test
+    void getOrderChanges_noChanges_keepsWatermark() {
+        when(orderChangeRepository.findChangesAfter(0L, 0L, 11)).thenReturn(List.of());
+
+        OrderChangesDto result = orderService.getOrderChanges(authentication, null, 10);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasMore());
+        assertEquals(OrderChangeWatermark.START.encode(), result.getWatermark());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getOrderChanges_invalidWatermark_throwsException() {
+        assertThrows(BadRequestException.class, () -> orderService.getOrderChanges(authentication, "%%%", 10));
+        verifyNoInteractions(orderChangeRepository);
+    }
+
     @Test
     void getOrders_noFilters_returnsPagedOrders() {
-        var order = order(ORDER_ID, USER_ID);
+        var header = header(ORDER_ID, USER_ID);
         var user = userDto(USER_ID, EMAIL);
         var orderDto = new OrderDto();
+        orderDto.setUserId(USER_ID);
         var pageRequest = PageRequest.of(0, 10);
-        var page = new PageImpl<>(List.of(order), pageRequest, 1);
+        var page = new PageImpl<>(List.of(header), pageRequest, 1);
 
-        when(orderRepository.findAllWithDetails(pageRequest)).thenReturn(page);
-        when(orderMapper.toDto(order)).thenReturn(orderDto);
+        when(orderRepository.findAllHeaders(any(), any(), eq(pageRequest))).thenReturn(page);
+        when(orderRowAssembler.toDtoPage(page)).thenReturn(new PageImpl<>(List.of(orderDto), pageRequest, 1));
         when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(user);
 
-        Page<OrderDto> result = orderService.getOrders(authentication, 0, 10, null, null);
+        Page<OrderDto> result = orderService.getOrders(authentication, 0, 10, null, null, null, null);
 
         assertEquals(1, result.getContent().size());
         assertEquals(user, result.getContent().get(0).getUser());
@@ -178,22 +491,108 @@ class OrderServiceImplTest {
 
     @Test
     void getOrders_withIdsAndStatuses_usesCorrectRepositoryMethod() {
-        var order = order(ORDER_ID, USER_ID);
+        var header = header(ORDER_ID, USER_ID);
         var user = userDto(USER_ID, EMAIL);
         var orderDto = new OrderDto();
+        orderDto.setUserId(USER_ID);
         var pageRequest = PageRequest.of(0, 10);
-        var page = new PageImpl<>(List.of(order), pageRequest, 1);
+        var page = new PageImpl<>(List.of(header), pageRequest, 1);
 
-        when(orderRepository.findByIdInAndStatusIn(
-                eq(List.of(ORDER_ID)), eq(List.of(OrderStatus.PENDING)), eq(pageRequest)
+        when(orderRepository.findHeadersByIdInAndStatusIn(
+                eq(List.of(ORDER_ID)), eq(List.of(OrderStatus.PENDING)), any(), any(), eq(pageRequest)
         )).thenReturn(page);
-        when(orderMapper.toDto(order)).thenReturn(orderDto);
+        when(orderRowAssembler.toDtoPage(page)).thenReturn(new PageImpl<>(List.of(orderDto), pageRequest, 1));
         when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(user);
 
-        Page<OrderDto> result = orderService.getOrders(authentication, 0, 10, List.of(ORDER_ID), List.of(OrderStatus.PENDING));
+        Page<OrderDto> result = orderService.getOrders(
+                authentication, 0, 10, List.of(ORDER_ID), List.of(OrderStatus.PENDING), null, null);
+
+        assertEquals(1, result.getContent().size());
+        verify(orderRepository).findHeadersByIdInAndStatusIn(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getOrders_withCreationDates_boundsQueryToWholeDays() {
+        var pageRequest = PageRequest.of(0, 10);
+        Page<OrderHeaderRow> page = new PageImpl<>(List.of(), pageRequest, 0);
+
+        when(orderRepository.findAllHeaders(any(), any(), eq(pageRequest))).thenReturn(page);
+        when(orderRowAssembler.toDtoPage(page)).thenReturn(new PageImpl<>(List.of(), pageRequest, 0));
+
+        orderService.getOrders(authentication, 0, 10, null, null,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+
+        verify(orderRepository).findAllHeaders(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0), pageRequest);
+    }
+
+    @Test
+    void getOrders_creationDatesReversed_throwsException() {
+        assertThrows(BadRequestException.class, () -> orderService.getOrders(authentication, 0, 10, null, null,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getMyOrders_usesJwtUserIdWithoutUserService() {
+        var header = header(ORDER_ID, USER_ID);
+        var orderDto = new OrderDto();
+        orderDto.setUserId(USER_ID);
+
+        when(accessChecker.getUserId(authentication)).thenReturn(USER_ID);
+        when(authentication.getName()).thenReturn(EMAIL);
+        when(orderRepository.findHistory(eq(USER_ID), any())).thenReturn(List.of(header));
+        when(orderRowAssembler.toDtos(List.of(header))).thenReturn(List.of(orderDto));
+
+        OrderSliceDto result = orderService.getMyOrders(authentication, null, 10);
 
         assertEquals(1, result.getContent().size());
-        verify(orderRepository).findByIdInAndStatusIn(any(), any(), any());
+        assertEquals(USER_ID, result.getContent().get(0).getUser().getId());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    void getOrdersByUserId_morePages_returnsCursorOfLastRow() {
+        var first = header(ORDER_ID, USER_ID);
+        var second = header(ORDER_ID + 1, USER_ID);
+        var user = userDto(USER_ID, EMAIL);
+
+        when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(user);
+        when(orderRepository.findHistory(eq(USER_ID), any())).thenReturn(List.of(first, second));
+        when(orderRowAssembler.toDtos(List.of(first))).thenReturn(List.of(new OrderDto()));
+
+        OrderSliceDto result = orderService.getOrdersByUserId(authentication, USER_ID, null, 1);
+
+        assertTrue(result.isHasNext());
+        var cursor = OrderCursor.decode(result.getNextCursor());
+        assertEquals(ORDER_ID, cursor.getId());
+        assertEquals(first.getCreationDate(), cursor.getCreationDate());
+    }
+
+    @Test
+    void getOrdersByUserId_withCursor_continuesAfterPosition() {
+        var position = new OrderCursor(LocalDateTime.of(2024, 5, 1, 12, 0), ORDER_ID);
+        var user = userDto(USER_ID, EMAIL);
+
+        when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(user);
+        when(orderRepository.findHistoryAfter(eq(USER_ID), eq(position.getCreationDate()), eq(ORDER_ID), any()))
+                .thenReturn(List.of());
+        when(orderRowAssembler.toDtos(List.of())).thenReturn(List.of());
+
+        OrderSliceDto result = orderService.getOrdersByUserId(authentication, USER_ID, position.encode(), 10);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void getOrdersByUserId_invalidCursor_throwsException() {
+        when(userServiceClient.getUserById(authentication, USER_ID)).thenReturn(userDto(USER_ID, EMAIL));
+
+        assertThrows(BadRequestException.class,
+                () -> orderService.getOrdersByUserId(authentication, USER_ID, "not-a-cursor", 10));
     }
 
     @Test
@@ -207,6 +606,7 @@ class OrderServiceImplTest {
         var updatedDto = new OrderDto();
         updatedDto.setUserId(USER_ID);
 
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
         when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.of(order));
         doNothing().when(orderMapper).updateEntityFromDto(updateDto, order);
         when(orderRepository.save(order)).thenReturn(order);
@@ -221,23 +621,124 @@ class OrderServiceImplTest {
     }
 
     @Test
-    void deleteOrder_success() {
+    void updateOrder_cancelled_releasesStock() {
+        var order = order(ORDER_ID, USER_ID);
+        order.getItems().add(OrderItem.builder()
+                .item(Item.builder().id(10L).name(ITEM_NAME).build())
+                .quantity(2)
+                .build());
+        var updateDto = new OrderUpdateDto();
+        updateDto.setStatus(OrderStatus.CANCELLED);
+
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.of(order));
+        doAnswer(invocation -> {
+            order.setStatus(OrderStatus.CANCELLED);
+            return null;
+        }).when(orderMapper).updateEntityFromDto(updateDto, order);
+        when(orderRepository.save(order)).thenReturn(order);
+        when(orderMapper.toDto(order)).thenReturn(new OrderDto());
+
+        orderService.updateOrder(authentication, ORDER_ID, updateDto);
+
+        verify(itemStockService).release(Map.of(10L, 2L));
+        verify(itemStockService, never()).reserve(any(), anyLong());
+    }
+
+    @Test
+    void updateOrder_cancelledByExpiryWhileWaitingForLock_releasesNothing() {
         var order = order(ORDER_ID, USER_ID);
+        // the expiry batch committed before the lock was granted
+        order.setStatus(OrderStatus.CANCELLED);
+        order.getItems().add(OrderItem.builder()
+                .item(Item.builder().id(10L).name(ITEM_NAME).build())
+                .quantity(2)
+                .build());
+        var updateDto = new OrderUpdateDto();
+        updateDto.setStatus(OrderStatus.CANCELLED);
 
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
         when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+        when(orderMapper.toDto(order)).thenReturn(new OrderDto());
+
+        orderService.updateOrder(authentication, ORDER_ID, updateDto);
+
+        verifyNoInteractions(itemStockService, orderEventProducer);
+    }
+
+    @Test
+    void deleteOrder_success() {
+        var order = order(ORDER_ID, USER_ID);
+
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
 
         orderService.deleteOrder(ORDER_ID);
 
-        verify(orderRepository).delete(order);
+        verify(userOrderSummaryService).recordDeleted(List.of(ORDER_ID));
+        verify(orderRepository).deleteAllByIdIn(List.of(ORDER_ID));
+        verify(orderRepository, never()).findByIdWithDetails(any());
+        verify(orderStatsService).recordDeleted(order.getCreationDate().toLocalDate(), OrderStatus.PENDING);
+        verify(orderViewStore).delete(List.of(ORDER_ID));
+    }
+
+    @Test
+    void deleteOrder_pending_releasesReservedStock() {
+        var order = order(ORDER_ID, USER_ID);
+        order.getItems().add(OrderItem.builder()
+                .item(Item.builder().id(10L).name(ITEM_NAME).build())
+                .quantity(2)
+                .build());
+
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder(ORDER_ID);
+
+        verify(itemStockService).release(Map.of(10L, 2L));
+    }
+
+    @Test
+    void deleteOrder_shipped_keepsStock() {
+        var order = order(ORDER_ID, USER_ID);
+        order.setStatus(OrderStatus.SHIPPED);
+        order.getItems().add(OrderItem.builder()
+                .item(Item.builder().id(10L).name(ITEM_NAME).build())
+                .quantity(2)
+                .build());
+
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder(ORDER_ID);
+
+        verifyNoInteractions(itemStockService);
+        verify(orderRepository).deleteAllByIdIn(List.of(ORDER_ID));
     }
 
     @Test
     void deleteOrder_notFound_throwsException() {
-        when(orderRepository.findByIdWithDetails(ORDER_ID)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> orderService.deleteOrder(ORDER_ID));
     }
 
+    @Test
+    void updateOrderStatusByPayment_success_recordsTransition() {
+        var order = order(ORDER_ID, USER_ID);
+
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+
+        orderService.updateOrderStatusByPayment(String.valueOf(ORDER_ID), "SUCCESS");
+
+        assertEquals(OrderStatus.PAID, order.getStatus());
+        verify(orderRepository).save(order);
+        verify(orderStatsService).recordTransition(order.getCreationDate().toLocalDate(), OrderStatus.PENDING, OrderStatus.PAID);
+        verify(orderViewStore).updateStatus(ORDER_ID, OrderStatus.PAID);
+        verify(userOrderSummaryService).recordTransition(USER_ID, order.getTotalAmount(), OrderStatus.PENDING,
+                OrderStatus.PAID);
+        verify(orderEventProducer).sendOrderStatusChangedEvent(argThat(event -> event.getOrderId().equals(ORDER_ID)
+                && event.getPreviousStatus() == OrderStatus.PENDING && event.getStatus() == OrderStatus.PAID));
+    }
+
     private OrderItemCreateDto itemCreateDto(String name, int quantity) {
         var dto = new OrderItemCreateDto();
         dto.setName(name);
@@ -245,14 +746,6 @@ class OrderServiceImplTest {
         return dto;
     }
 
-    private Item item(Long id, String name, BigDecimal price) {
-        var item = new Item();
-        item.setId(id);
-        item.setName(name);
-        item.setPrice(price);
-        return item;
-    }
-
     private Order order(Long id, Long userId) {
         var order = new Order();
         order.setId(id);
@@ -263,6 +756,10 @@ class OrderServiceImplTest {
         return order;
     }
 
+    private OrderHeaderRow header(Long id, Long userId) {
+        return new OrderHeaderRow(id, userId, OrderStatus.PENDING, LocalDateTime.now());
+    }
+
     private UserDto userDto(Long id, String email) {
         var user = new UserDto();
         user.setId(id);
@@ -272,4 +769,23 @@ class OrderServiceImplTest {
         user.setBirthDate(LocalDate.of(1990, 1, 1));
         return user;
     }
-}
\ No newline at end of file
+
+    private OrderVersionRow version(Long userId, Long changeSeq) {
+        return new OrderVersionRow() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getChangeSeq() {
+                return changeSeq;
+            }
+
+            @Override
+            public Long getItemsChangeSeq() {
+                return 7L;
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package org.oldvabik.orderservice.unit.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.entity.Payment;
+import org.oldvabik.orderservice.entity.PaymentMatch;
+import org.oldvabik.orderservice.event.CreatePaymentEvent;
+import org.oldvabik.orderservice.repository.OrderRepository;
+import org.oldvabik.orderservice.repository.PaymentRepository;
+import org.oldvabik.orderservice.service.OrderService;
+import org.oldvabik.orderservice.service.impl.PaymentReconciliationServiceImpl;
+import java.math.BigDecimal;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceImplTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private PaymentReconciliationServiceImpl reconciliationService;
+
+    private static final Long ORDER_ID = 1L;
+
+    @Test
+    void recordPayment_coversRemainderOfEarlierPart_matches() {
+        when(paymentRepository.findById("p-2")).thenReturn(Optional.empty());
+        when(orderRepository.lockTotalAmountById(ORDER_ID)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(paymentRepository.sumSucceededAmount(ORDER_ID)).thenReturn(new BigDecimal("60.00"));
+        when(paymentRepository.insert(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        PaymentMatch result = reconciliationService.recordPayment(event("p-2", "success", "40.00"));
+
+        assertEquals(PaymentMatch.MATCHED, result);
+        verify(paymentRepository).insert(eq("p-2"), eq(ORDER_ID), eq("SUCCESS"), eq(new BigDecimal("40.00")),
+                eq(new BigDecimal("100.00")), eq("MATCHED"), any());
+    }
+
+    @Test
+    void recordPayment_lessThanTotal_isUnderpaid() {
+        when(paymentRepository.findById("p-1")).thenReturn(Optional.empty());
+        when(orderRepository.lockTotalAmountById(ORDER_ID)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(paymentRepository.sumSucceededAmount(ORDER_ID)).thenReturn(BigDecimal.ZERO);
+        when(paymentRepository.insert(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(PaymentMatch.UNDERPAID, reconciliationService.recordPayment(event("p-1", "SUCCESS", "99.99")));
+    }
+
+    @Test
+    void recordPayment_unknownOrder_isRecordedAsOrderNotFound() {
+        when(paymentRepository.findById("p-1")).thenReturn(Optional.empty());
+        when(orderRepository.lockTotalAmountById(ORDER_ID)).thenReturn(Optional.empty());
+        when(paymentRepository.insert(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(PaymentMatch.ORDER_NOT_FOUND, reconciliationService.recordPayment(event("p-1", "SUCCESS", "5")));
+        verify(paymentRepository, never()).sumSucceededAmount(any());
+    }
+
+    @Test
+    void recordPayment_redelivered_returnsRecordedVerdict() {
+        when(paymentRepository.findById("p-1"))
+                .thenReturn(Optional.of(Payment.builder().paymentId("p-1").verdict(PaymentMatch.OVERPAID).build()));
+
+        assertEquals(PaymentMatch.OVERPAID, reconciliationService.recordPayment(event("p-1", "SUCCESS", "5")));
+        verifyNoInteractions(orderRepository);
+        verify(paymentRepository, never()).insert(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void recordPayment_moreThanTwoFractionDigits_isRecordedAsInvalidAmount() {
+        when(paymentRepository.findById("p-1")).thenReturn(Optional.empty());
+        when(orderRepository.lockTotalAmountById(ORDER_ID)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(paymentRepository.insert(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(PaymentMatch.INVALID_AMOUNT, reconciliationService.recordPayment(event("p-1", "SUCCESS", "100.005")));
+        verify(paymentRepository).insert(eq("p-1"), eq(ORDER_ID), eq("SUCCESS"), eq(new BigDecimal("100.01")),
+                eq(new BigDecimal("100.00")), eq("INVALID_AMOUNT"), any());
+        verify(paymentRepository, never()).sumSucceededAmount(any());
+    }
+
+    @Test
+    void applyPayment_matched_updatesOrderStatus() {
+        when(paymentRepository.findById("p-1")).thenReturn(Optional.empty());
+        when(orderRepository.lockTotalAmountById(ORDER_ID)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(paymentRepository.sumSucceededAmount(ORDER_ID)).thenReturn(BigDecimal.ZERO);
+        when(paymentRepository.insert(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(PaymentMatch.MATCHED, reconciliationService.applyPayment(event("p-1", "SUCCESS", "100")));
+        verify(orderService).updateOrderStatusByPayment(String.valueOf(ORDER_ID), "SUCCESS");
+    }
+
+    @Test
+    void applyPayment_invalidAmount_leavesOrderStatusUnchanged() {
+        when(paymentRepository.findById("p-1")).thenReturn(Optional.empty());
+        when(orderRepository.lockTotalAmountById(ORDER_ID)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(paymentRepository.insert(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(PaymentMatch.INVALID_AMOUNT, reconciliationService.applyPayment(event("p-1", "SUCCESS", "99.999")));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void applyPayment_redelivered_leavesOrderStatusUnchanged() {
+        when(paymentRepository.findById("p-1"))
+                .thenReturn(Optional.of(Payment.builder().paymentId("p-1").verdict(PaymentMatch.MATCHED).build()));
+
+        assertEquals(PaymentMatch.MATCHED, reconciliationService.applyPayment(event("p-1", "SUCCESS", "100")));
+        verifyNoInteractions(orderService, orderRepository);
+    }
+
+    @Test
+    void applyPayment_concurrentDeliveryRecordedFirst_leavesOrderStatusUnchanged() {
+        when(paymentRepository.findById("p-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(Payment.builder().paymentId("p-1").verdict(PaymentMatch.MATCHED).build()));
+        when(orderRepository.lockTotalAmountById(ORDER_ID)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(paymentRepository.sumSucceededAmount(ORDER_ID)).thenReturn(BigDecimal.ZERO);
+        when(paymentRepository.insert(any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertEquals(PaymentMatch.MATCHED, reconciliationService.applyPayment(event("p-1", "SUCCESS", "100")));
+        verifyNoInteractions(orderService);
+    }
+
+    private static CreatePaymentEvent event(String paymentId, String status, String amount) {
+        return CreatePaymentEvent.builder()
+                .paymentId(paymentId)
+                .orderId(String.valueOf(ORDER_ID))
+                .status(status)
+                .paymentAmount(new BigDecimal(amount))
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package org.oldvabik.orderservice.unit.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.client.UserServiceClient;
+import org.oldvabik.orderservice.dto.UserOrderSummaryDto;
+import org.oldvabik.orderservice.entity.Order;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.repository.UserOrderSummaryRepository;
+import org.oldvabik.orderservice.repository.projection.UserOrderSummaryRow;
+import org.oldvabik.orderservice.security.AccessChecker;
+import org.oldvabik.orderservice.service.impl.UserOrderSummaryServiceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserOrderSummaryServiceImplTest {
+
+    @Mock
+    private UserOrderSummaryRepository summaryRepository;
+
+    @Mock
+    private AccessChecker accessChecker;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    private UserOrderSummaryServiceImpl summaryService;
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new UserOrderSummaryServiceImpl(summaryRepository, accessChecker, userServiceClient);
+    }
+
+    @Test
+    void recordCreated_aggregatesPerUserInUserIdOrder() {
+        summaryService.recordCreated(List.of(
+                order(20L, OrderStatus.PENDING, "10.00", CREATED),
+                order(10L, OrderStatus.PAID, "5.50", CREATED),
+                order(20L, OrderStatus.PENDING, "7.00", CREATED.plusHours(1))));
+
+        verify(summaryRepository).addOrders(argThat((List<UserOrderSummaryRow> rows) -> rows.size() == 2
+                && rows.get(0).getUserId() == 10L
+                && rows.get(0).getLifetimeSpend().compareTo(new BigDecimal("5.50")) == 0
+                && rows.get(1).getUserId() == 20L
+                && rows.get(1).getOrderCount() == 2L
+                && rows.get(1).getLifetimeSpend().signum() == 0
+                && rows.get(1).getLastOrderDate().equals(CREATED.plusHours(1))), any());
+    }
+
+    @Test
+    void recordTransition_changesSpendOnlyWhenSettlednessChanges() {
+        BigDecimal total = new BigDecimal("12.34");
+
+        summaryService.recordTransition(1L, total, OrderStatus.PENDING, OrderStatus.PAID);
+        summaryService.recordTransition(1L, total, OrderStatus.PAID, OrderStatus.SHIPPED);
+        summaryService.recordTransition(1L, total, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        summaryService.recordTransition(1L, total, OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+        verify(summaryRepository).addSpend(eq(1L), eq(total), any());
+        verify(summaryRepository).addSpend(eq(1L), eq(total.negate()), any());
+        verifyNoMoreInteractions(summaryRepository);
+    }
+
+    @Test
+    void recordArchived_keepsSummaryAndAddsArchivedAggregates() {
+        summaryService.recordArchived(List.of(1L, 2L));
+        summaryService.recordArchived(List.of());
+
+        verify(summaryRepository).addArchived(List.of(1L, 2L));
+        verifyNoMoreInteractions(summaryRepository);
+    }
+
+    @Test
+    void getSummary_userWithoutOrders_returnsEmptySummary() {
+        when(summaryRepository.findByUserId(7L)).thenReturn(Optional.empty());
+
+        UserOrderSummaryDto result = summaryService.getSummary(7L);
+
+        assertEquals(7L, result.getUserId());
+        assertEquals(0L, result.getOrderCount());
+        assertEquals(0, result.getLifetimeSpend().signum());
+        assertNull(result.getLastOrderDate());
+    }
+
+    @Test
+    void rebuild_recomputesInUserIdChunks() {
+        ReflectionTestUtils.setField(summaryService, "rebuildChunkSize", 10);
+        when(summaryRepository.findMinUserId()).thenReturn(1L);
+        when(summaryRepository.findMaxUserId()).thenReturn(25L);
+        when(summaryRepository.rebuildRange(anyLong(), anyLong())).thenReturn(4);
+
+        assertEquals(12, summaryService.rebuild());
+        verify(summaryRepository).rebuildRange(1L, 10L);
+        verify(summaryRepository).rebuildRange(11L, 20L);
+        verify(summaryRepository).rebuildRange(21L, 30L);
+        verify(summaryRepository).deleteOrphans();
+    }
+
+    private static Order order(Long userId, OrderStatus status, String total, LocalDateTime creationDate) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal(total));
+        order.setCreationDate(creationDate);
+        return order;
+    }
+}
@@ -0,0 +1,166 @@
+package org.oldvabik.orderservice.unit.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.oldvabik.orderservice.client.UserServiceClient;
+import org.oldvabik.orderservice.config.OrderStreamProperties;
+import org.oldvabik.orderservice.entity.OrderStatus;
+import org.oldvabik.orderservice.event.OrderStatusChangedEvent;
+import org.oldvabik.orderservice.exception.ServiceUnavailableException;
+import org.oldvabik.orderservice.security.AccessChecker;
+import org.oldvabik.orderservice.stream.OrderStatusStream;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusStreamTest {
+
+    @Mock
+    private AccessChecker accessChecker;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private Authentication authentication;
+
+    private OrderStreamProperties properties;
+    private List<RecordingEmitter> emitters;
+    private List<Runnable> stalledSends;
+    private boolean stallSenders;
+    private OrderStatusStream stream;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderStreamProperties();
+        properties.setBufferSize(3);
+        properties.setMaxSubscribers(2);
+        properties.setSubscriberQueueSize(2);
+        emitters = new ArrayList<>();
+        stalledSends = new ArrayList<>();
+        stream = new OrderStatusStream(new ObjectMapper().registerModule(new JavaTimeModule()),
+                accessChecker, userServiceClient, properties) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+
+            @Override
+            protected Executor createSenders(int threads) {
+                return task -> {
+                    if (stallSenders) {
+                        stalledSends.add(task);
+                    } else {
+                        task.run();
+                    }
+                };
+            }
+        };
+    }
+
+    @Test
+    void publish_deliversOnlyOwnOrdersToUsers() {
+        when(accessChecker.getUserId(authentication)).thenReturn(1L);
+        stream.subscribe(authentication, null);
+
+        stream.publish("0-1", event(10L, 1L));
+        stream.publish("0-2", event(11L, 2L));
+
+        assertEquals(1, emitters.get(0).events.size());
+        assertTrue(emitters.get(0).events.get(0).contains("id:0-1"));
+    }
+
+    @Test
+    void subscribe_withLastEventId_replaysMissedEvents() {
+        when(accessChecker.isAdmin(authentication)).thenReturn(true);
+        stream.publish("0-1", event(10L, 1L));
+        stream.publish("0-2", event(11L, 2L));
+        stream.publish("0-3", event(12L, 3L));
+
+        stream.subscribe(authentication, "0-1");
+        stream.publish("0-4", event(13L, 4L));
+
+        List<String> events = emitters.get(0).events;
+        assertEquals(3, events.size());
+        assertTrue(events.get(0).contains("id:0-2"));
+        assertTrue(events.get(2).contains("id:0-4"));
+    }
+
+    @Test
+    void subscribe_withEvictedLastEventId_sendsReset() {
+        when(accessChecker.isAdmin(authentication)).thenReturn(true);
+        for (int i = 1; i <= 4; i++) {
+            stream.publish("0-" + i, event(10L + i, 1L));
+        }
+
+        stream.subscribe(authentication, "0-1");
+
+        assertEquals(1, emitters.get(0).events.size());
+        assertTrue(emitters.get(0).events.get(0).contains("event:reset"));
+    }
+
+    @Test
+    void subscribe_overLimit_throwsServiceUnavailable() {
+        when(accessChecker.isAdmin(authentication)).thenReturn(true);
+        stream.subscribe(authentication, null);
+        stream.subscribe(authentication, null);
+
+        assertThrows(ServiceUnavailableException.class, () -> stream.subscribe(authentication, null));
+        assertEquals(2, stream.getSubscriberCount());
+    }
+
+    @Test
+    void publish_subscriberFallingBehind_isDroppedWithoutBlockingPublisher() {
+        when(accessChecker.isAdmin(authentication)).thenReturn(true);
+        stream.subscribe(authentication, null);
+        stallSenders = true;
+
+        for (int i = 1; i <= 4; i++) {
+            stream.publish("0-" + i, event(10L + i, 1L));
+        }
+
+        assertEquals(0, stream.getSubscriberCount());
+        assertEquals(1, stalledSends.size());
+        stalledSends.get(0).run();
+        assertTrue(emitters.get(0).events.isEmpty());
+        assertTrue(emitters.get(0).completed);
+    }
+
+    private static OrderStatusChangedEvent event(Long orderId, Long userId) {
+        return OrderStatusChangedEvent.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .previousStatus(OrderStatus.PENDING)
+                .status(OrderStatus.PAID)
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}